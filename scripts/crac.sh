@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# CRaC checkpoint/restore on a JDK with CRaC support, e.g. an Azul Zulu CRaC build. CRIU needs root or
+# CAP_CHECKPOINT_RESTORE for both steps. JAVA defaults to java on the PATH.
+#
+# usage: scripts/crac.sh checkpoint DIR JAR [application args]
+#          Start JAR, warm it up once it is ready and write the checkpoint to DIR; the JVM exits afterwards.
+#          Configuration is captured in the checkpoint, so pass the production settings here.
+#        scripts/crac.sh restore DIR
+#          Restore the warmed-up JVM from DIR.
+#   scripts/crac.sh checkpoint /tmp/cr target/halolight-api-java-1.0.0.jar --spring.profiles.active=prod
+#   scripts/crac.sh restore /tmp/cr
+set -euo pipefail
+
+JAVA=${JAVA:-java}
+[[ $# -ge 2 ]] || { sed -n '2,12p' "$0"; exit 1; }
+MODE=$1
+DIR=$2
+shift 2
+
+case "$MODE" in
+  checkpoint)
+    [[ $# -ge 1 ]] || { sed -n '2,12p' "$0"; exit 1; }
+    JAR=$1
+    shift
+    rm -rf "$DIR"
+    # The JVM is killed once the checkpoint is written, so its exit status says nothing
+    CRAC_ENABLED=true CRAC_CHECKPOINT=true \
+      "$JAVA" -XX:CRaCCheckpointTo="$DIR" -jar "$JAR" "$@" || true
+    if [[ -z "$(ls -A "$DIR" 2>/dev/null)" ]]; then
+      echo "no checkpoint written to $DIR, see the application log" >&2
+      exit 1
+    fi
+    echo "checkpoint written to $DIR"
+    ;;
+  restore)
+    exec "$JAVA" -XX:CRaCRestoreFrom="$DIR"
+    ;;
+  *)
+    sed -n '2,12p' "$0"
+    exit 1
+    ;;
+esac
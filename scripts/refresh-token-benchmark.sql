@@ -0,0 +1,150 @@
+-- Refresh token lookup on a large table: the former schema, which stored and indexed the whole JWT, against the
+-- current one, which indexes the fixed-width SHA-256 of an opaque token (see V2__catch_up_ddl_auto_schemas.sql)
+-- and leaves room in each page for revocations (V11__refresh_tokens_fillfactor.sql).
+-- Both tables get ROWS rows, then the script reports table and index sizes and times LOOKUPS random refreshes
+-- and revocations against each. Works in scratch tables and drops them afterwards unless keep=1.
+--
+-- usage: psql "$DATABASE_URL" -f scripts/refresh-token-benchmark.sql [-v rows=10000000] [-v lookups=100000] [-v keep=1]
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+\set rows 10000000
+\endif
+\if :{?lookups}
+\else
+\set lookups 100000
+\endif
+\if :{?keep}
+\else
+\set keep 0
+\endif
+\timing on
+
+drop table if exists bench_refresh_tokens_jwt, bench_refresh_tokens_hash, bench_refresh_token_keys,
+    bench_refresh_token_results;
+
+-- The former schema: token was a unique varchar(255) holding the signed JWT, about 200 characters
+create unlogged table bench_refresh_tokens_jwt (
+    id varchar(40) not null primary key,
+    user_id varchar(40) not null,
+    token varchar(255) not null,
+    expires_at timestamp(6) with time zone not null,
+    is_revoked boolean not null,
+    created_at timestamp(6) with time zone not null
+);
+
+create unlogged table bench_refresh_tokens_hash (
+    id varchar(40) not null primary key,
+    user_id varchar(40) not null,
+    token_hash varchar(64) not null,
+    family_id varchar(40) not null,
+    expires_at timestamp(6) with time zone not null,
+    is_revoked boolean not null,
+    created_at timestamp(6) with time zone not null
+) with (fillfactor = 90);
+
+-- Same header, similar payload and a signature: shaped like the JWTs the old code issued
+insert into bench_refresh_tokens_jwt
+select 'rt' || i, 'u' || (i % 100000),
+       'eyJhbGciOiJIUzI1NiJ9.eyJ1c2VySWQiOi' || md5(i::text) || md5(i || 'p') || md5(i || 'q') || '.'
+           || md5(i || 's') || substr(md5(i || 't'), 1, 11),
+       now() + interval '7 days', false, now()
+from generate_series(1, :rows) i;
+
+insert into bench_refresh_tokens_hash
+select 'rt' || i, 'u' || (i % 100000), encode(sha256(convert_to('token' || i, 'UTF8')), 'hex'),
+       'f' || (i / 4), now() + interval '7 days', false, now()
+from generate_series(1, :rows) i;
+
+alter table bench_refresh_tokens_jwt add constraint bench_refresh_tokens_jwt_token_key unique (token);
+alter table bench_refresh_tokens_hash add constraint bench_refresh_tokens_hash_token_hash_key unique (token_hash);
+create index bench_refresh_tokens_hash_family on bench_refresh_tokens_hash (family_id);
+vacuum analyze bench_refresh_tokens_jwt, bench_refresh_tokens_hash;
+
+select 'jwt' as schema,
+       pg_size_pretty(pg_table_size('bench_refresh_tokens_jwt')) as "table",
+       pg_size_pretty(pg_relation_size('bench_refresh_tokens_jwt_token_key')) as lookup_index
+union all
+select 'hash',
+       pg_size_pretty(pg_table_size('bench_refresh_tokens_hash')),
+       pg_size_pretty(pg_relation_size('bench_refresh_tokens_hash_token_hash_key'));
+
+create unlogged table bench_refresh_token_results (
+    schema varchar(8) not null,
+    operation varchar(40) not null,
+    operations integer not null,
+    total_ms numeric not null
+);
+
+-- Keys are generated before the clock starts, so only the statements themselves are timed. A revocation is the
+-- statement pair the old code ran, find then save by id, against the current single conditional UPDATE.
+create unlogged table bench_refresh_token_keys as
+select k.ord, t.token as jwt_key, encode(sha256(convert_to('token' || k.n, 'UTF8')), 'hex') as hash_key
+from (select ord, 1 + floor(random() * :rows)::integer as n from generate_series(1, :lookups) ord) k
+join bench_refresh_tokens_jwt t on t.id = 'rt' || k.n;
+
+create function pg_temp.bench_refresh_tokens(schema text, operation text) returns void language plpgsql as $$
+declare
+    keys text[];
+    found_id varchar(40);
+    started timestamptz;
+begin
+    if schema = 'jwt' then
+        select array_agg(jwt_key order by ord) into keys from bench_refresh_token_keys;
+    else
+        select array_agg(hash_key order by ord) into keys from bench_refresh_token_keys;
+    end if;
+
+    started := clock_timestamp();
+    for i in 1 .. cardinality(keys) loop
+        case operation
+            when 'find' then
+                if schema = 'jwt' then
+                    select id into found_id from bench_refresh_tokens_jwt where token = keys[i] and is_revoked = false;
+                else
+                    select id into found_id from bench_refresh_tokens_hash where token_hash = keys[i];
+                end if;
+            when 'revoke' then
+                if schema = 'jwt' then
+                    select id into found_id from bench_refresh_tokens_jwt where token = keys[i] and is_revoked = false;
+                    update bench_refresh_tokens_jwt set is_revoked = true where id = found_id;
+                else
+                    update bench_refresh_tokens_hash set is_revoked = true
+                    where token_hash = keys[i] and is_revoked = false and expires_at > now();
+                end if;
+        end case;
+    end loop;
+    insert into bench_refresh_token_results
+    values (schema, operation, cardinality(keys), extract(epoch from clock_timestamp() - started) * 1000);
+end $$;
+
+-- Each run starts without dirty buffers, so none pays for writing out the previous run's changes
+checkpoint;
+select pg_temp.bench_refresh_tokens('jwt', 'find');
+checkpoint;
+select pg_temp.bench_refresh_tokens('hash', 'find');
+checkpoint;
+select pg_temp.bench_refresh_tokens('jwt', 'revoke');
+checkpoint;
+select pg_temp.bench_refresh_tokens('hash', 'revoke');
+
+select schema, operation, operations, round(total_ms) as total_ms,
+       round(total_ms * 1000 / operations, 1) as us_per_operation
+from bench_refresh_token_results;
+
+-- Revocations that stayed on their page and added no index entries (PostgreSQL 15+ for the flush)
+select pg_stat_force_next_flush();
+select relname, n_tup_upd, n_tup_hot_upd
+from pg_stat_user_tables
+where relname in ('bench_refresh_tokens_jwt', 'bench_refresh_tokens_hash');
+
+explain (analyze, buffers, costs off)
+select id from bench_refresh_tokens_jwt
+where token = (select token from bench_refresh_tokens_jwt where id = 'rt42') and is_revoked = false;
+explain (analyze, buffers, costs off)
+select id from bench_refresh_tokens_hash where token_hash = encode(sha256(convert_to('token42', 'UTF8')), 'hex');
+
+\if :keep
+\else
+drop table bench_refresh_tokens_jwt, bench_refresh_tokens_hash, bench_refresh_token_keys, bench_refresh_token_results;
+\endif
@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Registrations per second: posts REQUESTS registrations of new users to /api/auth/register, CONCURRENCY at a
+# time, then prints the rate of successful registrations and the p50 and p99 latency. Each request sends its own
+# X-Forwarded-For so the per-client limit on /api/auth does not throttle the run; usernames carry a per-run
+# prefix, so runs can repeat against the same database.
+#
+# usage: scripts/register-load.sh [-n REQUESTS] [-c CONCURRENCY] [-p PORT]
+#   scripts/register-load.sh -n 500 -c 16
+set -euo pipefail
+
+REQUESTS=500
+CONCURRENCY=16
+PORT=${PORT:-8000}
+while [[ $# -gt 0 ]]; do
+  case "$1" in
+    -n) REQUESTS=$2; shift 2 ;;
+    -c) CONCURRENCY=$2; shift 2 ;;
+    -p) PORT=$2; shift 2 ;;
+    *) sed -n '2,8p' "$0"; exit 1 ;;
+  esac
+done
+
+curl -sf -o /dev/null "http://localhost:$PORT/actuator/health" || { echo "nothing answers on port $PORT" >&2; exit 1; }
+
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+
+# One curl process runs every transfer, so the client forks nothing per request
+run="r$(date +%s)"
+for i in $(seq 1 "$REQUESTS"); do
+  [[ $i -gt 1 ]] && echo next
+  cat <<EOF
+url = "http://localhost:$PORT/api/auth/register"
+output = "/dev/null"
+header = "Content-Type: application/json"
+header = "X-Forwarded-For: 10.$((i / 65536 % 256)).$((i / 256 % 256)).$((i % 256))"
+data = "{\"username\":\"$run-$i\",\"email\":\"$run-$i@example.com\",\"password\":\"load-test-1\",\"name\":\"Load $i\"}"
+write-out = "%{http_code} %{time_total}\n"
+EOF
+done > "$work/requests"
+
+start=$(date +%s%N)
+curl --no-progress-meter --parallel --parallel-max "$CONCURRENCY" -K "$work/requests" > "$work/results" || true
+elapsed=$(( $(date +%s%N) - start ))
+
+awk '$1 == 201 { print $2 * 1000 }' "$work/results" | sort -n > "$work/latencies"
+awk '$1 != 201 { print "  status " $1 }' "$work/results" | sort | uniq -c > "$work/failures"
+ok=$(wc -l < "$work/latencies")
+[[ $ok -gt 0 ]] || { echo "no registration succeeded" >&2; cat "$work/failures" >&2; exit 1; }
+
+awk -v elapsed="$elapsed" '{ latency[NR] = $1 }
+  END {
+    printf "%d registered in %.1f s: %.1f registrations/s, p50 %.0f ms, p99 %.0f ms\n", NR, elapsed / 1e9,
+        NR / (elapsed / 1e9), latency[int((NR - 1) * 0.50) + 1], latency[int((NR - 1) * 0.99) + 1]
+  }' "$work/latencies"
+cat "$work/failures"
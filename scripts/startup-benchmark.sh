@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Time to first request: starts the application RUNS times and measures from process start until
+# /actuator/health answers 200, then prints each run and the median.
+#
+# usage: scripts/startup-benchmark.sh [-n RUNS] [-p PORT] -- <command to start the application>
+#   scripts/startup-benchmark.sh -n 5 -- java -jar target/halolight-api-java-1.0.0.jar
+#   scripts/startup-benchmark.sh -n 5 -- java -XX:SharedArchiveFile=application/app.jsa \
+#       -Dspring.aot.enabled=true -jar application/app.jar
+set -euo pipefail
+
+RUNS=5
+PORT=${PORT:-8000}
+while [[ $# -gt 0 ]]; do
+  case "$1" in
+    -n) RUNS=$2; shift 2 ;;
+    -p) PORT=$2; shift 2 ;;
+    --) shift; break ;;
+    *) break ;;
+  esac
+done
+[[ $# -gt 0 ]] || { sed -n '2,9p' "$0"; exit 1; }
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+  start=$(date +%s%N)
+  PORT=$PORT "$@" > "/tmp/startup-benchmark-$run.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "run $run: application exited, see /tmp/startup-benchmark-$run.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  results+=("$elapsed")
+  echo "run $run: ${elapsed} ms"
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
+
+median=$(printf '%s\n' "${results[@]}" | sort -n | awk '{a[NR]=$1} END {print (NR % 2) ? a[(NR+1)/2] : int((a[NR/2] + a[NR/2+1]) / 2)}')
+echo "median: ${median} ms over $RUNS runs"
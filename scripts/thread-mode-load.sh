@@ -0,0 +1,87 @@
+#!/usr/bin/env bash
+# Virtual against platform threads: starts the application with VIRTUAL_THREADS_ENABLED=true and then false,
+# registers a user and sends the same mix of authenticated reads to each, REQUESTS requests CONCURRENCY at a time
+# after a warm-up of a fifth as many, then prints requests per second and the p50 and p99 latency per mode.
+# Each request sends its own X-Forwarded-For so the per-client rate limit does not throttle the run.
+#
+# usage: scripts/thread-mode-load.sh [-n REQUESTS] [-c CONCURRENCY] [-p PORT] -- <command to start the application>
+#   scripts/thread-mode-load.sh -n 5000 -c 64 -- java -jar target/halolight-api-java-1.0.0.jar
+set -euo pipefail
+
+REQUESTS=5000
+CONCURRENCY=64
+PORT=${PORT:-8000}
+while [[ $# -gt 0 ]]; do
+  case "$1" in
+    -n) REQUESTS=$2; shift 2 ;;
+    -c) CONCURRENCY=$2; shift 2 ;;
+    -p) PORT=$2; shift 2 ;;
+    --) shift; break ;;
+    *) break ;;
+  esac
+done
+[[ $# -gt 0 ]] || { sed -n '2,9p' "$0"; exit 1; }
+
+ENDPOINTS=(
+  /api/dashboard/stats
+  /api/dashboard/charts/user-activity
+  /api/calendar/events/upcoming
+  /api/notifications
+  /api/notifications/paginated
+  "/api/teams?search=a"
+)
+
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+
+# Writes a curl config for COUNT requests over the endpoint mix; one curl process then runs every transfer
+requests() {
+  local count=$1 token=$2 i
+  for i in $(seq 1 "$count"); do
+    [[ $i -gt 1 ]] && echo next
+    cat <<EOF
+url = "http://localhost:$PORT${ENDPOINTS[i % ${#ENDPOINTS[@]}]}"
+output = "/dev/null"
+header = "Authorization: Bearer $token"
+header = "X-Forwarded-For: 10.$((i / 65536 % 256)).$((i / 256 % 256)).$((i % 256))"
+write-out = "%{http_code} %{time_total}\n"
+EOF
+  done
+}
+
+for virtual in true false; do
+  VIRTUAL_THREADS_ENABLED=$virtual PORT=$PORT "$@" > "/tmp/thread-mode-load-$virtual.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "VIRTUAL_THREADS_ENABLED=$virtual: application exited, see /tmp/thread-mode-load-$virtual.log" >&2
+      exit 1
+    fi
+    sleep 0.2
+  done
+
+  user="load$(date +%s%N)"
+  token=$(curl -sf "http://localhost:$PORT/api/auth/register" -H 'Content-Type: application/json' \
+      -H "X-Forwarded-For: 10.255.0.1" \
+      -d "{\"username\":\"$user\",\"email\":\"$user@example.com\",\"password\":\"load-test-1\",\"name\":\"Load\"}" \
+      | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+  [[ -n $token ]] || { echo "VIRTUAL_THREADS_ENABLED=$virtual: registration failed" >&2; kill "$pid"; exit 1; }
+
+  requests $((REQUESTS / 5)) "$token" > "$work/warmup"
+  requests "$REQUESTS" "$token" > "$work/requests"
+  curl --no-progress-meter --parallel --parallel-max "$CONCURRENCY" -K "$work/warmup" > /dev/null || true
+  start=$(date +%s%N)
+  curl --no-progress-meter --parallel --parallel-max "$CONCURRENCY" -K "$work/requests" > "$work/results" || true
+  elapsed=$(( $(date +%s%N) - start ))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+
+  awk '$1 == 200 { print $2 * 1000 }' "$work/results" | sort -n > "$work/latencies"
+  awk -v elapsed="$elapsed" -v mode="$([[ $virtual == true ]] && echo virtual || echo platform)" \
+      '{ latency[NR] = $1 }
+    END {
+      printf "%s: %d ok in %.1f s: %.1f requests/s, p50 %.0f ms, p99 %.0f ms\n", mode, NR, elapsed / 1e9,
+          NR / (elapsed / 1e9), latency[int((NR - 1) * 0.50) + 1], latency[int((NR - 1) * 0.99) + 1]
+    }' "$work/latencies"
+  awk '$1 != 200 { print "  status " $1 }' "$work/results" | sort | uniq -c
+done
@@ -2,6 +2,7 @@ package com.halolight;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @SpringBootApplication
@@ -9,6 +10,11 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 public class HalolightApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(HalolightApplication.class, args);
+        SpringApplication application = new SpringApplication(HalolightApplication.class);
+        // Record startup steps, served at /actuator/startup and summarized in the log once started
+        if (Boolean.parseBoolean(System.getenv("STARTUP_TIMELINE"))) {
+            application.setApplicationStartup(new BufferingApplicationStartup(10_000));
+        }
+        application.run(args);
     }
 }
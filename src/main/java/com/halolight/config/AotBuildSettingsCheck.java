@@ -0,0 +1,44 @@
+package com.halolight.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warns when the application runs with AOT-generated bean definitions but a setting that selects beans was changed
+ * since the build. AOT evaluates those conditions when the image is built, so {@code VIRTUAL_THREADS_ENABLED} and
+ * {@code DB_REPLICAS_ENABLED} set only at runtime would otherwise be ignored without a trace.
+ */
+@Slf4j
+@Component
+public class AotBuildSettingsCheck {
+
+    @EventListener
+    public void onStarted(ApplicationStartedEvent event) {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        Environment environment = event.getApplicationContext().getEnvironment();
+        ListableBeanFactory beanFactory = event.getApplicationContext();
+        check("VIRTUAL_THREADS_ENABLED", Threading.VIRTUAL.isActive(environment),
+                has(beanFactory, VirtualThreadConfig.class));
+        check("DB_REPLICAS_ENABLED", environment.getProperty("app.datasource.replicas.enabled", Boolean.class, false),
+                has(beanFactory, ReplicaDataSourceConfig.class));
+    }
+
+    private static boolean has(ListableBeanFactory beanFactory, Class<?> type) {
+        return beanFactory.getBeanNamesForType(type, true, false).length > 0;
+    }
+
+    private static void check(String variable, boolean runtime, boolean built) {
+        if (runtime != built) {
+            log.warn("{} is {} at runtime but the AOT build was made with {}; the build-time value applies. " +
+                    "Rebuild the image with --build-arg {}={}", variable, runtime, built, variable, runtime);
+        }
+    }
+}
@@ -1,34 +1,257 @@
 package com.halolight.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Cache configuration using Caffeine
+ * Cache configuration using Caffeine. Size, TTL and refresh-ahead are set per cache under {@code app.cache}.
+ * <p>
+ * Cache methods are {@code @Cacheable(sync = true)}: concurrent misses on a key wait for a single computation,
+ * which runs outside Caffeine's map lock (see {@link ClusterCaffeineCache#get(Object, Callable)}).
+ * Refresh-ahead caches reload old entries on {@code applicationTaskExecutor} while readers keep getting the
+ * previous value. Hit ratio of every cache, and the time taken by background reloads, are exported through
+ * Micrometer. Evictions are applied on the other instances too, through the {@link CacheInvalidationBus}.
+ * <p>
+ * The manager is transaction-aware: evictions and puts made inside a transaction apply after it commits, so a
+ * concurrent reader cannot cache data that is about to change.
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(LocalCacheProperties.class)
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-                "dashboardStats",
-                "userRegistrationChart",
-                "userActivityChart"
-        );
-
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(5, TimeUnit.MINUTES)
-                .recordStats());
-
-        return cacheManager;
+    public CacheLoaders cacheLoaders() {
+        return new CacheLoaders();
+    }
+
+    /**
+     * Listens on a connection of its own to the primary database, outside the connection pool
+     */
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(LocalCacheProperties properties,
+                                                     DataSourceProperties dataSourceProperties,
+                                                     ObjectMapper objectMapper,
+                                                     MeterRegistry meterRegistry) {
+        return new CacheInvalidationBus(
+                dataSourceProperties.initializeDataSourceBuilder().type(SimpleDriverDataSource.class).build(),
+                objectMapper, properties.getInvalidation(), meterRegistry);
+    }
+
+    @Bean
+    public CacheManager cacheManager(LocalCacheProperties properties,
+                                     CacheLoaders cacheLoaders,
+                                     CacheInvalidationBus invalidationBus,
+                                     @Qualifier("applicationTaskExecutor") Executor refreshExecutor,
+                                     ObjectProvider<CacheMetricsRegistrar> cacheMetricsRegistrar) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new ClusterCaffeineCache(name, cache, isAllowNullValues(), invalidationBus);
+            }
+
+            // Spring Boot binds the caches that exist at startup; bind caches created on first use as well
+            @Override
+            protected Cache createCaffeineCache(String name) {
+                Cache cache = super.createCaffeineCache(name);
+                cacheMetricsRegistrar.ifAvailable(registrar ->
+                        registrar.bindCacheToRegistry(cache, Tag.of("cache.manager", "cacheManager")));
+                return cache;
+            }
+        };
+
+        properties.getSpecs().forEach((name, spec) -> {
+            Caffeine<Object, Object> builder = builder(name, spec);
+            if (spec.getRefreshAfter() == null) {
+                cacheManager.registerCustomCache(name, builder.build());
+            } else {
+                cacheManager.registerCustomCache(name, builder
+                        .refreshAfterWrite(spec.getRefreshAfter())
+                        .executor(refreshExecutor)
+                        .build(cacheLoaders.loaderFor(name)));
+            }
+        });
+
+        // Caches used without an entry in app.cache.specs
+        if (properties.getDefaults().getRefreshAfter() != null) {
+            throw new IllegalStateException("app.cache.defaults.refresh-after is not supported, caches without "
+                    + "an entry in app.cache.specs have no loader");
+        }
+        cacheManager.setCaffeine(builder("defaults", properties.getDefaults()));
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static Caffeine<Object, Object> builder(String name, LocalCacheProperties.Spec spec) {
+        if (spec.getJitter() < 0 || spec.getJitter() >= 1) {
+            throw new IllegalStateException("app.cache " + name + ": jitter must be in [0, 1)");
+        }
+        Duration shortestTtl = Duration.ofNanos((long) (spec.getTtl().toNanos() * (1 - spec.getJitter())));
+        if (spec.getRefreshAfter() != null && spec.getRefreshAfter().compareTo(shortestTtl) >= 0) {
+            throw new IllegalStateException("app.cache " + name + ": refresh-after must be shorter than "
+                    + "the TTL minus its jitter (" + shortestTtl + ")");
+        }
+        return Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfter(new JitteredExpiry(spec.getTtl().toNanos(), spec.getJitter()))
+                .recordStats();
+    }
+
+    /**
+     * Publishes its evictions to the other instances and applies theirs. Being a {@link CaffeineCache}, it is
+     * still bound to Micrometer by Spring Boot.
+     */
+    static class ClusterCaffeineCache extends CaffeineCache {
+
+        private final CacheInvalidationBus invalidationBus;
+        private final ConcurrentMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+        ClusterCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                             boolean allowNullValues, CacheInvalidationBus invalidationBus) {
+            super(name, cache, allowNullValues);
+            this.invalidationBus = invalidationBus;
+            invalidationBus.register(name, cache::invalidate, cache::invalidateAll);
+        }
+
+        /**
+         * Never loads. Spring looks keys of a refresh-ahead cache up with {@code LoadingCache.get}, which runs the
+         * refresh loader for a missing key inside Caffeine's map lock; misses are left to the {@code @Cacheable}
+         * method instead, as {@link CacheLoaders} intends. Stale entries are still refreshed in the background.
+         */
+        @Override
+        protected Object lookup(Object key) {
+            return getNativeCache().getIfPresent(key);
+        }
+
+        /**
+         * One load per key at a time, like Caffeine's own {@code get(key, mappingFunction)}, but the loader does
+         * not run inside Caffeine's map lock. That lock is a monitor: on virtual threads the loading thread and
+         * every caller waiting for the same key keep their carriers for the whole load, and with few carriers
+         * the threads holding the database connections the load waits for cannot run. Callers of a key being
+         * loaded wait on the load's future instead.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper cached = get(key);
+            if (cached != null) {
+                return (T) cached.get();
+            }
+
+            CompletableFuture<Object> load = new CompletableFuture<>();
+            CompletableFuture<Object> running = loads.putIfAbsent(key, load);
+            if (running != null) {
+                try {
+                    return (T) running.join();
+                } catch (CompletionException e) {
+                    throw new ValueRetrievalException(key, valueLoader, e.getCause());
+                }
+            }
+
+            try {
+                // A load that finished between the lookup and claiming the key has stored its value already
+                Object stored = getNativeCache().policy().getIfPresentQuietly(key);
+                T value;
+                if (stored != null) {
+                    value = (T) fromStoreValue(stored);
+                } else {
+                    value = valueLoader.call();
+                    put(key, value);
+                }
+                load.complete(value);
+                return value;
+            } catch (Throwable e) {
+                load.completeExceptionally(e);
+                if (e instanceof Error error) {
+                    throw error;
+                }
+                throw new ValueRetrievalException(key, valueLoader, e);
+            } finally {
+                loads.remove(key, load);
+            }
+        }
+
+        @Override
+        public void evict(Object key) {
+            super.evict(key);
+            invalidationBus.publishEvict(getName(), key);
+        }
+
+        // Published even when absent here: other instances may hold the key
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean present = super.evictIfPresent(key);
+            invalidationBus.publishEvict(getName(), key);
+            return present;
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            invalidationBus.publishClear(getName());
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean notEmpty = super.invalidate();
+            invalidationBus.publishClear(getName());
+            return notEmpty;
+        }
+    }
+
+    /**
+     * Expires each entry after the TTL moved randomly by up to {@code jitter}, counted from its last write or
+     * refresh
+     */
+    private record JitteredExpiry(long ttlNanos, double jitter) implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return nextTtl();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return nextTtl();
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long nextTtl() {
+            if (jitter == 0) {
+                return ttlNanos;
+            }
+            return (long) (ttlNanos * (1 + jitter * ThreadLocalRandom.current().nextDouble(-1, 1)));
+        }
     }
 }
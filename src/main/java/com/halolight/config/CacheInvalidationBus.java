@@ -0,0 +1,365 @@
+package com.halolight.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Applies evictions of local caches on every instance, over PostgreSQL LISTEN/NOTIFY on the primary database.
+ * <p>
+ * Evictions are collected for one batch window, coalesced per cache and sent as one {@code NOTIFY}; a cache with
+ * more evicted keys than {@code max-keys-per-cache}, or with keys other than strings, is cleared as a whole.
+ * Received batches are applied the same way. Notifications sent while an instance is not listening are lost, so
+ * an instance clears all of its caches whenever it (re)connects.
+ * <p>
+ * One dedicated connection outside the pool listens and publishes; if it breaks, pending evictions are kept and
+ * sent after reconnecting.
+ */
+@Slf4j
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    static final String CHANNEL = "cache_invalidation";
+
+    /**
+     * Before the web server, which stops first, and after {@code CheckpointRestoreConfig}'s cache clearing, which
+     * must not be broadcast
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 2048;
+
+    /**
+     * PostgreSQL limits a notification payload to 8000 bytes
+     */
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final Duration KEEPALIVE_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration batchWindow;
+    private final int maxKeysPerCache;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Invalidator> caches = new ConcurrentHashMap<>();
+    private final Counter sent;
+    private final Counter received;
+
+    /**
+     * Guards {@link #pending}; a lock rather than {@code synchronized} so that virtual threads publishing
+     * evictions do not pin their carrier
+     */
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private Pending pending = new Pending();
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public CacheInvalidationBus(DataSource dataSource, ObjectMapper objectMapper,
+                                LocalCacheProperties.Invalidation properties, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+        this.batchWindow = properties.getBatchWindow();
+        this.maxKeysPerCache = properties.getMaxKeysPerCache();
+        this.sent = meterRegistry.counter("cache.invalidation.notifications", "direction", "sent");
+        this.received = meterRegistry.counter("cache.invalidation.notifications", "direction", "received");
+    }
+
+    /**
+     * Apply evictions received from other instances to a local cache
+     *
+     * @param evict Evicts one key
+     * @param clear Evicts every entry
+     */
+    public void register(String cacheName, Consumer<String> evict, Runnable clear) {
+        caches.put(cacheName, new Invalidator(evict, clear));
+    }
+
+    /**
+     * Evict a key of a cache on the other instances; call after evicting it locally
+     */
+    public void publishEvict(String cacheName, Object key) {
+        if (!(key instanceof String stringKey)) {
+            publishClear(cacheName);
+            return;
+        }
+        if (running) {
+            pendingLock.lock();
+            try {
+                pending.evict(cacheName, stringKey, maxKeysPerCache);
+            } finally {
+                pendingLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Clear a cache on the other instances; call after clearing it locally
+     */
+    public void publishClear(String cacheName) {
+        if (running) {
+            pendingLock.lock();
+            try {
+                pending.clear(cacheName);
+            } finally {
+                pendingLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("cache-invalidation").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            try {
+                thread.join(batchWindow.plusSeconds(5).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+        pendingLock.lock();
+        try {
+            pending = new Pending();
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void listen() {
+        Duration reconnectDelay = batchWindow;
+        boolean connected = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connected) {
+                    log.info("Cache invalidation bus reconnected, clearing local caches");
+                }
+                connected = true;
+                caches.values().forEach(invalidator -> invalidator.clear().run());
+                reconnectDelay = batchWindow;
+
+                long lastCheck = System.nanoTime();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) batchWindow.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        apply(notifications);
+                        lastCheck = System.nanoTime();
+                    } else if (System.nanoTime() - lastCheck > KEEPALIVE_INTERVAL.toNanos()) {
+                        // A connection that died without closing its socket would otherwise go unnoticed
+                        if (!connection.isValid(5)) {
+                            throw new SQLException("Listener connection is no longer valid");
+                        }
+                        lastCheck = System.nanoTime();
+                    }
+                    publish(connection);
+                }
+                // Evictions made just before shutdown
+                publish(connection);
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation bus lost its connection, reconnecting in {} ms: {}",
+                        reconnectDelay.toMillis(), e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                Duration doubled = reconnectDelay.multipliedBy(2);
+                reconnectDelay = doubled.compareTo(MAX_RECONNECT_DELAY) > 0 ? MAX_RECONNECT_DELAY : doubled;
+            }
+        }
+    }
+
+    private void apply(PGNotification[] notifications) {
+        Pending remote = new Pending();
+        for (PGNotification notification : notifications) {
+            Message message;
+            try {
+                message = objectMapper.readValue(notification.getParameter(), Message.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Ignoring malformed cache invalidation: {}", notification.getParameter());
+                continue;
+            }
+            if (nodeId.equals(message.node())) {
+                continue;
+            }
+            received.increment();
+            message.cleared().forEach(remote::clear);
+            message.evicted().forEach((cache, keys) -> keys.forEach(key -> remote.evict(cache, key, maxKeysPerCache)));
+        }
+
+        remote.cleared.forEach(cache -> {
+            Invalidator invalidator = caches.get(cache);
+            if (invalidator != null) {
+                invalidator.clear().run();
+            }
+        });
+        remote.evicted.forEach((cache, keys) -> {
+            Invalidator invalidator = caches.get(cache);
+            if (invalidator != null) {
+                keys.forEach(invalidator.evict());
+            }
+        });
+    }
+
+    private void publish(Connection connection) throws SQLException {
+        Pending batch;
+        pendingLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new Pending();
+        } finally {
+            pendingLock.unlock();
+        }
+
+        List<String> payloads;
+        try {
+            payloads = payloads(batch);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize cache invalidation", e);
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String payload : payloads) {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, payload);
+                statement.execute();
+                sent.increment();
+            }
+        } catch (SQLException e) {
+            // Sent again after reconnecting; a notification that did go out is applied twice, which is harmless
+            pendingLock.lock();
+            try {
+                batch.mergeInto(pending, maxKeysPerCache);
+            } finally {
+                pendingLock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * One payload for the whole batch if it fits, otherwise one per cache; a cache whose keys alone do not fit is
+     * cleared instead
+     */
+    private List<String> payloads(Pending batch) throws JsonProcessingException {
+        String whole = serialize(new Message(nodeId, batch.cleared, batch.evicted));
+        if (fits(whole)) {
+            return List.of(whole);
+        }
+        List<String> payloads = new ArrayList<>();
+        Set<String> cleared = new HashSet<>(batch.cleared);
+        for (Map.Entry<String, Set<String>> entry : batch.evicted.entrySet()) {
+            String single = serialize(new Message(nodeId, Set.of(), Map.of(entry.getKey(), entry.getValue())));
+            if (fits(single)) {
+                payloads.add(single);
+            } else {
+                cleared.add(entry.getKey());
+            }
+        }
+        if (!cleared.isEmpty()) {
+            payloads.add(serialize(new Message(nodeId, cleared, Map.of())));
+        }
+        return payloads;
+    }
+
+    private String serialize(Message message) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(message);
+    }
+
+    private static boolean fits(String payload) {
+        return payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES;
+    }
+
+    private record Invalidator(Consumer<String> evict, Runnable clear) {
+    }
+
+    record Message(String node, Set<String> cleared, Map<String, Set<String>> evicted) {
+    }
+
+    /**
+     * Coalesced evictions: a cleared cache absorbs all of its evicted keys
+     */
+    private static final class Pending {
+
+        private final Set<String> cleared = new HashSet<>();
+        private final Map<String, Set<String>> evicted = new HashMap<>();
+
+        void clear(String cache) {
+            cleared.add(cache);
+            evicted.remove(cache);
+        }
+
+        void evict(String cache, String key, int maxKeys) {
+            if (cleared.contains(cache)) {
+                return;
+            }
+            Set<String> keys = evicted.computeIfAbsent(cache, name -> new HashSet<>());
+            keys.add(key);
+            if (keys.size() > maxKeys) {
+                clear(cache);
+            }
+        }
+
+        void mergeInto(Pending target, int maxKeys) {
+            cleared.forEach(target::clear);
+            evicted.forEach((cache, keys) -> keys.forEach(key -> target.evict(cache, key, maxKeys)));
+        }
+
+        boolean isEmpty() {
+            return cleared.isEmpty() && evicted.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.halolight.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Loaders of the refresh-ahead caches ({@code app.cache.specs.<name>.refresh-after}).
+ * <p>
+ * A missing entry is still computed by the {@code @Cacheable} method; the registered loader only recomputes an
+ * existing entry in the background once it is older than {@code refresh-after}. Until then readers get the
+ * previous value. A refresh that fails keeps the previous value until it expires.
+ */
+public class CacheLoaders {
+
+    private final Map<String, Function<Object, ?>> loaders = new ConcurrentHashMap<>();
+
+    /**
+     * @param cacheName Cache to refresh
+     * @param loader    Computes the value of a cache key the same way the {@code @Cacheable} method does
+     */
+    public void register(String cacheName, Function<Object, ?> loader) {
+        loaders.put(cacheName, loader);
+    }
+
+    CacheLoader<Object, Object> loaderFor(String cacheName) {
+        return key -> {
+            Function<Object, ?> loader = loaders.get(cacheName);
+            if (loader == null) {
+                throw new IllegalStateException("No loader registered for refresh-ahead cache " + cacheName);
+            }
+            return loader.apply(key);
+        };
+    }
+}
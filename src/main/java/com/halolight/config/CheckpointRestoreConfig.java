@@ -0,0 +1,363 @@
+package com.halolight.config;
+
+import com.halolight.domain.repository.UserRepository;
+import com.halolight.security.JwtTokenProvider;
+import com.halolight.service.DocumentViewCounter;
+import com.halolight.service.JobLeases;
+import com.halolight.service.UnreadCounterService;
+import io.github.bucket4j.Bucket;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.crac.CheckpointException;
+import org.crac.Core;
+import org.crac.RestoreException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.jdbc.HikariCheckpointRestoreLifecycle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * CRaC (Coordinated Restore at Checkpoint) support, enabled with {@code app.crac.enabled=true} on a JDK with
+ * CRaC support. Spring stops every lifecycle bean before a checkpoint and starts it again after restore, which
+ * already closes Tomcat's sockets, pauses the task scheduler and suspends the connection pools. The beans here
+ * take care of the rest:
+ * <ul>
+ *     <li>pending view counts are flushed and in-memory caches, Hibernate's second-level cache included, emptied,
+ *     so a restored instance neither replays old increments nor serves data cached when the checkpoint was
+ *     taken</li>
+ *     <li>OTLP span exporters drop their connections and reconnect after restore</li>
+ *     <li>job leases get a new owner id in every restored instance</li>
+ *     <li>with {@code app.crac.checkpoint-on-ready=true} the hot endpoints are exercised once the application is
+ *     ready and the checkpoint is taken right after, so restored instances start with a warm JIT</li>
+ * </ul>
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.crac", name = "enabled", havingValue = "true")
+public class CheckpointRestoreConfig {
+
+    /**
+     * Stopped after the web server stopped taking requests and before the connection pools are suspended
+     */
+    static final int CHECKPOINT_PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    /**
+     * Replaces Boot's pool lifecycle, which suspends the pool on shutdown as well; a suspended pool blocks whatever
+     * still needs a connection then, such as the final view count flush or dropping the dev schema.
+     */
+    @Bean
+    public HikariCheckpointRestoreLifecycle hikariCheckpointRestoreLifecycle(DataSource dataSource,
+                                                                             ConfigurableApplicationContext context) {
+        return new HikariCheckpointRestoreLifecycle(dataSource, context) {
+            @Override
+            public void stop() {
+                if (!context.isClosed()) {
+                    super.stop();
+                }
+            }
+        };
+    }
+
+    @Bean
+    public CheckpointPreparation checkpointPreparation(DocumentViewCounter viewCounter,
+                                                       CacheManager cacheManager,
+                                                       EntityManagerFactory entityManagerFactory,
+                                                       UnreadCounterService unreadCounterService,
+                                                       JobLeases jobLeases,
+                                                       Map<String, Bucket> rateLimitBuckets) {
+        return new CheckpointPreparation(viewCounter, cacheManager, entityManagerFactory, unreadCounterService,
+                jobLeases, rateLimitBuckets);
+    }
+
+    @Bean
+    public static SpanExporterCheckpointSupport spanExporterCheckpointSupport() {
+        return new SpanExporterCheckpointSupport();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.crac", name = "checkpoint-on-ready", havingValue = "true")
+    public CheckpointOnReady checkpointOnReady(JwtTokenProvider tokenProvider,
+                                               UserRepository userRepository,
+                                               @Value("${app.crac.warmup.iterations:300}") int iterations,
+                                               @Value("${app.crac.warmup.user:}") String user,
+                                               @Value("${app.crac.warmup.paths:/actuator/health}") List<String> paths) {
+        return new CheckpointOnReady(tokenProvider, userRepository, iterations, user, paths);
+    }
+
+    static class CheckpointPreparation implements SmartLifecycle {
+
+        private final DocumentViewCounter viewCounter;
+        private final CacheManager cacheManager;
+        private final EntityManagerFactory entityManagerFactory;
+        private final UnreadCounterService unreadCounterService;
+        private final JobLeases jobLeases;
+        private final Map<String, Bucket> rateLimitBuckets;
+        private volatile boolean running;
+        private volatile boolean stopped;
+
+        CheckpointPreparation(DocumentViewCounter viewCounter, CacheManager cacheManager,
+                              EntityManagerFactory entityManagerFactory, UnreadCounterService unreadCounterService,
+                              JobLeases jobLeases, Map<String, Bucket> rateLimitBuckets) {
+            this.viewCounter = viewCounter;
+            this.cacheManager = cacheManager;
+            this.entityManagerFactory = entityManagerFactory;
+            this.unreadCounterService = unreadCounterService;
+            this.jobLeases = jobLeases;
+            this.rateLimitBuckets = rateLimitBuckets;
+        }
+
+        @Override
+        public void start() {
+            if (stopped) {
+                jobLeases.renewOwner();
+            }
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            viewCounter.flush();
+            cacheManager.getCacheNames().stream()
+                    .map(cacheManager::getCache)
+                    .filter(Objects::nonNull)
+                    .forEach(Cache::clear);
+            // Hibernate's second-level cache; evicting it is not published to other instances
+            entityManagerFactory.getCache().evictAll();
+            unreadCounterService.evictAll();
+            // Buckets of the warmup requests
+            rateLimitBuckets.clear();
+            running = false;
+            stopped = true;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public int getPhase() {
+            return CHECKPOINT_PHASE;
+        }
+    }
+
+    /**
+     * Wraps the OTLP span exporters so their HTTP connections can be closed before a checkpoint and reopened after
+     * restore; a shut down exporter cannot be restarted, so a new one is built from the same settings. Spans
+     * ending in between are dropped. On application shutdown the exporters are left to the tracer provider, which
+     * flushes them once more.
+     */
+    static class SpanExporterCheckpointSupport implements BeanPostProcessor, SmartLifecycle, ApplicationContextAware {
+
+        private final List<RestartableSpanExporter> exporters = new CopyOnWriteArrayList<>();
+        private ConfigurableApplicationContext context;
+        private volatile boolean running;
+
+        @Override
+        public void setApplicationContext(ApplicationContext applicationContext) {
+            this.context = (ConfigurableApplicationContext) applicationContext;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            RestartableSpanExporter exporter = null;
+            if (bean instanceof OtlpHttpSpanExporter http) {
+                exporter = new RestartableSpanExporter(() -> http.toBuilder().build(), http);
+            } else if (bean instanceof OtlpGrpcSpanExporter grpc) {
+                exporter = new RestartableSpanExporter(() -> grpc.toBuilder().build(), grpc);
+            }
+            if (exporter == null) {
+                return bean;
+            }
+            exporters.add(exporter);
+            return exporter;
+        }
+
+        @Override
+        public void start() {
+            exporters.forEach(RestartableSpanExporter::resume);
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            if (!context.isClosed()) {
+                exporters.forEach(RestartableSpanExporter::suspend);
+            }
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public int getPhase() {
+            return CHECKPOINT_PHASE - 1;
+        }
+    }
+
+    static final class RestartableSpanExporter implements SpanExporter {
+
+        private final Supplier<SpanExporter> factory;
+        private volatile SpanExporter delegate;
+        private volatile boolean suspended;
+
+        RestartableSpanExporter(Supplier<SpanExporter> factory, SpanExporter delegate) {
+            this.factory = factory;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            return suspended ? CompletableResultCode.ofFailure() : delegate.export(spans);
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return delegate.flush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return delegate.shutdown();
+        }
+
+        void suspend() {
+            if (suspended) {
+                return;
+            }
+            suspended = true;
+            SpanExporter current = delegate;
+            current.flush().join(10, TimeUnit.SECONDS);
+            current.shutdown().join(10, TimeUnit.SECONDS);
+        }
+
+        void resume() {
+            if (suspended) {
+                delegate = factory.get();
+                suspended = false;
+            }
+        }
+    }
+
+    /**
+     * Sends every warmup path {@code iterations} times to the local server, then takes the checkpoint. Without a
+     * CRaC JDK the checkpoint fails with a log entry and the application keeps running normally.
+     */
+    static class CheckpointOnReady {
+
+        private final JwtTokenProvider tokenProvider;
+        private final UserRepository userRepository;
+        private final int iterations;
+        private final String user;
+        private final List<String> paths;
+        private boolean checkpointed;
+
+        CheckpointOnReady(JwtTokenProvider tokenProvider, UserRepository userRepository, int iterations,
+                          String user, List<String> paths) {
+            this.tokenProvider = tokenProvider;
+            this.userRepository = userRepository;
+            this.iterations = iterations;
+            this.user = user;
+            this.paths = paths;
+        }
+
+        // Readiness changes to accepting traffic once the ready listeners have run; before that health answers 503
+        @EventListener
+        public void warmUpAndCheckpoint(AvailabilityChangeEvent<ReadinessState> event) {
+            if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || checkpointed) {
+                return;
+            }
+            checkpointed = true;
+            if (event.getSource() instanceof WebServerApplicationContext web) {
+                warmUp(web.getWebServer().getPort());
+            }
+
+            log.info("Taking CRaC checkpoint");
+            try {
+                Core.checkpointRestore();
+                log.info("Restored from CRaC checkpoint");
+            } catch (CheckpointException | RestoreException | UnsupportedOperationException e) {
+                log.error("CRaC checkpoint failed, continuing without one", e);
+            }
+        }
+
+        private void warmUp(int port) {
+            Optional<String> token = StringUtils.hasText(user)
+                    ? userRepository.findByEmailOrUsername(user)
+                            .map(found -> tokenProvider.generateAccessToken(found.getId(), found.getEmail()))
+                    : Optional.empty();
+            if (StringUtils.hasText(user) && token.isEmpty()) {
+                log.warn("Warmup user {} not found, warming up anonymously", user);
+            }
+
+            long start = System.currentTimeMillis();
+            int requests = 0;
+            int failed = 0;
+            try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build()) {
+                for (int i = 0; i < iterations; i++) {
+                    for (String path : paths) {
+                        HttpRequest.Builder request = HttpRequest.newBuilder(
+                                        URI.create("http://127.0.0.1:" + port + path.trim()))
+                                .timeout(Duration.ofSeconds(10))
+                                // Spread the requests over documentation addresses to stay under the rate limit
+                                .header("X-Forwarded-For", "203.0.113." + (requests % 200 + 1));
+                        token.ifPresent(value -> request.header("Authorization", "Bearer " + value));
+                        requests++;
+                        try {
+                            HttpResponse<Void> response = client.send(request.build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                log.debug("Warmup request to {} answered {}", path, response.statusCode());
+                                failed++;
+                            }
+                        } catch (IOException e) {
+                            log.debug("Warmup request to {} failed: {}", path, e.toString());
+                            failed++;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.info("Warmed up with {} requests in {} ms, {} failed or answered with an error",
+                    requests, System.currentTimeMillis() - start, failed);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.halolight.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the Flyway migrations at startup unless {@code app.flyway.migrate-on-startup} is false, in which case the
+ * schema is only checked by Hibernate's {@code ddl-auto: validate}.
+ * <p>
+ * {@code spring.flyway.enabled} cannot serve as that switch: the AOT-processed image fixes it at build time.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnClass(name = "org.flywaydb.core.Flyway")
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${app.flyway.migrate-on-startup:true}") boolean migrateOnStartup) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            } else {
+                log.info("Skipping schema migrations, app.flyway.migrate-on-startup is false");
+            }
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package com.halolight.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.internal.SimpleCacheKeysFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheAccessImpl;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate second-level cache: JCache regions backed by Caffeine, one per cached entity, collection or query,
+ * sized under {@code app.cache.hibernate-regions}. Hibernate's own check rejects a region without an entry there.
+ * <p>
+ * Changes committed on this instance are applied on the others through the {@link CacheInvalidationBus}: entities
+ * by id, collections through their element entities, bulk HQL statements by clearing the affected regions, and
+ * query results by clearing them whenever a cached entity changes. Hit and miss counts per region are exported
+ * through Micrometer by Spring Boot, from Hibernate's statistics.
+ */
+@Configuration
+@EnableConfigurationProperties(LocalCacheProperties.class)
+public class HibernateCacheConfig {
+
+    /**
+     * Bus name that clears every query result region; those are created on first use, so other instances may
+     * know regions this one does not
+     */
+    static final String QUERY_RESULTS = "hibernate-query-results";
+
+    static String busName(String regionName) {
+        return "hibernate:" + regionName;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(LocalCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        properties.getHibernateRegions().forEach((name, region) -> {
+            if (RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME.equals(name)) {
+                throw new IllegalStateException("app.cache.hibernate-regions " + name + " is not configurable");
+            }
+            cacheManager.createCache(name, new CaffeineConfiguration<>()
+                    .setMaximumSize(OptionalLong.of(region.getMaximumSize()))
+                    .setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()))
+                    .setStoreByValue(false));
+        });
+        // One entry per table; cached query results are checked against it, so it must neither expire nor
+        // lose entries
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStoreByValue(false));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager,
+                                                                  CacheInvalidationBus invalidationBus) {
+        ClusterRegionFactory regionFactory = new ClusterRegionFactory(invalidationBus);
+        HibernateCacheInvalidator invalidator = new HibernateCacheInvalidator(invalidationBus);
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(invalidator));
+        };
+    }
+
+    /**
+     * Keys entries by plain id, so evictions received from other instances can be applied to the JCache region
+     * directly, and registers every region with the {@link CacheInvalidationBus}.
+     * <p>
+     * Hibernate clears a region's storage only for bulk HQL statements touching its table; those clears are
+     * published once the transaction commits. Clearing through the JPA {@code Cache} API stays local.
+     */
+    static class ClusterRegionFactory extends JCacheRegionFactory {
+
+        private final CacheInvalidationBus invalidationBus;
+        private final Set<Cache<Object, Object>> queryResultRegions = ConcurrentHashMap.newKeySet();
+
+        ClusterRegionFactory(CacheInvalidationBus invalidationBus) {
+            super(SimpleCacheKeysFactory.INSTANCE);
+            this.invalidationBus = invalidationBus;
+            invalidationBus.register(QUERY_RESULTS, key -> clearQueryResults(), this::clearQueryResults);
+        }
+
+        @Override
+        protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                        DomainDataRegionBuildingContext buildingContext) {
+            String busName = busName(regionConfig.getRegionName());
+            Cache<Object, Object> cache = getOrCreateCache(regionConfig.getRegionName(),
+                    buildingContext.getSessionFactory());
+            invalidationBus.register(busName, cache::remove, cache::clear);
+            return new JCacheAccessImpl(cache) {
+                @Override
+                public void clearCache(SharedSessionContractImplementor session) {
+                    super.clearCache(session);
+                    afterCommit(() -> invalidationBus.publishClear(busName));
+                }
+            };
+        }
+
+        @Override
+        protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                      SessionFactoryImplementor sessionFactory) {
+            JCacheAccessImpl storageAccess =
+                    (JCacheAccessImpl) super.createQueryResultsRegionStorageAccess(regionName, sessionFactory);
+            queryResultRegions.add(storageAccess.getUnderlyingCache());
+            return storageAccess;
+        }
+
+        private void clearQueryResults() {
+            queryResultRegions.forEach(Cache::clear);
+        }
+    }
+
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
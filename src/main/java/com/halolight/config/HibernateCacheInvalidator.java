@@ -0,0 +1,118 @@
+package com.halolight.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.Collection;
+import org.hibernate.mapping.OneToMany;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Publishes committed changes of second-level cached data to the other instances:
+ * <ul>
+ *     <li>an updated or deleted entity is evicted from its region by id</li>
+ *     <li>any change to an element of a cached inverse one-to-many collection, such as {@code Role.permissions},
+ *     clears that collection's region; only such collections may be cached, since changes to the others are
+ *     not published</li>
+ *     <li>any change to a cached entity clears all query results</li>
+ * </ul>
+ * Inserted entities are not in any region yet and need no eviction.
+ */
+public class HibernateCacheInvalidator implements Integrator, PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final CacheInvalidationBus invalidationBus;
+
+    /**
+     * Regions of the cached inverse collections, by the entity name of their elements
+     */
+    private volatile Map<String, Set<String>> collectionRegionsByElement = Map.of();
+
+    public HibernateCacheInvalidator(CacheInvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        Map<String, Set<String>> regions = new HashMap<>();
+        for (Collection collection : metadata.getCollectionBindings()) {
+            if (collection.getCacheConcurrencyStrategy() != null && collection.isInverse()
+                    && collection.getElement() instanceof OneToMany oneToMany) {
+                regions.computeIfAbsent(oneToMany.getReferencedEntityName(), name -> new HashSet<>())
+                        .add(collection.getCacheRegionName());
+            }
+        }
+        collectionRegionsByElement = regions;
+
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache() || collectionRegionsByElement.containsKey(persister.getEntityName());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getPersister(), null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getPersister(), event.getId());
+    }
+
+    // Nothing changed
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void changed(EntityPersister persister, Object id) {
+        if (persister.canWriteToCache()) {
+            if (id != null) {
+                // Regions are keyed by plain id, see HibernateCacheConfig.ClusterRegionFactory
+                invalidationBus.publishEvict(
+                        HibernateCacheConfig.busName(persister.getCacheAccessStrategy().getRegion().getName()), id);
+            }
+            invalidationBus.publishClear(HibernateCacheConfig.QUERY_RESULTS);
+        }
+        collectionRegionsByElement.getOrDefault(persister.getEntityName(), Set.of())
+                .forEach(region -> invalidationBus.publishClear(HibernateCacheConfig.busName(region)));
+    }
+}
@@ -0,0 +1,84 @@
+package com.halolight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local Caffeine caches by cache name. Caches without an entry in {@code specs} use {@code defaults}. Regions of
+ * the Hibernate second-level cache are sized separately, under {@code hibernate-regions}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class LocalCacheProperties {
+
+    private Spec defaults = new Spec();
+
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    private Invalidation invalidation = new Invalidation();
+
+    /**
+     * Second-level cache regions by region name; every region used by an entity, collection or cached query needs
+     * an entry, see {@link HibernateCacheConfig}
+     */
+    private Map<String, Region> hibernateRegions = new LinkedHashMap<>();
+
+    @Data
+    public static class Spec {
+
+        private long maximumSize = 1000;
+
+        /**
+         * Entries expire this long after they were written or refreshed
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * Each entry's TTL is moved randomly by up to this fraction, so entries written together do not expire
+         * together
+         */
+        private double jitter = 0.1;
+
+        /**
+         * Refresh-ahead: the first read of an entry older than this returns it and reloads it in the background.
+         * Needs a loader registered with {@link CacheLoaders}; unset for caches that only expire.
+         */
+        private Duration refreshAfter;
+    }
+
+    /**
+     * Evictions shared between instances through {@link CacheInvalidationBus}; needs PostgreSQL
+     */
+    @Data
+    public static class Invalidation {
+
+        private boolean enabled = true;
+
+        /**
+         * Evictions are collected this long before they are sent together; also the delay until they reach the
+         * other instances
+         */
+        private Duration batchWindow = Duration.ofMillis(100);
+
+        /**
+         * A cache with more evicted keys in one batch is cleared as a whole
+         */
+        private int maxKeysPerCache = 100;
+    }
+
+    @Data
+    public static class Region {
+
+        private long maximumSize = 1000;
+
+        /**
+         * Entries expire this long after they were written; bounds staleness from changes made directly in the
+         * database
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
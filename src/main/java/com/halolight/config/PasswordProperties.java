@@ -0,0 +1,64 @@
+package com.halolight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Password hash algorithm and cost. New hashes use {@code encoder}; stored hashes of another algorithm or a lower
+ * cost are rehashed on the user's next login. Defaults are Spring Security's recommended minimums.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.password")
+public class PasswordProperties {
+
+    /**
+     * One of bcrypt, argon2, scrypt or pbkdf2
+     */
+    private String encoder = "bcrypt";
+
+    /**
+     * Log2 of the bcrypt rounds, 4 to 31
+     */
+    private int bcryptStrength = 10;
+
+    private Argon2 argon2 = new Argon2();
+
+    private Scrypt scrypt = new Scrypt();
+
+    @Data
+    public static class Argon2 {
+
+        private int saltLength = 16;
+
+        private int hashLength = 32;
+
+        private int parallelism = 1;
+
+        /**
+         * Memory per hash in KiB
+         */
+        private int memory = 16384;
+
+        private int iterations = 2;
+    }
+
+    @Data
+    public static class Scrypt {
+
+        /**
+         * N, a power of two; memory per hash is 128 * N * memory-cost bytes
+         */
+        private int cpuCost = 16384;
+
+        /**
+         * r, the block size
+         */
+        private int memoryCost = 8;
+
+        private int parallelization = 1;
+
+        private int keyLength = 32;
+
+        private int saltLength = 16;
+    }
+}
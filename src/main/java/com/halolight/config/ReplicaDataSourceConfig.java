@@ -0,0 +1,152 @@
+package com.halolight.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.HikariCheckpointRestoreLifecycle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary plus read replica data sources, enabled with {@code app.datasource.replicas.enabled=true}.
+ * The primary pool is configured from {@code spring.datasource.*}; each replica gets its own Hikari pool.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "app.datasource.replicas", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReplicaDataSourceConfig {
+
+    private final ReplicaProperties replicaProperties;
+    private final ObjectProvider<ReplicaRoutingDataSource> routingDataSource;
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry,
+                                                             Environment environment) {
+        if (replicaProperties.getNodes().isEmpty()) {
+            throw new IllegalStateException("app.datasource.replicas.nodes must not be empty when replicas are enabled");
+        }
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        int index = 0;
+        for (ReplicaProperties.Node node : replicaProperties.getNodes()) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (StringUtils.hasText(node.getName()) ? node.getName() : index));
+            replica.setJdbcUrl(node.getUrl());
+            replica.setUsername(node.getUsername() != null ? node.getUsername() : properties.determineUsername());
+            replica.setPassword(node.getPassword() != null ? node.getPassword() : properties.determinePassword());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            replica.setAllowPoolSuspension(primaryDataSource.isAllowPoolSuspension());
+            replicas.add(replica);
+            index++;
+        }
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(registry);
+            // The primary is a bean and may already be bound by Boot's Hikari metrics
+            if (primaryDataSource.getMetricsTrackerFactory() == null && primaryDataSource.getMetricRegistry() == null) {
+                primaryDataSource.setMetricsTrackerFactory(metrics);
+            }
+            replicas.forEach(replica -> replica.setMetricsTrackerFactory(metrics));
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                replicaProperties.getStickyWindow(), replicaProperties.getMaxLag(),
+                Threading.VIRTUAL.isActive(environment));
+        if (registry != null) {
+            routing.getConnectionLimiters()
+                    .forEach(limiter -> VirtualThreadConfig.registerWaitingGauge(registry, limiter));
+            Gauge.builder("db.replicas.healthy", routing, ReplicaRoutingDataSource::healthyReplicaCount)
+                    .description("Read replicas currently receiving read-only transactions")
+                    .register(registry);
+        }
+        return routing;
+    }
+
+    /**
+     * Data source used by JPA and JDBC. Connections are fetched from the routing data source on first use,
+     * once the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Suspend the primary and replica pools around a CRaC checkpoint. Boot does this only for a {@code dataSource}
+     * bean that unwraps to a single Hikari pool, which the routing data source does not. The pools are left alone
+     * on shutdown, where a suspended pool would block everything that still needs a connection.
+     */
+    @Bean
+    public Lifecycle replicaPoolsCheckpointRestoreLifecycle(HikariDataSource primaryDataSource,
+                                                            ReplicaRoutingDataSource replicaRoutingDataSource,
+                                                            ConfigurableApplicationContext context) {
+        List<Lifecycle> pools = new ArrayList<>();
+        pools.add(new HikariCheckpointRestoreLifecycle(primaryDataSource, context));
+        replicaRoutingDataSource.getReplicaPools()
+                .forEach(pool -> pools.add(new HikariCheckpointRestoreLifecycle(pool, context)));
+
+        return new Lifecycle() {
+            private volatile boolean running = true;
+
+            @Override
+            public void start() {
+                pools.forEach(Lifecycle::start);
+                running = true;
+            }
+
+            @Override
+            public void stop() {
+                if (!context.isClosed()) {
+                    pools.reversed().forEach(Lifecycle::stop);
+                }
+                running = false;
+            }
+
+            @Override
+            public boolean isRunning() {
+                return running;
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval:10s}")
+    public void checkReplicas() {
+        routingDataSource.getObject().checkReplicas();
+    }
+}
@@ -0,0 +1,49 @@
+package com.halolight.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas that serve read-only transactions. Disabled unless
+ * {@code app.datasource.replicas.enabled} is set.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Hikari pool size of each replica
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * How long a user's reads stay on the primary after one of their write transactions commits
+     */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+
+    /**
+     * Replicas lagging further behind the primary are ejected until they catch up
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+    @Data
+    public static class Node {
+        private String name;
+        private String url;
+        /**
+         * Defaults to the primary's credentials
+         */
+        private String username;
+        private String password;
+    }
+}
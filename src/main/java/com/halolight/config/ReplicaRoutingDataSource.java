@@ -0,0 +1,218 @@
+package com.halolight.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.halolight.domain.entity.User;
+import com.halolight.security.UserPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to healthy replicas in round-robin order and everything else to the primary.
+ * <p>
+ * The lookup key is resolved when a connection is first used, so this data source must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: JPA transactions obtain their
+ * connection before the read-only flag of the transaction is published.
+ * <p>
+ * After a user's write transaction commits, that user's reads stay on the primary for the sticky window so
+ * they see their own writes. Replicas that fail a health check or lag too far behind are ejected until a
+ * later check succeeds.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Replay delay on a PostgreSQL standby; zero when fully replayed or not in recovery
+     */
+    private static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+    private final List<ConnectionLimitingDataSource> connectionLimiters = new ArrayList<>();
+
+    /**
+     * @param limitConnections Put a {@link ConnectionLimitingDataSource} in front of every pool, for virtual threads
+     */
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                    Duration stickyWindow, Duration maxLag, boolean limitConnections) {
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(100_000)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        DataSource primaryTarget = limitConnections ? limit(primary) : primary;
+        targets.put(PRIMARY, primaryTarget);
+        for (Replica replica : replicas) {
+            targets.put(replica.name(), limitConnections ? limit(replica.pool) : replica.pool);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primaryTarget);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriterOnCommit();
+            return PRIMARY;
+        }
+
+        String userId = currentUserId();
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return PRIMARY;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name();
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Probe every replica and eject or restore it depending on reachability and replication lag.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            String failure = probe(replica.pool);
+            boolean healthy = failure == null;
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    log.info("Replica {} restored", replica.name());
+                } else {
+                    log.warn("Replica {} ejected: {}", replica.name(), failure);
+                }
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    public int healthyReplicaCount() {
+        int count = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public List<ConnectionLimitingDataSource> getConnectionLimiters() {
+        return connectionLimiters;
+    }
+
+    public List<HikariDataSource> getReplicaPools() {
+        return replicas.stream().map(replica -> replica.pool).toList();
+    }
+
+    /**
+     * Close the replica pools; the primary pool is closed by its own bean.
+     */
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    /**
+     * @return Null when healthy, otherwise the reason for ejection
+     */
+    private String probe(HikariDataSource pool) {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                statement.execute("SELECT 1");
+                return null;
+            }
+            try (ResultSet rs = statement.executeQuery(POSTGRES_LAG_QUERY)) {
+                rs.next();
+                long lagMillis = rs.getLong(1);
+                return lagMillis > maxLag.toMillis() ? "replication lag " + lagMillis + " ms" : null;
+            }
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    private DataSource limit(HikariDataSource pool) {
+        ConnectionLimitingDataSource limiter = new ConnectionLimitingDataSource(pool);
+        connectionLimiters.add(limiter);
+        return limiter;
+    }
+
+    private void rememberWriterOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getId();
+        }
+        if (principal instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private String name() {
+            return pool.getPoolName();
+        }
+    }
+}
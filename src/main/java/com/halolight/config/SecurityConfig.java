@@ -2,7 +2,9 @@ package com.halolight.config;
 
 import com.halolight.security.JwtAuthenticationFilter;
 import com.halolight.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,15 +13,24 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@EnableConfigurationProperties(PasswordProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
@@ -34,6 +45,9 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches finish requests already authorized, e.g. streamed exports; the JWT
+                        // filter does not run on them, so they would otherwise be denied once the body is written
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/", "/health").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/health").permitAll()
@@ -52,8 +66,31 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Stored hashes carry their algorithm as an {@code {id}} prefix, so {@code app.password.encoder} and its cost
+     * can change at any time; old hashes keep matching and are rehashed on the next login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordProperties properties) {
+        PasswordProperties.Argon2 argon2 = properties.getArgon2();
+        PasswordProperties.Scrypt scrypt = properties.getScrypt();
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(properties.getBcryptStrength()));
+        encoders.put("argon2", new Argon2PasswordEncoder(argon2.getSaltLength(), argon2.getHashLength(),
+                argon2.getParallelism(), argon2.getMemory(), argon2.getIterations()));
+        encoders.put("scrypt", new SCryptPasswordEncoder(scrypt.getCpuCost(), scrypt.getMemoryCost(),
+                scrypt.getParallelization(), scrypt.getKeyLength(), scrypt.getSaltLength()));
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        String encodingId = properties.getEncoder();
+        if (!encoders.containsKey(encodingId)) {
+            throw new IllegalStateException("Unknown app.password.encoder '" + encodingId + "', expected one of "
+                    + new TreeSet<>(encoders.keySet()));
+        }
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        // Hashes stored before the prefix was introduced are plain bcrypt
+        passwordEncoder.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+        return passwordEncoder;
     }
 }
@@ -0,0 +1,47 @@
+package com.halolight.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+/**
+ * Logs the slowest startup steps when the application was started with {@code STARTUP_TIMELINE=true}.
+ * The full timeline stays available at {@code /actuator/startup}.
+ */
+@Slf4j
+@Component
+public class StartupTimelineLogger {
+
+    private static final int TOP_STEPS = 15;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        String slowest = timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(TOP_STEPS)
+                .map(step -> String.format("%6d ms  %s %s", step.getDuration().toMillis(),
+                        step.getStartupStep().getName(), describe(step)))
+                .collect(Collectors.joining("\n"));
+        log.info("Ready {} ms after startup began; slowest steps:\n{}",
+                Duration.between(timeline.getStartTime(), Instant.now()).toMillis(), slowest);
+    }
+
+    private static String describe(StartupTimeline.TimelineEvent step) {
+        StringBuilder tags = new StringBuilder();
+        step.getStartupStep().getTags()
+                .forEach(tag -> tags.append(tag.getKey()).append('=').append(tag.getValue()).append(' '));
+        return tags.toString().trim();
+    }
+}
@@ -0,0 +1,132 @@
+package com.halolight.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Extras for running with {@code spring.threads.virtual.enabled=true}, where Tomcat, {@code @Async} and
+ * scheduling already run on virtual threads:
+ * <ul>
+ *     <li>connection checkouts are limited to the Hikari pool size so waiting requests queue on a semaphore</li>
+ *     <li>{@code jvm.threads.virtual.pinned} and {@code jvm.threads.virtual.submit.failed} metrics</li>
+ *     <li>one warning with a stack trace per code location that pins a carrier thread</li>
+ * </ul>
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    /**
+     * Wrap the default Hikari data source. With read replicas enabled the routing data source limits each pool
+     * itself and the {@code dataSource} bean is not a Hikari pool.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof HikariDataSource pool) {
+                    if (pool.getPoolName() == null) {
+                        pool.setPoolName("primary");
+                    }
+                    return new ConnectionLimitingDataSource(pool);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+
+    @Bean
+    public PinnedThreadLogger pinnedThreadLogger(ObjectProvider<DataSource> dataSources,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            dataSources.orderedStream()
+                    .filter(ConnectionLimitingDataSource.class::isInstance)
+                    .forEach(dataSource -> registerWaitingGauge(registry, (ConnectionLimitingDataSource) dataSource));
+        }
+        return new PinnedThreadLogger();
+    }
+
+    static void registerWaitingGauge(MeterRegistry registry, ConnectionLimitingDataSource limiter) {
+        Gauge.builder("db.connections.limiter.waiting", limiter, ConnectionLimitingDataSource::getWaitingCount)
+                .description("Threads waiting for a connection permit")
+                .tag("pool", limiter.getPoolName())
+                .register(registry);
+    }
+
+    /**
+     * Streams {@code jdk.VirtualThreadPinned} events and logs the stack of each distinct pinning location once.
+     */
+    static class PinnedThreadLogger implements SmartLifecycle {
+
+        private static final int MAX_LOCATIONS = 256;
+
+        private final Set<String> reported = ConcurrentHashMap.newKeySet();
+        private volatile RecordingStream stream;
+
+        @Override
+        public void start() {
+            stream = new RecordingStream();
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", this::report);
+            stream.startAsync();
+        }
+
+        @Override
+        public void stop() {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return stream != null;
+        }
+
+        private void report(RecordedEvent event) {
+            RecordedStackTrace stackTrace = event.getStackTrace();
+            if (stackTrace == null || reported.size() >= MAX_LOCATIONS) {
+                return;
+            }
+            String frames = stackTrace.getFrames().stream()
+                    .filter(RecordedFrame::isJavaFrame)
+                    .limit(12)
+                    .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                            + ":" + frame.getLineNumber())
+                    .collect(Collectors.joining("\n\tat "));
+            if (reported.add(frames)) {
+                log.warn("Virtual thread pinned its carrier for {} ms\n\tat {}",
+                        event.getDuration().toMillis(), frames);
+            }
+        }
+    }
+}
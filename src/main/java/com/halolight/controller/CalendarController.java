@@ -5,6 +5,7 @@ import com.halolight.security.UserPrincipal;
 import com.halolight.service.CalendarService;
 import com.halolight.web.dto.calendar.CreateEventRequest;
 import com.halolight.web.dto.calendar.EventResponse;
+import com.halolight.web.dto.calendar.OccurrenceOverrideRequest;
 import com.halolight.web.dto.calendar.UpdateAttendeeStatusRequest;
 import com.halolight.web.dto.calendar.UpdateEventRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,7 +37,7 @@ public class CalendarController {
 
     private final CalendarService calendarService;
 
-    @Operation(summary = "Get all events", description = "Retrieve all calendar events for the current user with optional date range filter")
+    @Operation(summary = "Get all events", description = "Retrieve all calendar events for the current user with optional date range filter; recurring events are expanded into occurrences within the range")
     @GetMapping
     public ResponseEntity<ApiResponse<List<EventResponse>>> getAllEvents(
             @AuthenticationPrincipal UserPrincipal user,
@@ -152,6 +153,29 @@ public class CalendarController {
         return ResponseEntity.ok(ApiResponse.success("Event rescheduled successfully", event));
     }
 
+    @Operation(summary = "Override occurrence", description = "Cancel or modify a single occurrence of a recurring event")
+    @PutMapping("/{id}/occurrences")
+    public ResponseEntity<ApiResponse<EventResponse>> overrideOccurrence(
+            @PathVariable String id,
+            @AuthenticationPrincipal UserPrincipal user,
+            @Valid @RequestBody OccurrenceOverrideRequest request
+    ) {
+        EventResponse occurrence = calendarService.overrideOccurrence(id, user.getId(), request);
+        return ResponseEntity.ok(ApiResponse.success("Occurrence updated successfully", occurrence));
+    }
+
+    @Operation(summary = "Cancel occurrence", description = "Cancel a single occurrence of a recurring event")
+    @DeleteMapping("/{id}/occurrences")
+    public ResponseEntity<ApiResponse<Void>> cancelOccurrence(
+            @PathVariable String id,
+            @AuthenticationPrincipal UserPrincipal user,
+            @Parameter(description = "Original start of the occurrence (ISO-8601 format)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant originalStart
+    ) {
+        calendarService.cancelOccurrence(id, user.getId(), originalStart);
+        return ResponseEntity.ok(ApiResponse.success("Occurrence cancelled successfully", null));
+    }
+
     @Operation(summary = "Add attendees", description = "Add attendees to a calendar event")
     @PostMapping("/{id}/attendees")
     public ResponseEntity<ApiResponse<EventResponse>> addAttendees(
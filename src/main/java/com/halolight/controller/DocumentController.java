@@ -1,8 +1,10 @@
 package com.halolight.controller;
 
 import com.halolight.dto.ApiResponse;
+import com.halolight.dto.ContentVersion;
 import com.halolight.security.UserPrincipal;
 import com.halolight.service.DocumentService;
+import com.halolight.web.ConditionalGet;
 import com.halolight.dto.BatchDeleteRequest;
 import com.halolight.web.dto.document.CreateDocumentRequest;
 import com.halolight.web.dto.document.DocumentResponse;
@@ -26,6 +28,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 /**
  * REST Controller for document management
@@ -47,7 +50,8 @@ public class DocumentController {
      * @param search        Optional search query
      * @param pageable      Pagination parameters
      * @param userPrincipal Authenticated user principal
-     * @return Page of document responses
+     * @param webRequest    Current request, for conditional GET
+     * @return Page of document responses, or 304 Not Modified
      */
     @Operation(
             summary = "List documents",
@@ -59,7 +63,13 @@ public class DocumentController {
             @Parameter(description = "Folder path filter") @RequestParam(required = false) String folder,
             @Parameter(description = "Search query for title and content") @RequestParam(required = false) String search,
             @PageableDefault(size = 20, sort = "updatedAt", direction = Sort.Direction.DESC) Pageable pageable,
-            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            ServletWebRequest webRequest) {
+
+        ContentVersion version = documentService.getUserDocumentsVersion(userPrincipal.getId());
+        if (ConditionalGet.notModified(webRequest, userPrincipal.getId(), version)) {
+            return null;
+        }
 
         Page<DocumentResponse> documents = documentService.getUserDocuments(
                 userPrincipal.getId(),
@@ -101,7 +111,8 @@ public class DocumentController {
      *
      * @param id            Document ID
      * @param userPrincipal Authenticated user principal
-     * @return Document response
+     * @param webRequest    Current request, for conditional GET
+     * @return Document response, or 304 Not Modified
      */
     @Operation(
             summary = "Get document detail",
@@ -110,7 +121,15 @@ public class DocumentController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<DocumentResponse>> getDocument(
             @Parameter(description = "Document ID", required = true) @PathVariable String id,
-            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            ServletWebRequest webRequest) {
+
+        ContentVersion version = documentService.getDocumentVersion(id, userPrincipal.getId());
+        if (ConditionalGet.notModified(webRequest, userPrincipal.getId(), version)) {
+            // The client shows its own copy again, which counts as a view all the same
+            documentService.recordView(id);
+            return null;
+        }
 
         DocumentResponse document = documentService.getDocument(id, userPrincipal.getId());
         return ResponseEntity.ok(ApiResponse.success(document));
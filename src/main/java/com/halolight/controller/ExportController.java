@@ -0,0 +1,178 @@
+package com.halolight.controller;
+
+import com.halolight.security.UserPrincipal;
+import com.halolight.service.ExportService;
+import com.halolight.web.dto.export.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * REST Controller for streaming exports
+ */
+@Tag(name = "Exports", description = "Streaming export API endpoints")
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+public class ExportController {
+
+    private static final String AFTER_DESCRIPTION = "Resume after this ID, the last one received";
+
+    private final ExportService exportService;
+
+    /**
+     * Export all users (admin only)
+     *
+     * @param format         Output format
+     * @param after          ID to resume after
+     * @param acceptEncoding Encodings accepted by the client
+     * @return Users in ID order
+     */
+    @Operation(summary = "Export users", description = "Stream all users as NDJSON or CSV in ID order (admin only)")
+    @GetMapping("/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = AFTER_DESCRIPTION) @RequestParam(required = false) String after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        ExportFormat exportFormat = parseFormat(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return stream("users", exportFormat, gzip, exportService.exportUsers(exportFormat, after, gzip));
+    }
+
+    /**
+     * Export metadata of the authenticated user's documents
+     *
+     * @param format         Output format
+     * @param after          ID to resume after
+     * @param acceptEncoding Encodings accepted by the client
+     * @param userPrincipal  Authenticated user principal
+     * @return Document metadata in ID order, without content
+     */
+    @Operation(summary = "Export documents", description = "Stream metadata of the current user's documents as NDJSON or CSV in ID order")
+    @GetMapping("/documents")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = AFTER_DESCRIPTION) @RequestParam(required = false) String after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        ExportFormat exportFormat = parseFormat(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return stream("documents", exportFormat, gzip,
+                exportService.exportDocuments(userPrincipal.getId(), exportFormat, after, gzip));
+    }
+
+    /**
+     * Export all activity logs (admin only)
+     *
+     * @param format         Output format
+     * @param after          ID to resume after
+     * @param acceptEncoding Encodings accepted by the client
+     * @return Activity log entries in ID order
+     */
+    @Operation(summary = "Export activity logs", description = "Stream all activity log entries as NDJSON or CSV in ID order (admin only)")
+    @GetMapping("/activity-logs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportActivityLogs(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = AFTER_DESCRIPTION) @RequestParam(required = false) String after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        ExportFormat exportFormat = parseFormat(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return stream("activity-logs", exportFormat, gzip,
+                exportService.exportActivityLogs(exportFormat, after, gzip));
+    }
+
+    /**
+     * Export the authenticated user's notifications
+     *
+     * @param format         Output format
+     * @param after          ID to resume after
+     * @param acceptEncoding Encodings accepted by the client
+     * @param userPrincipal  Authenticated user principal
+     * @return Notifications in ID order
+     */
+    @Operation(summary = "Export notifications", description = "Stream the current user's notifications as NDJSON or CSV in ID order")
+    @GetMapping("/notifications")
+    public ResponseEntity<StreamingResponseBody> exportNotifications(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = AFTER_DESCRIPTION) @RequestParam(required = false) String after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        ExportFormat exportFormat = parseFormat(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return stream("notifications", exportFormat, gzip,
+                exportService.exportNotifications(userPrincipal.getId(), exportFormat, after, gzip));
+    }
+
+    private static ExportFormat parseFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+    }
+
+    /**
+     * True if the client lists gzip, or *, without q=0
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!name.equals("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.matches("(?i)q=0(\\.0{0,3})?")) {
+                    refused = true;
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format, boolean gzip,
+                                                                StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(format.getContentType()),
+                        StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
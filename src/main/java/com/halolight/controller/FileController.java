@@ -1,7 +1,9 @@
 package com.halolight.controller;
 
 import com.halolight.dto.ApiResponse;
+import com.halolight.dto.ContentVersion;
 import com.halolight.service.FileService;
+import com.halolight.web.ConditionalGet;
 import com.halolight.web.dto.file.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,7 +16,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -46,6 +50,7 @@ public class FileController {
     @GetMapping
     public ResponseEntity<ApiResponse<Page<FileResponse>>> getFiles(
             Authentication authentication,
+            ServletWebRequest webRequest,
             @Parameter(description = "File path filter") @RequestParam(required = false) String path,
             @Parameter(description = "Page number") @RequestParam(defaultValue = "1") Integer page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") Integer pageSize,
@@ -53,6 +58,9 @@ public class FileController {
             @Parameter(description = "Search keyword") @RequestParam(required = false) String search
     ) {
         String userId = getUserId(authentication);
+        if (ConditionalGet.notModified(webRequest, userId, fileService.getFilesVersion(userId))) {
+            return null;
+        }
 
         QueryFilesRequest request = new QueryFilesRequest();
         request.setPath(path);
@@ -69,10 +77,16 @@ public class FileController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<FileResponse>> getFileById(
             @PathVariable String id,
-            Authentication authentication
+            Authentication authentication,
+            ServletWebRequest webRequest
     ) {
         String userId = getUserId(authentication);
         FileResponse file = fileService.getFileById(id, userId);
+        // A single row, so the body is the version; a 304 saves the transfer
+        ContentVersion version = ContentVersion.lastModified(Instant.parse(file.getUpdatedAt()), file);
+        if (ConditionalGet.notModified(webRequest, userId, version)) {
+            return null;
+        }
         return ResponseEntity.ok(ApiResponse.success(file));
     }
 
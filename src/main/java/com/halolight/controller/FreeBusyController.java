@@ -0,0 +1,58 @@
+package com.halolight.controller;
+
+import com.halolight.dto.ApiResponse;
+import com.halolight.security.UserPrincipal;
+import com.halolight.service.CalendarService;
+import com.halolight.web.dto.calendar.FreeBusyResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Tag(name = "Calendar", description = "Calendar events management API endpoints")
+@RestController
+@RequestMapping("/api/calendar/freebusy")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+public class FreeBusyController {
+
+    private final CalendarService calendarService;
+
+    @Operation(summary = "Get free/busy", description = "Merged busy intervals and free slots for a set of users and teams within a time window; non-admins may only query their own teams and teammates")
+    @GetMapping
+    public ResponseEntity<ApiResponse<FreeBusyResponse>> getFreeBusy(
+            @AuthenticationPrincipal UserPrincipal user,
+            @Parameter(description = "User IDs")
+            @RequestParam(required = false) List<String> userIds,
+            @Parameter(description = "Team IDs; all members are included")
+            @RequestParam(required = false) List<String> teamIds,
+            @Parameter(description = "Start date (ISO-8601 format)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @Parameter(description = "End date (ISO-8601 format)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @Parameter(description = "Minimum free slot length in minutes")
+            @RequestParam(defaultValue = "30") int duration
+    ) {
+        if (duration < 0) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Duration must not be negative"));
+        }
+        boolean admin = user.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        FreeBusyResponse freeBusy = calendarService.getFreeBusy(user.getId(), admin, userIds, teamIds, start, end,
+                Duration.ofMinutes(duration));
+        return ResponseEntity.ok(ApiResponse.success(freeBusy));
+    }
+}
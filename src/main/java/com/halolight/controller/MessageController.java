@@ -8,6 +8,7 @@ import com.halolight.web.dto.message.CreateConversationRequest;
 import com.halolight.web.dto.message.MessageResponse;
 import com.halolight.web.dto.message.SendMessageRequest;
 import com.halolight.web.dto.message.SendMessageWithConversationRequest;
+import com.halolight.web.dto.message.UnreadCountResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -82,6 +83,17 @@ public class MessageController {
         return ResponseEntity.ok(ApiResponse.success("Conversation marked as read", null));
     }
 
+    @Operation(summary = "Get unread message count", description = "Unread messages across all conversations")
+    @GetMapping("/unread-count")
+    public ResponseEntity<ApiResponse<UnreadCountResponse>> getUnreadCount(
+            @AuthenticationPrincipal UserPrincipal user
+    ) {
+        UnreadCountResponse count = UnreadCountResponse.builder()
+                .count(messageService.getUnreadCount(user.getId()))
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(count));
+    }
+
     // ==================== Next.js Compatible Endpoints ====================
 
     @Operation(summary = "Get messages (Next.js compatible)", description = "Alternative endpoint: GET /messages/{conversationId}")
@@ -1,7 +1,9 @@
 package com.halolight.controller;
 
 import com.halolight.dto.ApiResponse;
+import com.halolight.dto.ContentVersion;
 import com.halolight.service.RoleService;
+import com.halolight.web.ConditionalGet;
 import com.halolight.web.dto.role.AssignPermissionsRequest;
 import com.halolight.web.dto.role.CreateRoleRequest;
 import com.halolight.web.dto.role.RoleResponse;
@@ -16,6 +18,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -38,8 +41,12 @@ public class RoleController {
     )
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<RoleResponse>>> getAllRoles() {
+    public ResponseEntity<ApiResponse<List<RoleResponse>>> getAllRoles(ServletWebRequest webRequest) {
+        // Served from the roles cache, so the list itself is the version; a 304 saves the transfer
         List<RoleResponse> roles = roleService.getAllRoles();
+        if (ConditionalGet.notModified(webRequest, "roles", ContentVersion.of(roles))) {
+            return null;
+        }
         return ResponseEntity.ok(ApiResponse.success(roles));
     }
 
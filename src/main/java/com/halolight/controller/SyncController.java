@@ -0,0 +1,54 @@
+package com.halolight.controller;
+
+import com.halolight.dto.ApiResponse;
+import com.halolight.security.UserPrincipal;
+import com.halolight.service.SyncService;
+import com.halolight.web.dto.sync.SyncResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller for delta sync
+ */
+@Tag(name = "Sync", description = "Delta sync API endpoints")
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    /**
+     * Get the changes to the authenticated user's files, folders, documents and notifications since a token
+     *
+     * @param since         Token of the previous call; omitted on the first call
+     * @param limit         Maximum number of changes in this batch
+     * @param userPrincipal Authenticated user principal
+     * @return Changed entities, tombstones of deleted ones and the next token
+     */
+    @Operation(
+            summary = "Sync changes",
+            description = "Return the files, folders, documents and notifications created, updated or deleted since the given token. "
+                    + "Without a token, or with one that has expired, the response has reset=true and the current token: "
+                    + "reload the full lists, then sync from that token. Call again while hasMore is true."
+    )
+    @GetMapping
+    public ResponseEntity<ApiResponse<SyncResponse>> getChanges(
+            @Parameter(description = "Token returned by the previous call") @RequestParam(required = false) Long since,
+            @Parameter(description = "Maximum number of changes") @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        SyncResponse changes = syncService.getChanges(userPrincipal.getId(), since, limit);
+        return ResponseEntity.ok(ApiResponse.success(changes));
+    }
+}
@@ -3,6 +3,7 @@ package com.halolight.controller;
 import com.halolight.dto.ApiResponse;
 import com.halolight.security.UserPrincipal;
 import com.halolight.service.TeamService;
+import com.halolight.web.ConditionalGet;
 import com.halolight.web.dto.team.AddMemberRequest;
 import com.halolight.web.dto.team.CreateTeamRequest;
 import com.halolight.web.dto.team.TeamResponse;
@@ -22,6 +23,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -40,8 +42,12 @@ public class TeamController {
     )
     @GetMapping("/my-teams")
     public ResponseEntity<ApiResponse<List<TeamResponse>>> getUserTeams(
-            @AuthenticationPrincipal UserPrincipal user
+            @AuthenticationPrincipal UserPrincipal user,
+            ServletWebRequest webRequest
     ) {
+        if (ConditionalGet.notModified(webRequest, user.getId(), teamService.getUserTeamsVersion(user.getId()))) {
+            return null;
+        }
         List<TeamResponse> teams = teamService.getUserTeams(user.getId());
         return ResponseEntity.ok(ApiResponse.success(teams));
     }
@@ -6,7 +6,10 @@ import com.halolight.dto.BatchDeleteRequest;
 import com.halolight.dto.UpdateUserStatusRequest;
 import com.halolight.dto.UserDTO;
 import com.halolight.security.UserPrincipal;
+import com.halolight.service.UserImportService;
 import com.halolight.service.UserService;
+import com.halolight.web.dto.export.ExportFormat;
+import com.halolight.web.dto.userimport.UserImportJobResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,11 +18,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.Map;
 
 @Tag(name = "Users", description = "User management API endpoints")
@@ -30,6 +36,7 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @Operation(summary = "Get all users", description = "Retrieve all users with optional filtering and pagination (Admin only)")
     @GetMapping
@@ -107,4 +114,28 @@ public class UserController {
         userService.changePassword(id, oldPassword, newPassword);
         return ResponseEntity.ok(ApiResponse.success("Password changed successfully", null));
     }
+
+    @Operation(summary = "Import users", description = "Upload users as CSV with a header row (text/csv) or as NDJSON "
+            + "(application/x-ndjson) and import them in the background (Admin only). Fields: email, username, password, "
+            + "name, phone, department, position and role. Poll the returned import for progress and rejected rows.")
+    @PostMapping(value = "/imports", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<UserImportJobResponse>> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ExportFormat format = contentType.isCompatibleWith(MediaType.parseMediaType(ExportFormat.CSV.getContentType()))
+                ? ExportFormat.CSV
+                : ExportFormat.NDJSON;
+        UserImportJobResponse job = userImportService.start(userPrincipal.getId(), format, body);
+        return ResponseEntity.accepted().body(ApiResponse.success("User import started", job));
+    }
+
+    @Operation(summary = "Get user import", description = "Progress and rejected rows of a user import (Admin only)")
+    @GetMapping("/imports/{importId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<UserImportJobResponse>> getUserImport(@PathVariable String importId) {
+        UserImportJobResponse job = userImportService.getJob(importId);
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
 }
@@ -17,8 +17,8 @@ import java.time.Instant;
 @Builder
 @Entity
 @Table(name = "activity_logs", indexes = {
-        @Index(name = "idx_activity_user", columnList = "user_id"),
-        @Index(name = "idx_activity_resource", columnList = "resource_type, resource_id"),
+        @Index(name = "idx_activity_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_activity_resource_created", columnList = "resource_type, resource_id, created_at"),
         @Index(name = "idx_activity_created", columnList = "created_at")
 })
 public class ActivityLog {
@@ -23,7 +23,8 @@ import java.util.Set;
         @Index(name = "idx_events_organizer", columnList = "organizer_id"),
         @Index(name = "idx_events_team", columnList = "team_id"),
         @Index(name = "idx_events_start", columnList = "start_time"),
-        @Index(name = "idx_events_end", columnList = "end_time")
+        @Index(name = "idx_events_end", columnList = "end_time"),
+        @Index(name = "idx_events_recurrence_end", columnList = "recurrence_end")
 })
 public class CalendarEvent {
 
@@ -58,6 +59,24 @@ public class CalendarEvent {
     @Column(name = "team_id", length = 40)
     private String teamId;
 
+    /**
+     * Canonical RRULE of a recurring series, null for single events
+     */
+    @Column(name = "recurrence_rule")
+    private String recurrenceRule;
+
+    /**
+     * IANA time zone the series repeats in, null for UTC
+     */
+    @Column(name = "recurrence_time_zone", length = 64)
+    private String recurrenceTimeZone;
+
+    /**
+     * End of the last occurrence of a bounded series, null when single or open-ended
+     */
+    @Column(name = "recurrence_end")
+    private Instant recurrenceEnd;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
@@ -82,6 +101,10 @@ public class CalendarEvent {
     @Builder.Default
     private Set<EventReminder> reminders = new LinkedHashSet<>();
 
+    @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
+    private Set<EventOccurrenceOverride> overrides = new LinkedHashSet<>();
+
     @PrePersist
     public void prePersist() {
         if (this.id == null) {
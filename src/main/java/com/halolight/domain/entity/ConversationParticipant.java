@@ -17,7 +17,9 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "conversation_participants")
+@Table(name = "conversation_participants", indexes = {
+        @Index(name = "idx_conversation_participants_user", columnList = "user_id")
+})
 public class ConversationParticipant {
 
     @EmbeddedId
@@ -27,6 +29,13 @@ public class ConversationParticipant {
     @Column(name = "last_read_at")
     private Instant lastReadAt;
 
+    /**
+     * Messages from other participants since {@link #lastReadAt}
+     */
+    @Column(name = "unread_count", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer unreadCount = 0;
+
     @CreationTimestamp
     @Column(name = "joined_at", nullable = false, updatable = false)
     private Instant joinedAt;
@@ -21,7 +21,7 @@ import java.util.Set;
 @Builder
 @Entity
 @Table(name = "documents", indexes = {
-        @Index(name = "idx_documents_owner", columnList = "owner_id"),
+        @Index(name = "idx_documents_owner_updated", columnList = "owner_id, updated_at"),
         @Index(name = "idx_documents_team", columnList = "team_id"),
         @Index(name = "idx_documents_folder", columnList = "folder")
 })
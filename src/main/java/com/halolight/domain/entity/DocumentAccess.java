@@ -0,0 +1,62 @@
+package com.halolight.domain.entity;
+
+import com.halolight.domain.entity.enums.SharePermission;
+import com.halolight.domain.entity.id.DocumentAccessId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Effective access of a user to a document they do not own, derived from direct and team shares.
+ * Holds the strongest permission over all unexpired shares that reach the user.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "document_access", indexes = {
+        @Index(name = "idx_document_access_user", columnList = "user_id, document_id")
+})
+public class DocumentAccess implements Persistable<DocumentAccessId> {
+
+    @EmbeddedId
+    @Builder.Default
+    private DocumentAccessId id = new DocumentAccessId();
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SharePermission permission;
+
+    /**
+     * Earliest expiry among the contributing shares; past it the entry must be re-evaluated
+     */
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    /**
+     * The composite id is always assigned, so newness is tracked explicitly; otherwise saveAll would merge
+     * (one SELECT per row) instead of persisting the rows as a JDBC batch.
+     */
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
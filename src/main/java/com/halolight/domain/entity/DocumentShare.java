@@ -19,7 +19,8 @@ import java.time.Instant;
 @Entity
 @Table(name = "document_shares", indexes = {
         @Index(name = "idx_document_shares_document", columnList = "document_id"),
-        @Index(name = "idx_document_shares_user", columnList = "shared_with_id")
+        @Index(name = "idx_document_shares_user", columnList = "shared_with_id"),
+        @Index(name = "idx_document_shares_team", columnList = "team_id")
 })
 public class DocumentShare {
 
@@ -9,6 +9,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 
@@ -18,8 +19,10 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "event_attendees")
-public class EventAttendee {
+@Table(name = "event_attendees", indexes = {
+        @Index(name = "idx_event_attendees_user", columnList = "user_id")
+})
+public class EventAttendee implements Persistable<EventAttendeeId> {
 
     @EmbeddedId
     @Builder.Default
@@ -43,4 +46,23 @@ public class EventAttendee {
     @MapsId("userId")
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    /**
+     * The composite id is always assigned, so newness is tracked explicitly; otherwise saveAll would merge
+     * (one SELECT per row) instead of persisting the rows as a JDBC batch.
+     */
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
 }
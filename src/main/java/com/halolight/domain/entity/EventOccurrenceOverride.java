@@ -0,0 +1,78 @@
+package com.halolight.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Per-occurrence exception of a recurring calendar event: either cancels the occurrence starting at
+ * {@code originalStart} or overrides some of its fields. Null override fields inherit from the series.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(
+        name = "event_occurrence_overrides",
+        indexes = {
+                @Index(name = "idx_occurrence_overrides_start", columnList = "start_time")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_occurrence_overrides_event_start", columnNames = {"event_id", "original_start"})
+)
+public class EventOccurrenceOverride {
+
+    @Id
+    @Column(nullable = false, updatable = false, length = 40)
+    private String id;
+
+    @Column(name = "event_id", nullable = false, length = 40)
+    private String eventId;
+
+    @Column(name = "original_start", nullable = false)
+    private Instant originalStart;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean cancelled = false;
+
+    private String title;
+
+    @Column(columnDefinition = "text")
+    private String description;
+
+    private String location;
+
+    @Column(name = "start_time")
+    private Instant startTime;
+
+    @Column(name = "end_time")
+    private Instant endTime;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", insertable = false, updatable = false)
+    private CalendarEvent event;
+
+    @PrePersist
+    public void prePersist() {
+        if (this.id == null) {
+            this.id = java.util.UUID.randomUUID().toString().replace("-", "").substring(0, 25);
+        }
+    }
+}
@@ -16,9 +16,9 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 @Entity
+// Due reminders are found through the partial index idx_reminders_due, created by the V3 migration
 @Table(name = "event_reminders", indexes = {
-        @Index(name = "idx_reminders_event", columnList = "event_id"),
-        @Index(name = "idx_reminders_remind_at", columnList = "remind_at")
+        @Index(name = "idx_reminders_event", columnList = "event_id")
 })
 public class EventReminder {
 
@@ -20,7 +20,7 @@ import java.util.Set;
 @Builder
 @Entity
 @Table(name = "folders", indexes = {
-        @Index(name = "idx_folders_owner", columnList = "owner_id"),
+        @Index(name = "idx_folders_owner_updated", columnList = "owner_id, updated_at"),
         @Index(name = "idx_folders_parent", columnList = "parent_id"),
         @Index(name = "idx_folders_team", columnList = "team_id")
 })
@@ -0,0 +1,33 @@
+package com.halolight.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Lease that lets only one application instance run a background job at a time.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+
+    @Id
+    @Column(nullable = false, updatable = false, length = 100)
+    private String name;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "leased_until", nullable = false)
+    private Instant leasedUntil;
+}
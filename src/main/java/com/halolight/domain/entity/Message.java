@@ -18,7 +18,7 @@ import java.time.Instant;
 @Builder
 @Entity
 @Table(name = "messages", indexes = {
-        @Index(name = "idx_messages_conversation", columnList = "conversation_id"),
+        @Index(name = "idx_messages_conversation_created", columnList = "conversation_id, created_at"),
         @Index(name = "idx_messages_sender", columnList = "sender_id"),
         @Index(name = "idx_messages_created", columnList = "created_at")
 })
@@ -17,8 +17,7 @@ import java.time.Instant;
 @Builder
 @Entity
 @Table(name = "notifications", indexes = {
-        @Index(name = "idx_notifications_user", columnList = "user_id"),
-        @Index(name = "idx_notifications_read", columnList = "is_read"),
+        @Index(name = "idx_notifications_user_read_created", columnList = "user_id, is_read, created_at"),
         @Index(name = "idx_notifications_created", columnList = "created_at")
 })
 public class Notification {
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -24,6 +26,7 @@ import java.util.Set;
         indexes = @Index(name = "idx_permissions_action", columnList = "action"),
         uniqueConstraints = @UniqueConstraint(name = "uk_permissions_resource_action", columnNames = {"resource", "action"})
 )
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "permissions")
 public class Permission {
 
     @Id
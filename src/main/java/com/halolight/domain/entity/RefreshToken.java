@@ -18,7 +18,7 @@ import java.time.Instant;
 @Entity
 @Table(name = "refresh_tokens", indexes = {
         @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
-        @Index(name = "idx_refresh_tokens_token", columnList = "token"),
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
         @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
 })
 public class RefreshToken {
@@ -30,8 +30,17 @@ public class RefreshToken {
     @Column(name = "user_id", nullable = false, length = 40)
     private String userId;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    /**
+     * Hex SHA-256 of the opaque token handed to the client; the token itself is never stored
+     */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    /**
+     * Shared by all tokens rotated from the same login; reusing a rotated token revokes the whole family
+     */
+    @Column(name = "family_id", nullable = false, length = 40)
+    private String familyId;
 
     @Column(name = "expires_at", nullable = false)
     private Instant expiresAt;
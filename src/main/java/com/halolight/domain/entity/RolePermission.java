@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
@@ -14,7 +16,10 @@ import lombok.Setter;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "role_permissions")
+@Table(name = "role_permissions", indexes = {
+        @Index(name = "idx_role_permissions_role", columnList = "role_id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rolePermissions")
 public class RolePermission {
 
     @EmbeddedId
@@ -19,7 +19,7 @@ import java.time.Instant;
 @Builder
 @Entity
 @Table(name = "files", indexes = {
-        @Index(name = "idx_files_owner", columnList = "owner_id"),
+        @Index(name = "idx_files_owner_updated", columnList = "owner_id, updated_at"),
         @Index(name = "idx_files_folder", columnList = "folder_id"),
         @Index(name = "idx_files_team", columnList = "team_id")
 })
@@ -0,0 +1,41 @@
+package com.halolight.domain.entity;
+
+import com.halolight.domain.entity.id.SyncChangeId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Latest change of one entity as seen by one user. Each change moves the row to the user's next sequence
+ * number, so the log holds one row per entity however often it changes; a deleted entity leaves a tombstone.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "sync_changes", indexes = {
+        @Index(name = "idx_sync_changes_user_seq", columnList = "user_id, seq", unique = true),
+        @Index(name = "idx_sync_changes_tombstones", columnList = "deleted, changed_at")
+})
+public class SyncChange {
+
+    @EmbeddedId
+    @Builder.Default
+    private SyncChangeId id = new SyncChangeId();
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Column(nullable = false)
+    private Boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
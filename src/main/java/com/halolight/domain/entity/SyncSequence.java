@@ -0,0 +1,47 @@
+package com.halolight.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Per-user change sequence for delta sync. Taking a number locks the row until the transaction ends, so a user's
+ * changes commit in sequence order and a client never skips one that was still in flight.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "sync_sequences")
+public class SyncSequence {
+
+    @Id
+    @Column(name = "user_id", nullable = false, updatable = false, length = 40)
+    private String userId;
+
+    /**
+     * Last sequence number handed out
+     */
+    @Column(name = "last_seq", nullable = false)
+    @Builder.Default
+    private Long lastSeq = 0L;
+
+    /**
+     * Highest sequence number of a purged tombstone; tokens below it can no longer be answered with changes
+     */
+    @Column(name = "purged_seq", nullable = false)
+    @Builder.Default
+    private Long purgedSeq = 0L;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
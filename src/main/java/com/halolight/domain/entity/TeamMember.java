@@ -17,7 +17,9 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "team_members")
+@Table(name = "team_members", indexes = {
+        @Index(name = "idx_team_members_user", columnList = "user_id")
+})
 public class TeamMember {
 
     @EmbeddedId
@@ -0,0 +1,40 @@
+package com.halolight.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Per-user unread badge counts, maintained on write so badge reads never count messages or notifications.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "unread_counters")
+public class UnreadCounter {
+
+    @Id
+    @Column(name = "user_id", nullable = false, updatable = false, length = 40)
+    private String userId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long messages = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long notifications = 0L;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
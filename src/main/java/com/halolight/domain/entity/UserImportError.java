@@ -0,0 +1,28 @@
+package com.halolight.domain.entity;
+
+import com.halolight.domain.entity.id.UserImportErrorId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Why one row of a bulk user import was rejected
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_import_errors")
+public class UserImportError {
+
+    @EmbeddedId
+    private UserImportErrorId id;
+
+    @Column(nullable = false, length = 1000)
+    private String message;
+}
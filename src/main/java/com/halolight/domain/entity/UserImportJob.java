@@ -0,0 +1,93 @@
+package com.halolight.domain.entity;
+
+import com.halolight.domain.entity.enums.UserImportStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A bulk user import and its progress. Counters are raised once per committed batch, so they always match the
+ * users actually created; {@code updatedAt} doubles as the heartbeat of the instance running the import.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_import_jobs", indexes = {
+        @Index(name = "idx_user_import_jobs_status", columnList = "status, updated_at")
+})
+public class UserImportJob {
+
+    @Id
+    @Column(nullable = false, updatable = false, length = 40)
+    private String id;
+
+    @Column(name = "created_by", nullable = false, updatable = false, length = 40)
+    private String createdBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private UserImportStatus status = UserImportStatus.PENDING;
+
+    /**
+     * Upload format, CSV or NDJSON
+     */
+    @Column(nullable = false, updatable = false, length = 10)
+    private String format;
+
+    /**
+     * Rows read so far, valid or not
+     */
+    @Column(name = "total_rows", nullable = false)
+    @Builder.Default
+    private Long totalRows = 0L;
+
+    @Column(name = "imported_rows", nullable = false)
+    @Builder.Default
+    private Long importedRows = 0L;
+
+    @Column(name = "failed_rows", nullable = false)
+    @Builder.Default
+    private Long failedRows = 0L;
+
+    /**
+     * Why the import as a whole failed
+     */
+    @Column(columnDefinition = "text")
+    private String message;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (this.id == null) {
+            this.id = generateCuid();
+        }
+    }
+
+    private String generateCuid() {
+        return java.util.UUID.randomUUID().toString().replace("-", "").substring(0, 25);
+    }
+}
@@ -14,7 +14,9 @@ import lombok.Setter;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "user_roles")
+@Table(name = "user_roles", indexes = {
+        @Index(name = "idx_user_roles_user", columnList = "user_id")
+})
 public class UserRole {
 
     @EmbeddedId
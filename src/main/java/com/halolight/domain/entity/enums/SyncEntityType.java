@@ -0,0 +1,11 @@
+package com.halolight.domain.entity.enums;
+
+/**
+ * Kinds of entity whose changes are recorded for delta sync
+ */
+public enum SyncEntityType {
+    FILE,
+    FOLDER,
+    DOCUMENT,
+    NOTIFICATION
+}
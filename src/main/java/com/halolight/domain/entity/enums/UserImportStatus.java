@@ -0,0 +1,8 @@
+package com.halolight.domain.entity.enums;
+
+public enum UserImportStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,26 @@
+package com.halolight.domain.entity.id;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class DocumentAccessId implements Serializable {
+
+    @Column(name = "document_id", nullable = false, length = 40)
+    private String documentId;
+
+    @Column(name = "user_id", nullable = false, length = 40)
+    private String userId;
+}
@@ -0,0 +1,29 @@
+package com.halolight.domain.entity.id;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class UserImportErrorId implements Serializable {
+
+    @Column(name = "job_id", nullable = false, length = 40)
+    private String jobId;
+
+    /**
+     * Line of the upload the row starts on, counting from 1
+     */
+    @Column(nullable = false)
+    private Long line;
+}
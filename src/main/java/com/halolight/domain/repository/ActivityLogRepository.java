@@ -1,15 +1,20 @@
 package com.halolight.domain.repository;
 
 import com.halolight.domain.entity.ActivityLog;
+import com.halolight.web.dto.export.ActivityLogExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActivityLogRepository extends JpaRepository<ActivityLog, String> {
@@ -48,4 +53,17 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, String
     long countByUserId(String userId);
 
     long countByAction(String action);
+
+    /**
+     * Activity log entries with an ID above {@code after}, in ID order, read through a cursor; consume inside a
+     * transaction
+     */
+    @Query("SELECT new com.halolight.web.dto.export.ActivityLogExportRow(a.id, a.userId, a.action, a.resourceType, " +
+            "a.resourceId, a.details, a.ipAddress, a.userAgent, a.createdAt) " +
+            "FROM ActivityLog a WHERE a.id > :after ORDER BY a.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ActivityLogExportRow> streamForExport(@Param("after") String after);
 }
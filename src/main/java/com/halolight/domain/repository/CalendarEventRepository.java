@@ -3,19 +3,45 @@ package com.halolight.domain.repository;
 import com.halolight.domain.entity.CalendarEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CalendarEventRepository extends JpaRepository<CalendarEvent, String> {
 
+    /**
+     * Time-only view of an event, used for free/busy computation
+     */
+    interface BusyBlock {
+        String getId();
+
+        Instant getStartTime();
+
+        Instant getEndTime();
+
+        String getRecurrenceRule();
+
+        String getRecurrenceTimeZone();
+    }
+
+    /**
+     * Load an event with its organizer and team, as needed to build an event response.
+     */
+    @EntityGraph(attributePaths = {"organizer", "team"})
+    Optional<CalendarEvent> findWithOrganizerAndTeamById(String id);
+
+    @EntityGraph(attributePaths = {"organizer", "team"})
     Page<CalendarEvent> findByOrganizerId(String organizerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"organizer", "team"})
     Page<CalendarEvent> findByTeamId(String teamId, Pageable pageable);
 
     @Query("SELECT e FROM CalendarEvent e WHERE " +
@@ -27,9 +53,11 @@ public interface CalendarEventRepository extends JpaRepository<CalendarEvent, St
             @Param("end") Instant end
     );
 
-    @Query("SELECT e FROM CalendarEvent e " +
+    @EntityGraph(attributePaths = {"organizer", "team"})
+    @Query("SELECT DISTINCT e FROM CalendarEvent e " +
             "LEFT JOIN e.attendees ea " +
             "WHERE (e.organizerId = :userId OR ea.user.id = :userId) " +
+            "AND e.recurrenceRule IS NULL " +
             "AND e.startTime >= :start AND e.endTime <= :end")
     List<CalendarEvent> findByUserIdAndDateRange(
             @Param("userId") String userId,
@@ -37,6 +65,22 @@ public interface CalendarEventRepository extends JpaRepository<CalendarEvent, St
             @Param("end") Instant end
     );
 
+    /**
+     * Recurring series visible to the user that may have occurrences in [start, end)
+     */
+    @EntityGraph(attributePaths = {"organizer", "team"})
+    @Query("SELECT DISTINCT e FROM CalendarEvent e " +
+            "LEFT JOIN e.attendees ea " +
+            "WHERE (e.organizerId = :userId OR ea.user.id = :userId) " +
+            "AND e.recurrenceRule IS NOT NULL " +
+            "AND e.startTime < :end " +
+            "AND (e.recurrenceEnd IS NULL OR e.recurrenceEnd > :start)")
+    List<CalendarEvent> findRecurringByUserIdAndDateRange(
+            @Param("userId") String userId,
+            @Param("start") Instant start,
+            @Param("end") Instant end
+    );
+
     @Query("SELECT e FROM CalendarEvent e WHERE " +
             "e.teamId = :teamId AND " +
             "e.startTime >= :start AND e.endTime <= :end")
@@ -46,7 +90,26 @@ public interface CalendarEventRepository extends JpaRepository<CalendarEvent, St
             @Param("end") Instant end
     );
 
+    @EntityGraph(attributePaths = {"organizer", "team"})
     @Query("SELECT e FROM CalendarEvent e WHERE " +
             "e.startTime >= :now ORDER BY e.startTime ASC")
     List<CalendarEvent> findUpcomingEvents(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Events overlapping [start, end) that the given users organize or attend without having declined,
+     * including recurring series that may have occurrences in the window
+     */
+    @Query("SELECT e.id AS id, e.startTime AS startTime, e.endTime AS endTime, " +
+            "e.recurrenceRule AS recurrenceRule, e.recurrenceTimeZone AS recurrenceTimeZone FROM CalendarEvent e " +
+            "WHERE e.startTime < :end " +
+            "AND ((e.recurrenceRule IS NULL AND e.endTime > :start) " +
+            "OR (e.recurrenceRule IS NOT NULL AND (e.recurrenceEnd IS NULL OR e.recurrenceEnd > :start))) " +
+            "AND (e.organizerId IN :userIds OR EXISTS (SELECT 1 FROM EventAttendee ea " +
+            "WHERE ea.id.eventId = e.id AND ea.id.userId IN :userIds " +
+            "AND ea.status <> com.halolight.domain.entity.enums.AttendeeStatus.DECLINED))")
+    List<BusyBlock> findBusyBlocks(
+            @Param("userIds") Collection<String> userIds,
+            @Param("start") Instant start,
+            @Param("end") Instant end
+    );
 }
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,6 +17,8 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
 
     List<ConversationParticipant> findByIdConversationId(String conversationId);
 
+    List<ConversationParticipant> findByIdConversationIdIn(Collection<String> conversationIds);
+
     List<ConversationParticipant> findByIdUserId(String userId);
 
     @Query("SELECT cp FROM ConversationParticipant cp WHERE cp.id.conversationId = :conversationId AND cp.id.userId = :userId")
@@ -32,6 +35,21 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
             @Param("readAt") Instant readAt
     );
 
+    @Modifying
+    @Query("UPDATE ConversationParticipant cp SET cp.unreadCount = cp.unreadCount + 1 " +
+            "WHERE cp.id.conversationId = :conversationId AND cp.id.userId <> :senderId")
+    int incrementUnreadCount(@Param("conversationId") String conversationId, @Param("senderId") String senderId);
+
+    /**
+     * Recompute the given users' unread counts in all their conversations from the messages table.
+     */
+    @Modifying
+    @Query("UPDATE ConversationParticipant cp SET cp.unreadCount = " +
+            "(SELECT COUNT(m) FROM Message m WHERE m.conversationId = cp.id.conversationId " +
+            "AND m.senderId <> cp.id.userId AND m.createdAt > COALESCE(cp.lastReadAt, cp.joinedAt)) " +
+            "WHERE cp.id.userId IN :userIds")
+    int reconcileUnreadCounts(@Param("userIds") Collection<String> userIds);
+
     @Query("SELECT COUNT(cp) FROM ConversationParticipant cp WHERE cp.id.conversationId = :conversationId")
     long countByConversationId(@Param("conversationId") String conversationId);
 
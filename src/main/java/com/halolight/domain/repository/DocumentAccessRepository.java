@@ -0,0 +1,17 @@
+package com.halolight.domain.repository;
+
+import com.halolight.domain.entity.DocumentAccess;
+import com.halolight.domain.entity.id.DocumentAccessId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DocumentAccessRepository extends JpaRepository<DocumentAccess, DocumentAccessId> {
+
+    List<DocumentAccess> findByIdDocumentIdIn(Collection<String> documentIds);
+
+    List<DocumentAccess> findByIdUserIdAndIdDocumentIdIn(String userId, Collection<String> documentIds);
+}
@@ -1,22 +1,45 @@
 package com.halolight.domain.repository;
 
 import com.halolight.domain.entity.Document;
+import com.halolight.web.dto.export.DocumentExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, String> {
 
+    /**
+     * What the document list of an owner is built from, as returned by {@link #findOwnerVersion}
+     */
+    interface OwnerVersion {
+        long getDocuments();
+
+        Instant getLastUpdated();
+
+        long getShares();
+
+        Instant getLastShared();
+
+        Instant getLastUserUpdate();
+    }
+
     Page<Document> findByOwnerId(String ownerId, Pageable pageable);
 
     Page<Document> findByTeamId(String teamId, Pageable pageable);
 
+    long countByTeamId(String teamId);
+
     List<Document> findByFolder(String folder);
 
     @Query("SELECT d FROM Document d WHERE " +
@@ -32,11 +55,39 @@ public interface DocumentRepository extends JpaRepository<Document, String> {
             Pageable pageable
     );
 
-    @Query("SELECT d FROM Document d LEFT JOIN d.shares ds WHERE " +
-            "(d.ownerId = :userId OR ds.sharedWithId = :userId OR " +
-            "(ds.teamId IN (SELECT tm.id.teamId FROM TeamMember tm WHERE tm.id.userId = :userId)))")
+    /**
+     * Documents owned by the user or reachable through the document access index
+     */
+    @Query("SELECT d FROM Document d WHERE d.ownerId = :userId OR d.id IN " +
+            "(SELECT a.id.documentId FROM DocumentAccess a WHERE a.id.userId = :userId)")
     Page<Document> findAccessibleByUserId(@Param("userId") String userId, Pageable pageable);
 
+    /**
+     * Documents of an owner, their shares, and the last change of the owner and the users they are shared with.
+     * View counts are left out: the document part is then an index-only scan of (owner_id, updated_at), and
+     * views, which change on every read, do not invalidate every cached list.
+     */
+    @Query("SELECT COUNT(d) AS documents, MAX(d.updatedAt) AS lastUpdated, " +
+            "(SELECT COUNT(s) FROM DocumentShare s WHERE s.document.ownerId = :ownerId) AS shares, " +
+            "(SELECT MAX(s.createdAt) FROM DocumentShare s WHERE s.document.ownerId = :ownerId) AS lastShared, " +
+            "(SELECT MAX(u.updatedAt) FROM User u WHERE u.id = :ownerId OR u.id IN " +
+            "(SELECT s.sharedWithId FROM DocumentShare s WHERE s.document.ownerId = :ownerId)) AS lastUserUpdate " +
+            "FROM Document d WHERE d.ownerId = :ownerId")
+    OwnerVersion findOwnerVersion(@Param("ownerId") String ownerId);
+
     @Query("SELECT SUM(d.size) FROM Document d WHERE d.ownerId = :ownerId")
     Long sumSizeByOwnerId(@Param("ownerId") String ownerId);
+
+    /**
+     * Metadata of an owner's documents with an ID above {@code after}, in ID order, read through a cursor;
+     * consume inside a transaction
+     */
+    @Query("SELECT new com.halolight.web.dto.export.DocumentExportRow(d.id, d.title, d.folder, d.type, d.size, " +
+            "d.views, d.teamId, d.createdAt, d.updatedAt) " +
+            "FROM Document d WHERE d.ownerId = :ownerId AND d.id > :after ORDER BY d.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<DocumentExportRow> streamForExport(@Param("ownerId") String ownerId, @Param("after") String after);
 }
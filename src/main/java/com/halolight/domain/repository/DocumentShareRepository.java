@@ -1,31 +1,75 @@
 package com.halolight.domain.repository;
 
 import com.halolight.domain.entity.DocumentShare;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DocumentShareRepository extends JpaRepository<DocumentShare, String> {
 
+    /**
+     * Shares of a document and the last change of the users shown with it, as returned by
+     * {@link #findDocumentVersion}
+     */
+    interface DocumentVersion {
+        long getShares();
+
+        Instant getLastShared();
+
+        Instant getLastUserUpdate();
+    }
+
     List<DocumentShare> findByDocumentId(String documentId);
 
+    List<DocumentShare> findByDocumentIdIn(Collection<String> documentIds);
+
     List<DocumentShare> findBySharedWithId(String sharedWithId);
 
     List<DocumentShare> findByTeamId(String teamId);
 
+    /**
+     * Shares of the given documents, locked against concurrent changes until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT ds FROM DocumentShare ds WHERE ds.documentId IN :documentIds")
+    List<DocumentShare> findAndLockByDocumentIdIn(@Param("documentIds") Collection<String> documentIds);
+
+    /**
+     * Shared documents above {@code after}, in ID order, that have no entry in the access index
+     */
+    @Query("SELECT DISTINCT ds.documentId FROM DocumentShare ds WHERE ds.documentId > :after AND NOT EXISTS " +
+            "(SELECT 1 FROM DocumentAccess da WHERE da.id.documentId = ds.documentId) ORDER BY ds.documentId")
+    List<String> findUnindexedDocumentIds(@Param("after") String after, Pageable pageable);
+
     Optional<DocumentShare> findByDocumentIdAndSharedWithId(String documentId, String sharedWithId);
 
     Optional<DocumentShare> findByDocumentIdAndTeamId(String documentId, String teamId);
 
+    boolean existsByDocumentId(String documentId);
+
     boolean existsByDocumentIdAndSharedWithId(String documentId, String sharedWithId);
 
     boolean existsByDocumentIdAndTeamId(String documentId, String teamId);
 
     void deleteByDocumentId(String documentId);
 
+    @Query("SELECT COUNT(s) AS shares, MAX(s.createdAt) AS lastShared, " +
+            "(SELECT MAX(u.updatedAt) FROM User u WHERE u.id = :ownerId OR u.id IN " +
+            "(SELECT s2.sharedWithId FROM DocumentShare s2 WHERE s2.documentId = :documentId)) AS lastUserUpdate " +
+            "FROM DocumentShare s WHERE s.documentId = :documentId")
+    DocumentVersion findDocumentVersion(@Param("documentId") String documentId, @Param("ownerId") String ownerId);
+
     List<DocumentShare> findByExpiresAtBefore(Instant now);
+
+    List<DocumentShare> findByExpiresAtBefore(Instant now, Pageable pageable);
 }
@@ -3,23 +3,50 @@ package com.halolight.domain.repository;
 import com.halolight.domain.entity.EventAttendee;
 import com.halolight.domain.entity.enums.AttendeeStatus;
 import com.halolight.domain.entity.id.EventAttendeeId;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface EventAttendeeRepository extends JpaRepository<EventAttendee, EventAttendeeId> {
 
+    /**
+     * Attendees of an event with their users fetched in the same query.
+     */
+    @EntityGraph(attributePaths = "user")
     List<EventAttendee> findByIdEventId(String eventId);
 
+    /**
+     * Attendees of several events with their users, for mapping a page of events at once.
+     */
+    @EntityGraph(attributePaths = "user")
+    List<EventAttendee> findByIdEventIdIn(Collection<String> eventIds);
+
     List<EventAttendee> findByIdUserId(String userId);
 
     List<EventAttendee> findByIdEventIdAndStatus(String eventId, AttendeeStatus status);
 
     boolean existsByIdEventIdAndIdUserId(String eventId, String userId);
 
-    void deleteByIdEventId(String eventId);
+    /**
+     * Delete all attendees of an event in a single statement.
+     */
+    @Modifying
+    @Query("DELETE FROM EventAttendee ea WHERE ea.id.eventId = :eventId")
+    void deleteByIdEventId(@Param("eventId") String eventId);
+
+    /**
+     * Delete a single attendee without loading it first.
+     */
+    @Modifying
+    @Query("DELETE FROM EventAttendee ea WHERE ea.id.eventId = :eventId AND ea.id.userId = :userId")
+    int deleteByIdEventIdAndIdUserId(@Param("eventId") String eventId, @Param("userId") String userId);
 
     long countByIdEventId(String eventId);
 
@@ -0,0 +1,35 @@
+package com.halolight.domain.repository;
+
+import com.halolight.domain.entity.EventOccurrenceOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventOccurrenceOverrideRepository extends JpaRepository<EventOccurrenceOverride, String> {
+
+    Optional<EventOccurrenceOverride> findByEventIdAndOriginalStart(String eventId, Instant originalStart);
+
+    /**
+     * Overrides of the given series whose original or overridden start falls in [start, end)
+     */
+    @Query("SELECT o FROM EventOccurrenceOverride o WHERE o.eventId IN :eventIds AND (" +
+            "(o.originalStart >= :start AND o.originalStart < :end) OR " +
+            "(o.startTime >= :start AND o.startTime < :end))")
+    List<EventOccurrenceOverride> findByEventIdsInWindow(
+            @Param("eventIds") Collection<String> eventIds,
+            @Param("start") Instant start,
+            @Param("end") Instant end
+    );
+
+    @Modifying
+    @Query("DELETE FROM EventOccurrenceOverride o WHERE o.eventId = :eventId")
+    void deleteByEventId(@Param("eventId") String eventId);
+}
@@ -2,9 +2,13 @@ package com.halolight.domain.repository;
 
 import com.halolight.domain.entity.EventReminder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,9 +16,16 @@ public interface EventReminderRepository extends JpaRepository<EventReminder, St
 
     List<EventReminder> findByEventId(String eventId);
 
+    List<EventReminder> findByEventIdIn(Collection<String> eventIds);
+
     List<EventReminder> findBySentFalseAndRemindAtBefore(Instant now);
 
-    void deleteByEventId(String eventId);
+    /**
+     * Delete all reminders of an event in a single statement.
+     */
+    @Modifying
+    @Query("DELETE FROM EventReminder r WHERE r.eventId = :eventId")
+    void deleteByEventId(@Param("eventId") String eventId);
 
     long countByEventId(String eventId);
 }
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,14 @@ public interface MessageRepository extends JpaRepository<Message, String> {
 
     Optional<Message> findFirstByConversationIdOrderByCreatedAtDesc(String conversationId);
 
+    /**
+     * Latest message of each of the given conversations; a conversation may appear more than once if its
+     * latest messages share a timestamp.
+     */
+    @Query("SELECT m FROM Message m WHERE m.conversationId IN :conversationIds AND m.createdAt = " +
+            "(SELECT MAX(m2.createdAt) FROM Message m2 WHERE m2.conversationId = m.conversationId)")
+    List<Message> findLatestByConversationIds(@Param("conversationIds") Collection<String> conversationIds);
+
     long countByConversationId(String conversationId);
 
     @Query("SELECT COUNT(m) FROM Message m JOIN ConversationParticipant cp ON m.conversationId = cp.id.conversationId " +
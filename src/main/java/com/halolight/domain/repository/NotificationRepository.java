@@ -1,16 +1,21 @@
 package com.halolight.domain.repository;
 
 import com.halolight.domain.entity.Notification;
+import com.halolight.web.dto.export.NotificationExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, String> {
@@ -28,4 +33,23 @@ public interface NotificationRepository extends JpaRepository<Notification, Stri
     int markAllAsReadByUserId(@Param("userId") String userId, @Param("now") Instant now);
 
     void deleteByUserId(String userId);
+
+    @Query("SELECT n.id FROM Notification n WHERE n.userId = :userId")
+    List<String> findIdsByUserId(@Param("userId") String userId);
+
+    @Query("SELECT n.id FROM Notification n WHERE n.userId = :userId AND n.readAt = :readAt")
+    List<String> findIdsByUserIdAndReadAt(@Param("userId") String userId, @Param("readAt") Instant readAt);
+
+    /**
+     * A user's notifications with an ID above {@code after}, in ID order, read through a cursor; consume inside a
+     * transaction
+     */
+    @Query("SELECT new com.halolight.web.dto.export.NotificationExportRow(n.id, n.type, n.title, n.message, " +
+            "n.isRead, n.readAt, n.actionUrl, n.createdAt) " +
+            "FROM Notification n WHERE n.userId = :userId AND n.id > :after ORDER BY n.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<NotificationExportRow> streamForExport(@Param("userId") String userId, @Param("after") String after);
 }
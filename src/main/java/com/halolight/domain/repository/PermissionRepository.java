@@ -1,8 +1,11 @@
 package com.halolight.domain.repository;
 
 import com.halolight.domain.entity.Permission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -22,8 +25,16 @@ public interface PermissionRepository extends JpaRepository<Permission, String>
     List<Permission> findByRoleId(@Param("roleId") String roleId);
 
     @Query("SELECT DISTINCT p.resource FROM Permission p")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "permissionQueries")
+    })
     List<String> findAllResources();
 
     @Query("SELECT DISTINCT p.action FROM Permission p")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "permissionQueries")
+    })
     List<String> findAllActions();
 }
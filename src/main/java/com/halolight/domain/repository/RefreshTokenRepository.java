@@ -1,6 +1,7 @@
 package com.halolight.domain.repository;
 
 import com.halolight.domain.entity.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,15 +9,14 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
 
-    Optional<RefreshToken> findByToken(String token);
-
-    Optional<RefreshToken> findByTokenAndIsRevokedFalse(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
 
     List<RefreshToken> findByUserId(String userId);
 
@@ -27,12 +27,37 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Stri
     int revokeAllByUserId(@Param("userId") String userId);
 
     @Modifying
-    @Query("UPDATE RefreshToken r SET r.isRevoked = true WHERE r.token = :token")
-    int revokeByToken(@Param("token") String token);
+    @Query("UPDATE RefreshToken r SET r.isRevoked = true WHERE r.tokenHash = :tokenHash AND r.isRevoked = false")
+    int revokeByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Revoke the token if it is still usable; zero rows means it was revoked, rotated concurrently or expired.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.isRevoked = true " +
+            "WHERE r.tokenHash = :tokenHash AND r.isRevoked = false AND r.expiresAt > :now")
+    int revokeIfActive(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.isRevoked = true WHERE r.familyId = :familyId AND r.isRevoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
 
     @Modifying
     @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now OR r.isRevoked = true")
     int deleteExpiredOrRevoked(@Param("now") Instant now);
 
+    /**
+     * Expired tokens, and revoked tokens created before the retention cutoff
+     */
+    @Query("SELECT r.id FROM RefreshToken r WHERE r.expiresAt < :now " +
+            "OR (r.isRevoked = true AND r.createdAt < :revokedBefore)")
+    List<String> findPurgeableIds(@Param("now") Instant now,
+                                  @Param("revokedBefore") Instant revokedBefore,
+                                  Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+
     long countByUserIdAndIsRevokedFalse(String userId);
 }
@@ -1,9 +1,12 @@
 package com.halolight.domain.repository;
 
 import com.halolight.domain.entity.Role;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,17 @@ public interface RoleRepository extends JpaRepository<Role, String> {
     Optional<Role> findByName(String name);
 
     boolean existsByName(String name);
+
+    /**
+     * All roles with their permissions fetched in the same query.
+     */
+    @EntityGraph(attributePaths = {"permissions", "permissions.permission"})
+    @Query("SELECT r FROM Role r")
+    List<Role> findAllWithPermissions();
+
+    /**
+     * Load a role with its permissions, as needed to build a role response.
+     */
+    @EntityGraph(attributePaths = {"permissions", "permissions.permission"})
+    Optional<Role> findWithPermissionsById(String id);
 }
@@ -8,11 +8,25 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
 public interface StorageFileRepository extends JpaRepository<StorageFile, String> {
 
+    /**
+     * What the file list of an owner is built from, as returned by {@link #findOwnerVersion}
+     */
+    interface OwnerVersion {
+        long getFiles();
+
+        Instant getLastFileUpdate();
+
+        long getFolders();
+
+        Instant getLastFolderUpdate();
+    }
+
     Page<StorageFile> findByOwnerId(String ownerId, Pageable pageable);
 
     List<StorageFile> findByFolderId(String folderId);
@@ -32,8 +46,20 @@ public interface StorageFileRepository extends JpaRepository<StorageFile, String
             Pageable pageable
     );
 
+    /**
+     * Files and folders of an owner; files and subfolders always belong to the owner of their folder, so this
+     * also covers the item counts of the folders. Both halves are index-only scans of (owner_id, updated_at).
+     */
+    @Query("SELECT COUNT(f) AS files, MAX(f.updatedAt) AS lastFileUpdate, " +
+            "(SELECT COUNT(fo) FROM Folder fo WHERE fo.ownerId = :ownerId) AS folders, " +
+            "(SELECT MAX(fo.updatedAt) FROM Folder fo WHERE fo.ownerId = :ownerId) AS lastFolderUpdate " +
+            "FROM StorageFile f WHERE f.ownerId = :ownerId")
+    OwnerVersion findOwnerVersion(@Param("ownerId") String ownerId);
+
     @Query("SELECT SUM(f.size) FROM StorageFile f WHERE f.ownerId = :ownerId")
     Long sumSizeByOwnerId(@Param("ownerId") String ownerId);
 
     long countByFolderId(String folderId);
+
+    long countByTeamId(String teamId);
 }
@@ -0,0 +1,22 @@
+package com.halolight.domain.repository;
+
+import com.halolight.domain.entity.SyncChange;
+import com.halolight.domain.entity.id.SyncChangeId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface SyncChangeRepository extends JpaRepository<SyncChange, SyncChangeId> {
+
+    @Query("SELECT c FROM SyncChange c WHERE c.id.userId = :userId AND c.seq > :since ORDER BY c.seq")
+    List<SyncChange> findSince(@Param("userId") String userId, @Param("since") long since, Pageable pageable);
+
+    @Query("SELECT c FROM SyncChange c WHERE c.deleted = true AND c.changedAt < :before")
+    List<SyncChange> findTombstonesBefore(@Param("before") Instant before, Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package com.halolight.domain.repository;
+
+import com.halolight.domain.entity.SyncSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface SyncSequenceRepository extends JpaRepository<SyncSequence, String> {
+
+    /**
+     * Hand out the next {@code count} sequence numbers, locking the row until the transaction ends.
+     *
+     * @return 0 if the user has no sequence row yet
+     */
+    @Modifying
+    @Query("UPDATE SyncSequence s SET s.lastSeq = s.lastSeq + :count, s.updatedAt = :now WHERE s.userId = :userId")
+    int advance(@Param("userId") String userId, @Param("count") long count, @Param("now") Instant now);
+
+    @Query("SELECT s.lastSeq FROM SyncSequence s WHERE s.userId = :userId")
+    Optional<Long> findLastSeq(@Param("userId") String userId);
+
+    @Modifying
+    @Query("UPDATE SyncSequence s SET s.purgedSeq = :seq, s.updatedAt = :now " +
+            "WHERE s.userId = :userId AND s.purgedSeq < :seq")
+    int raisePurgedSeq(@Param("userId") String userId, @Param("seq") long seq, @Param("now") Instant now);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,8 @@ public interface TagRepository extends JpaRepository<Tag, String> {
 
     Optional<Tag> findByName(String name);
 
+    List<Tag> findByNameIn(Collection<String> names);
+
     boolean existsByName(String name);
 
     @Query("SELECT t FROM Tag t JOIN t.documents dt WHERE dt.document.id = :documentId")
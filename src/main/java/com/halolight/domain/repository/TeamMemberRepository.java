@@ -2,16 +2,31 @@ package com.halolight.domain.repository;
 
 import com.halolight.domain.entity.TeamMember;
 import com.halolight.domain.entity.id.TeamMemberId;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TeamMemberRepository extends JpaRepository<TeamMember, TeamMemberId> {
 
+    /**
+     * Member count of a team, as returned by {@link #countByTeamIds}
+     */
+    interface TeamMemberCount {
+        String getTeamId();
+
+        Long getMemberCount();
+    }
+
+    /**
+     * Members of a team with their users fetched in the same query.
+     */
+    @EntityGraph(attributePaths = "user")
     List<TeamMember> findByIdTeamId(String teamId);
 
     List<TeamMember> findByIdUserId(String userId);
@@ -23,5 +38,28 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, TeamMemb
     @Query("SELECT tm FROM TeamMember tm WHERE tm.team.id = :teamId AND tm.roleId = :roleId")
     List<TeamMember> findByTeamIdAndRoleId(@Param("teamId") String teamId, @Param("roleId") String roleId);
 
+    @Query("SELECT DISTINCT tm.id.userId FROM TeamMember tm WHERE tm.id.teamId IN :teamIds")
+    List<String> findUserIdsByTeamIds(@Param("teamIds") Collection<String> teamIds);
+
+    @Query("SELECT tm.id FROM TeamMember tm WHERE tm.id.teamId IN :teamIds")
+    List<TeamMemberId> findIdsByTeamIds(@Param("teamIds") Collection<String> teamIds);
+
+    @Query("SELECT tm.id.teamId FROM TeamMember tm WHERE tm.id.userId = :userId")
+    List<String> findTeamIdsByUserId(@Param("userId") String userId);
+
+    /**
+     * Which of the given users share at least one team with {@code userId}
+     */
+    @Query("SELECT DISTINCT tm.id.userId FROM TeamMember tm WHERE tm.id.userId IN :userIds AND tm.id.teamId IN " +
+            "(SELECT own.id.teamId FROM TeamMember own WHERE own.id.userId = :userId)")
+    List<String> findTeammatesAmong(@Param("userId") String userId, @Param("userIds") Collection<String> userIds);
+
     long countByIdTeamId(String teamId);
+
+    /**
+     * Member counts of several teams in one grouped query; teams without members are absent.
+     */
+    @Query("SELECT tm.id.teamId AS teamId, COUNT(tm) AS memberCount FROM TeamMember tm " +
+            "WHERE tm.id.teamId IN :teamIds GROUP BY tm.id.teamId")
+    List<TeamMemberCount> countByTeamIds(@Param("teamIds") Collection<String> teamIds);
 }
@@ -3,25 +3,61 @@ package com.halolight.domain.repository;
 import com.halolight.domain.entity.Team;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, String> {
 
+    /**
+     * What the team list of a user is built from, as returned by {@link #findMemberVersion}
+     */
+    interface MemberVersion {
+        long getTeams();
+
+        Instant getLastUpdated();
+
+        long getMembers();
+
+        Instant getLastJoined();
+
+        Instant getLastOwnerUpdate();
+    }
+
+    @EntityGraph(attributePaths = "owner")
     List<Team> findByOwnerId(String ownerId);
 
+    @EntityGraph(attributePaths = "owner")
     @Query("SELECT t FROM Team t JOIN t.members tm WHERE tm.user.id = :userId")
     List<Team> findByMemberId(@Param("userId") String userId);
 
+    @EntityGraph(attributePaths = "owner")
     @Query("SELECT t FROM Team t WHERE " +
             "(:search IS NULL OR LOWER(t.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
             "OR LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')))")
     Page<Team> findBySearch(@Param("search") String search, Pageable pageable);
 
+    /**
+     * Teams the user owns or belongs to, with their members and owners
+     */
+    @Query("SELECT COUNT(DISTINCT t.id) AS teams, MAX(t.updatedAt) AS lastUpdated, " +
+            "COUNT(tm) AS members, MAX(tm.joinedAt) AS lastJoined, MAX(o.updatedAt) AS lastOwnerUpdate " +
+            "FROM Team t JOIN t.owner o LEFT JOIN t.members tm WHERE t.ownerId = :userId OR t.id IN " +
+            "(SELECT m.id.teamId FROM TeamMember m WHERE m.id.userId = :userId)")
+    MemberVersion findMemberVersion(@Param("userId") String userId);
+
+    /**
+     * Load a team with its owner, as needed to build a team response.
+     */
+    @EntityGraph(attributePaths = "owner")
+    Optional<Team> findWithOwnerById(String id);
+
     boolean existsByName(String name);
 }
@@ -0,0 +1,54 @@
+package com.halolight.domain.repository;
+
+import com.halolight.domain.entity.UnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+@Repository
+public interface UnreadCounterRepository extends JpaRepository<UnreadCounter, String> {
+
+    /**
+     * Bump the message count of every participant of a conversation except the sender.
+     */
+    @Modifying
+    @Query("UPDATE UnreadCounter u SET u.messages = u.messages + 1, u.updatedAt = :now WHERE u.userId IN " +
+            "(SELECT cp.id.userId FROM ConversationParticipant cp " +
+            "WHERE cp.id.conversationId = :conversationId AND cp.id.userId <> :senderId)")
+    int incrementMessages(@Param("conversationId") String conversationId,
+                          @Param("senderId") String senderId,
+                          @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE UnreadCounter u SET u.messages = CASE WHEN u.messages + :delta < 0 THEN 0 " +
+            "ELSE u.messages + :delta END, u.updatedAt = :now WHERE u.userId = :userId")
+    int addMessages(@Param("userId") String userId, @Param("delta") long delta, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE UnreadCounter u SET u.notifications = CASE WHEN u.notifications + :delta < 0 THEN 0 " +
+            "ELSE u.notifications + :delta END, u.updatedAt = :now WHERE u.userId = :userId")
+    int addNotifications(@Param("userId") String userId, @Param("delta") long delta, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE UnreadCounter u SET u.notifications = 0, u.updatedAt = :now WHERE u.userId = :userId")
+    int resetNotifications(@Param("userId") String userId, @Param("now") Instant now);
+
+    @Query("SELECT COALESCE(SUM(cp.unreadCount), 0) FROM ConversationParticipant cp WHERE cp.id.userId = :userId")
+    long sumUnreadMessages(@Param("userId") String userId);
+
+    /**
+     * Recompute the given users' counter rows from the participant counts and the notifications table.
+     */
+    @Modifying
+    @Query("UPDATE UnreadCounter u SET " +
+            "u.messages = (SELECT COALESCE(SUM(cp.unreadCount), 0) FROM ConversationParticipant cp " +
+            "WHERE cp.id.userId = u.userId), " +
+            "u.notifications = (SELECT COUNT(n) FROM Notification n WHERE n.userId = u.userId AND n.isRead = false), " +
+            "u.updatedAt = :now WHERE u.userId IN :userIds")
+    int reconcile(@Param("userIds") Collection<String> userIds, @Param("now") Instant now);
+}
@@ -0,0 +1,24 @@
+package com.halolight.domain.repository;
+
+import com.halolight.domain.entity.UserImportError;
+import com.halolight.domain.entity.id.UserImportErrorId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserImportErrorRepository extends JpaRepository<UserImportError, UserImportErrorId> {
+
+    @Query("SELECT e FROM UserImportError e WHERE e.id.jobId = :jobId ORDER BY e.id.line")
+    List<UserImportError> findByJobId(@Param("jobId") String jobId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM UserImportError e WHERE e.id.jobId IN :jobIds")
+    int deleteByJobIdIn(@Param("jobIds") Collection<String> jobIds);
+}
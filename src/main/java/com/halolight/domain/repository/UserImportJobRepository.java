@@ -0,0 +1,70 @@
+package com.halolight.domain.repository;
+
+import com.halolight.domain.entity.UserImportJob;
+import com.halolight.domain.entity.enums.UserImportStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserImportJobRepository extends JpaRepository<UserImportJob, String> {
+
+    /**
+     * Move a job from one status to another, e.g. PENDING to RUNNING
+     *
+     * @return 0 if the job is no longer in status {@code from}, e.g. because it was failed as stale
+     */
+    @Modifying
+    @Query("UPDATE UserImportJob j SET j.status = :to, j.startedAt = COALESCE(j.startedAt, :now), " +
+            "j.updatedAt = :now WHERE j.id = :id AND j.status = :from")
+    int transition(@Param("id") String id, @Param("from") UserImportStatus from,
+                   @Param("to") UserImportStatus to, @Param("now") Instant now);
+
+    /**
+     * Add a batch to a running job's counters
+     *
+     * @return 0 if the job is no longer running
+     */
+    @Modifying
+    @Query("UPDATE UserImportJob j SET j.totalRows = j.totalRows + :total, " +
+            "j.importedRows = j.importedRows + :imported, j.failedRows = j.failedRows + :failed, " +
+            "j.updatedAt = :now WHERE j.id = :id AND j.status = com.halolight.domain.entity.enums.UserImportStatus.RUNNING")
+    int recordProgress(@Param("id") String id, @Param("total") long total, @Param("imported") long imported,
+                       @Param("failed") long failed, @Param("now") Instant now);
+
+    /**
+     * End a job that has not ended yet
+     */
+    @Modifying
+    @Query("UPDATE UserImportJob j SET j.status = :status, j.message = :message, j.finishedAt = :now, " +
+            "j.updatedAt = :now WHERE j.id = :id AND j.status IN " +
+            "(com.halolight.domain.entity.enums.UserImportStatus.PENDING, " +
+            "com.halolight.domain.entity.enums.UserImportStatus.RUNNING)")
+    int finish(@Param("id") String id, @Param("status") UserImportStatus status,
+               @Param("message") String message, @Param("now") Instant now);
+
+    /**
+     * Fail jobs whose instance stopped reporting progress, e.g. because it was shut down mid-import
+     */
+    @Modifying
+    @Query("UPDATE UserImportJob j SET j.status = com.halolight.domain.entity.enums.UserImportStatus.FAILED, " +
+            "j.message = :message, j.finishedAt = :now, j.updatedAt = :now WHERE j.status IN " +
+            "(com.halolight.domain.entity.enums.UserImportStatus.PENDING, " +
+            "com.halolight.domain.entity.enums.UserImportStatus.RUNNING) AND j.updatedAt < :staleBefore")
+    int failStale(@Param("staleBefore") Instant staleBefore, @Param("message") String message,
+                  @Param("now") Instant now);
+
+    @Query("SELECT j.id FROM UserImportJob j WHERE j.finishedAt < :before ORDER BY j.finishedAt")
+    List<String> findFinishedBefore(@Param("before") Instant before, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM UserImportJob j WHERE j.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+}
@@ -2,16 +2,22 @@ package com.halolight.domain.repository;
 
 import com.halolight.domain.entity.User;
 import com.halolight.domain.entity.enums.UserStatus;
+import com.halolight.web.dto.export.UserExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
@@ -22,12 +28,44 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     Optional<User> findByPhone(String phone);
 
+    @Query("SELECT u FROM User u WHERE u.email = :login OR u.username = :login")
+    List<User> findAllByEmailOrUsername(@Param("login") String login);
+
+    /**
+     * Resolve a login name in one query; an email match wins over another user's identical username.
+     */
+    default Optional<User> findByEmailOrUsername(String login) {
+        List<User> users = findAllByEmailOrUsername(login);
+        return users.stream()
+                .filter(user -> login.equals(user.getEmail()))
+                .findFirst()
+                .or(() -> users.stream().findFirst());
+    }
+
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
 
     boolean existsByPhone(String phone);
 
+    /**
+     * Which of the given usernames are taken; one query for a whole import batch
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.phone FROM User u WHERE u.phone IN :phones")
+    List<String> findExistingPhones(@Param("phones") Collection<String> phones);
+
+    /**
+     * The next page of user IDs above {@code after}, in ID order, for jobs that walk all users in chunks
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id > :after ORDER BY u.id")
+    List<String> findIdsAfter(@Param("after") String after, Pageable pageable);
+
     // Dashboard statistics queries
     long countByStatus(UserStatus status);
 
@@ -54,4 +92,20 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     @Query("SELECT u FROM User u JOIN u.roles ur WHERE ur.role.id = :roleId")
     Page<User> findByRoleId(@Param("roleId") String roleId, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.id IN " +
+            "(SELECT ds.sharedWithId FROM DocumentShare ds WHERE ds.documentId = :documentId)")
+    List<User> findSharedWithByDocumentId(@Param("documentId") String documentId);
+
+    /**
+     * Users with an ID above {@code after}, in ID order, read through a cursor; consume inside a transaction
+     */
+    @Query("SELECT new com.halolight.web.dto.export.UserExportRow(u.id, u.username, u.email, u.name, u.phone, " +
+            "u.status, u.department, u.position, u.lastLoginAt, u.createdAt, u.updatedAt) " +
+            "FROM User u WHERE u.id > :after ORDER BY u.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserExportRow> streamForExport(@Param("after") String after);
 }
@@ -0,0 +1,45 @@
+package com.halolight.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Version of a response body, read with a cheap aggregate query before the body itself is loaded. The parts, such
+ * as row counts and latest update times of the rows the body is built from, change whenever the body may change.
+ *
+ * @param lastModified When the body last changed, or null when no date can tell, e.g. a list whose rows can be
+ *                     deleted
+ * @param parts        Values the version is made of; nulls allowed
+ */
+public record ContentVersion(Instant lastModified, List<Object> parts) {
+
+    public static ContentVersion of(Object... parts) {
+        return new ContentVersion(null, Arrays.asList(parts));
+    }
+
+    public static ContentVersion lastModified(Instant lastModified, Object... parts) {
+        return new ContentVersion(lastModified, Arrays.asList(parts));
+    }
+
+    /**
+     * Weak entity tag: the body also carries a response timestamp, so equal versions are equivalent, not identical
+     *
+     * @param scope Whom the body was built for; the same version of another user's data gets another tag
+     */
+    public String eTag(String scope) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(parts.toString().getBytes(StandardCharsets.UTF_8));
+            return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.halolight.exception;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
+
 /**
  * Custom API exception with HTTP status code support
  */
@@ -12,6 +14,11 @@ public class ApiException extends RuntimeException {
     private final HttpStatus status;
     private final String code;
 
+    /**
+     * Sent as the {@code Retry-After} header when set
+     */
+    private Duration retryAfter;
+
     public ApiException(String message) {
         this(HttpStatus.INTERNAL_SERVER_ERROR, message);
     }
@@ -58,4 +65,14 @@ public class ApiException extends RuntimeException {
     public static ApiException internalError(String message) {
         return new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, message);
     }
+
+    public static ApiException serviceUnavailable(String message) {
+        return new ApiException(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+
+    public static ApiException serviceUnavailable(String message, Duration retryAfter) {
+        ApiException exception = new ApiException(HttpStatus.SERVICE_UNAVAILABLE, message);
+        exception.retryAfter = retryAfter;
+        return exception;
+    }
 }
@@ -5,7 +5,6 @@ import com.halolight.domain.entity.Role;
 import com.halolight.domain.entity.User;
 import com.halolight.domain.entity.UserRole;
 import com.halolight.domain.entity.enums.UserStatus;
-import com.halolight.domain.entity.id.UserRoleId;
 import com.halolight.domain.repository.RefreshTokenRepository;
 import com.halolight.domain.repository.RoleRepository;
 import com.halolight.domain.repository.UserRepository;
@@ -13,32 +12,63 @@ import com.halolight.dto.*;
 import com.halolight.exception.AuthenticationException;
 import com.halolight.exception.ResourceNotFoundException;
 import com.halolight.security.JwtTokenProvider;
-import lombok.RequiredArgsConstructor;
+import com.halolight.security.PasswordHasher;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 import java.time.Instant;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
  * Authentication service handling user login, registration, token refresh, and logout.
  * Uses the new domain structure with String IDs and domain entities.
+ * <p>
+ * Password hashing is slow on purpose and may queue for a hashing thread, so login and registration hash outside
+ * their transactions; a burst of sign-ins then waits for CPU without also holding database connections.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
     private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtTokenProvider jwtTokenProvider;
     private final UserService userService;
+    private final RoleService roleService;
+    private final TransactionTemplate transactionTemplate;
+
+    static final String DEFAULT_ROLE = "USER";
+
+    private volatile String defaultRoleId;
+
+    public AuthService(UserRepository userRepository,
+                       RefreshTokenRepository refreshTokenRepository,
+                       RoleRepository roleRepository,
+                       PasswordHasher passwordHasher,
+                       JwtTokenProvider jwtTokenProvider,
+                       UserService userService,
+                       RoleService roleService,
+                       PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.roleRepository = roleRepository;
+        this.passwordHasher = passwordHasher;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userService = userService;
+        this.roleService = roleService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     /**
      * Authenticates a user with username/email and password.
@@ -47,42 +77,52 @@ public class AuthService {
      * @return AuthResponse with access token, refresh token, and user info
      * @throws AuthenticationException if credentials are invalid or user is inactive
      */
-    @Transactional
     public AuthResponse login(LoginRequest loginRequest) {
         log.debug("Attempting login for user: {}", loginRequest.getUsernameOrEmail());
 
-        // Find user by username or email
-        User user = userRepository.findByEmail(loginRequest.getUsernameOrEmail())
-                .or(() -> userRepository.findByUsername(loginRequest.getUsernameOrEmail()))
+        // Find user by username or email; the lookup commits before the password is verified
+        User candidate = userRepository.findByEmailOrUsername(loginRequest.getUsernameOrEmail())
                 .orElseThrow(() -> new AuthenticationException("Invalid username/email or password"));
+        String verifiedHash = candidate.getPassword();
 
         // Verify password
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(loginRequest.getPassword(), verifiedHash)) {
             log.warn("Failed login attempt for user: {}", loginRequest.getUsernameOrEmail());
             throw new AuthenticationException("Invalid username/email or password");
         }
 
         // Check user status
-        if (user.getStatus() != UserStatus.ACTIVE) {
-            log.warn("Login attempt for inactive user: {}", user.getUsername());
+        if (candidate.getStatus() != UserStatus.ACTIVE) {
+            log.warn("Login attempt for inactive user: {}", candidate.getUsername());
             throw new AuthenticationException("Account is not active. Please contact support.");
         }
 
-        // Update last login timestamp
-        user.setLastLoginAt(Instant.now());
-        userRepository.save(user);
+        // Rehash with the current algorithm and cost while the raw password is at hand
+        String rehashed = passwordHasher.needsRehash(verifiedHash)
+                ? passwordHasher.encode(loginRequest.getPassword())
+                : null;
+
+        return transactionTemplate.execute(status -> {
+            // Usually served from the second-level cache; a password changed since verification invalidates this login
+            User user = userRepository.findById(candidate.getId())
+                    .filter(current -> verifiedHash.equals(current.getPassword()))
+                    .orElseThrow(() -> new AuthenticationException("Invalid username/email or password"));
+            if (rehashed != null) {
+                user.setPassword(rehashed);
+            }
 
-        // Generate tokens
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail());
-        String refreshTokenValue = jwtTokenProvider.generateRefreshToken(user.getId());
+            // Update last login timestamp
+            user.setLastLoginAt(Instant.now());
+            userRepository.save(user);
 
-        // Save refresh token to database
-        RefreshToken refreshToken = createRefreshToken(user.getId(), refreshTokenValue);
-        refreshTokenRepository.save(refreshToken);
+            // Generate tokens
+            String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail());
+            String refreshTokenValue = issueRefreshToken(user.getId(), null);
 
-        log.info("User logged in successfully: {}", user.getUsername());
+            log.info("User logged in successfully: {}", user.getUsername());
 
-        return buildAuthResponse(user, accessToken, refreshTokenValue);
+            return buildAuthResponse(user, accessToken, refreshTokenValue);
+        });
     }
 
     /**
@@ -92,67 +132,45 @@ public class AuthService {
      * @return AuthResponse with access token, refresh token, and user info
      * @throws AuthenticationException if username or email already exists
      */
-    @Transactional
     public AuthResponse register(RegisterRequest registerRequest) {
         log.debug("Attempting to register user: {}", registerRequest.getUsername());
 
-        // Check if username already exists
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
-            throw new AuthenticationException("Username is already taken");
-        }
-
-        // Check if email already exists
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            throw new AuthenticationException("Email is already in use");
-        }
-
-        // Check if phone already exists (if provided)
-        if (registerRequest.getPhone() != null && !registerRequest.getPhone().isBlank()) {
-            if (userRepository.existsByPhone(registerRequest.getPhone())) {
-                throw new AuthenticationException("Phone number is already in use");
+        String encodedPassword = passwordHasher.encode(registerRequest.getPassword());
+        String roleId = getDefaultRoleId();
+
+        return transactionTemplate.execute(status -> {
+            // Create new user with the default role; duplicates are caught by the unique constraints
+            User user = User.builder()
+                    .username(registerRequest.getUsername())
+                    .email(registerRequest.getEmail())
+                    .password(encodedPassword)
+                    .name(registerRequest.getName())
+                    .phone(StringUtils.hasText(registerRequest.getPhone()) ? registerRequest.getPhone() : null)
+                    .department(registerRequest.getDepartment())
+                    .position(registerRequest.getPosition())
+                    .status(UserStatus.ACTIVE)
+                    .roles(new LinkedHashSet<>())
+                    .build();
+
+            user.getRoles().add(UserRole.builder()
+                    .user(user)
+                    .role(roleRepository.getReferenceById(roleId))
+                    .build());
+
+            try {
+                user = userRepository.saveAndFlush(user);
+            } catch (DataIntegrityViolationException e) {
+                throw translateDuplicate(e);
             }
-        }
-
-        // Create new user
-        User user = User.builder()
-                .username(registerRequest.getUsername())
-                .email(registerRequest.getEmail())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
-                .name(registerRequest.getName())
-                .phone(registerRequest.getPhone())
-                .department(registerRequest.getDepartment())
-                .position(registerRequest.getPosition())
-                .status(UserStatus.ACTIVE)
-                .roles(new LinkedHashSet<>())
-                .build();
-
-        // Save user first to generate ID
-        user = userRepository.save(user);
-
-        // Assign default USER role
-        Role userRole = roleRepository.findByName("USER")
-                .orElseGet(() -> createDefaultUserRole());
 
-        UserRole userRoleEntity = UserRole.builder()
-                .id(new UserRoleId(user.getId(), userRole.getId()))
-                .user(user)
-                .role(userRole)
-                .build();
-
-        user.getRoles().add(userRoleEntity);
-        user = userRepository.save(user);
-
-        log.info("User registered successfully: {}", user.getUsername());
+            log.info("User registered successfully: {}", user.getUsername());
 
-        // Generate tokens
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail());
-        String refreshTokenValue = jwtTokenProvider.generateRefreshToken(user.getId());
-
-        // Save refresh token to database
-        RefreshToken refreshToken = createRefreshToken(user.getId(), refreshTokenValue);
-        refreshTokenRepository.save(refreshToken);
+            // Generate tokens
+            String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail());
+            String refreshTokenValue = issueRefreshToken(user.getId(), null);
 
-        return buildAuthResponse(user, accessToken, refreshTokenValue);
+            return buildAuthResponse(user, accessToken, refreshTokenValue);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -183,36 +201,37 @@ public class AuthService {
     }
 
     /**
-     * Refreshes the access token using a valid refresh token.
+     * Refreshes the access token using a valid refresh token. The presented token is rotated: it is revoked and
+     * a new one from the same family is issued. Presenting an already rotated token again means it leaked, so
+     * the whole family is revoked.
      *
      * @param refreshTokenValue the refresh token string
      * @return AuthResponse with new access token and refresh token
      * @throws AuthenticationException if refresh token is invalid, expired, or revoked
      */
-    @Transactional
+    @Transactional(noRollbackFor = AuthenticationException.class)
     public AuthResponse refreshToken(String refreshTokenValue) {
         log.debug("Attempting to refresh token");
 
-        // Validate token format
-        if (!jwtTokenProvider.validateToken(refreshTokenValue)) {
-            throw new AuthenticationException("Invalid refresh token");
-        }
-
-        // Get user ID from token
-        String userId = jwtTokenProvider.getUserIdFromToken(refreshTokenValue);
-
-        // Find refresh token in database
-        RefreshToken refreshToken = refreshTokenRepository.findByTokenAndIsRevokedFalse(refreshTokenValue)
-                .orElseThrow(() -> new AuthenticationException("Refresh token not found or has been revoked"));
+        String tokenHash = jwtTokenProvider.hashRefreshToken(refreshTokenValue);
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
+                .orElseThrow(() -> new AuthenticationException("Invalid refresh token"));
 
         // Check if token is expired
         if (refreshToken.getExpiresAt().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(refreshToken);
             throw new AuthenticationException("Refresh token has expired");
         }
 
+        // Revoke the old refresh token; losing this race to another request counts as reuse too
+        if (refreshToken.getIsRevoked() || refreshTokenRepository.revokeIfActive(tokenHash, Instant.now()) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+            log.warn("Reuse of revoked refresh token detected for user {}, revoked {} tokens of its family",
+                    refreshToken.getUserId(), revoked);
+            throw new AuthenticationException("Refresh token has been revoked");
+        }
+
         // Find user
-        User user = userRepository.findById(userId)
+        User user = userRepository.findById(refreshToken.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Check user status
@@ -220,17 +239,9 @@ public class AuthService {
             throw new AuthenticationException("Account is not active");
         }
 
-        // Revoke old refresh token
-        refreshToken.setIsRevoked(true);
-        refreshTokenRepository.save(refreshToken);
-
         // Generate new tokens
         String newAccessToken = jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail());
-        String newRefreshTokenValue = jwtTokenProvider.generateRefreshToken(user.getId());
-
-        // Save new refresh token
-        RefreshToken newRefreshToken = createRefreshToken(user.getId(), newRefreshTokenValue);
-        refreshTokenRepository.save(newRefreshToken);
+        String newRefreshTokenValue = issueRefreshToken(user.getId(), refreshToken.getFamilyId());
 
         log.info("Token refreshed successfully for user: {}", user.getUsername());
 
@@ -246,12 +257,9 @@ public class AuthService {
     public void logout(String refreshTokenValue) {
         log.debug("Attempting to logout user");
 
-        refreshTokenRepository.findByToken(refreshTokenValue)
-                .ifPresent(token -> {
-                    token.setIsRevoked(true);
-                    refreshTokenRepository.save(token);
-                    log.info("User logged out successfully");
-                });
+        if (refreshTokenRepository.revokeByTokenHash(jwtTokenProvider.hashRefreshToken(refreshTokenValue)) > 0) {
+            log.info("User logged out successfully");
+        }
     }
 
     /**
@@ -268,15 +276,21 @@ public class AuthService {
     }
 
     /**
-     * Creates a RefreshToken entity.
+     * Stores the hash of a new refresh token and returns the token itself.
+     *
+     * @param familyId family of the token being rotated, or null to start a new family at login
      */
-    private RefreshToken createRefreshToken(String userId, String tokenValue) {
-        return RefreshToken.builder()
+    private String issueRefreshToken(String userId, String familyId) {
+        String tokenValue = jwtTokenProvider.generateRefreshToken();
+        RefreshToken refreshToken = RefreshToken.builder()
                 .userId(userId)
-                .token(tokenValue)
+                .tokenHash(jwtTokenProvider.hashRefreshToken(tokenValue))
+                .familyId(familyId != null ? familyId : UUID.randomUUID().toString().replace("-", ""))
                 .expiresAt(Instant.now().plusMillis(jwtTokenProvider.getRefreshTokenExpiration()))
                 .isRevoked(false)
                 .build();
+        refreshTokenRepository.save(refreshToken);
+        return tokenValue;
     }
 
     /**
@@ -321,19 +335,38 @@ public class AuthService {
     }
 
     /**
-     * Creates a default USER role if it doesn't exist.
+     * Id of the USER role, looked up once; the role itself is attached as a reference without loading it.
+     * Resolved before the registration transaction, so creating a missing role commits on its own.
      */
-    private Role createDefaultUserRole() {
-        log.warn("USER role not found, creating default role");
-
-        Role role = Role.builder()
-                .name("USER")
-                .label("User")
-                .description("Default user role")
-                .permissions(new LinkedHashSet<>())
-                .users(new LinkedHashSet<>())
-                .build();
+    private String getDefaultRoleId() {
+        String roleId = defaultRoleId;
+        if (roleId == null) {
+            Role role;
+            try {
+                role = roleService.ensureRole(DEFAULT_ROLE, "User", "Default user role");
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent registration created the role first
+                role = roleService.ensureRole(DEFAULT_ROLE, "User", "Default user role");
+            }
+            roleId = role.getId();
+            defaultRoleId = roleId;
+        }
+        return roleId;
+    }
 
-        return roleRepository.save(role);
+    private RuntimeException translateDuplicate(DataIntegrityViolationException e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage()).toLowerCase();
+        if (message.contains(User.UK_USERNAME)) {
+            return new AuthenticationException("Username is already taken");
+        }
+        if (message.contains(User.UK_EMAIL)) {
+            return new AuthenticationException("Email is already in use");
+        }
+        if (message.contains(User.UK_PHONE)) {
+            return new AuthenticationException("Phone number is already in use");
+        }
+        // Not a duplicate user; the cached role may have been deleted
+        defaultRoleId = null;
+        return e;
     }
 }
@@ -2,6 +2,7 @@ package com.halolight.service;
 
 import com.halolight.domain.entity.CalendarEvent;
 import com.halolight.domain.entity.EventAttendee;
+import com.halolight.domain.entity.EventOccurrenceOverride;
 import com.halolight.domain.entity.EventReminder;
 import com.halolight.domain.entity.Team;
 import com.halolight.domain.entity.User;
@@ -9,23 +10,42 @@ import com.halolight.domain.entity.enums.AttendeeStatus;
 import com.halolight.domain.entity.id.EventAttendeeId;
 import com.halolight.domain.repository.CalendarEventRepository;
 import com.halolight.domain.repository.EventAttendeeRepository;
+import com.halolight.domain.repository.EventOccurrenceOverrideRepository;
 import com.halolight.domain.repository.EventReminderRepository;
+import com.halolight.domain.repository.TeamMemberRepository;
 import com.halolight.domain.repository.TeamRepository;
 import com.halolight.domain.repository.UserRepository;
 import com.halolight.web.dto.calendar.AttendeeRequest;
 import com.halolight.web.dto.calendar.CreateEventRequest;
 import com.halolight.web.dto.calendar.EventResponse;
+import com.halolight.web.dto.calendar.FreeBusyResponse;
+import com.halolight.web.dto.calendar.OccurrenceOverrideRequest;
 import com.halolight.web.dto.calendar.ReminderRequest;
 import com.halolight.web.dto.calendar.UpdateEventRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,51 +53,135 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CalendarService {
 
+    static final int MAX_FREE_BUSY_PARTICIPANTS = 500;
+    static final Duration MAX_FREE_BUSY_WINDOW = Duration.ofDays(92);
+
     private final CalendarEventRepository eventRepository;
     private final EventAttendeeRepository attendeeRepository;
     private final EventReminderRepository reminderRepository;
     private final UserRepository userRepository;
     private final TeamRepository teamRepository;
-
+    private final TeamMemberRepository teamMemberRepository;
+    private final EventOccurrenceOverrideRepository overrideRepository;
+    private final RecurrenceExpander recurrenceExpander;
+
+    /**
+     * Get the user's events. With a date range, recurring series are expanded into the occurrences that start
+     * within [start, end), with per-occurrence overrides applied; without one, series are returned as stored.
+     */
     @Transactional(readOnly = true)
     public List<EventResponse> getAllEvents(String userId, Instant start, Instant end) {
-        List<CalendarEvent> events;
+        if (start == null || end == null) {
+            return toEventResponses(eventRepository.findByOrganizerId(userId, Pageable.unpaged()).getContent());
+        }
 
-        if (start != null && end != null) {
-            events = eventRepository.findByUserIdAndDateRange(userId, start, end);
-        } else {
-            events = eventRepository.findByOrganizerId(userId, Pageable.unpaged()).getContent();
+        List<EventResponse> responses = toEventResponses(eventRepository.findByUserIdAndDateRange(userId, start, end));
+
+        List<CalendarEvent> series = eventRepository.findRecurringByUserIdAndDateRange(userId, start, end);
+        if (!series.isEmpty()) {
+            expandOccurrences(series, start, end, responses);
+            responses.sort(Comparator.comparing(EventResponse::getStartTime));
         }
+        return responses;
+    }
 
-        return events.stream()
-                .map(this::toEventResponse)
-                .collect(Collectors.toList());
+    /**
+     * Merged busy time of a set of users and team members within [start, end), plus the free gaps that are at
+     * least {@code minFree} long. Busy time comes from one projection query over events the participants
+     * organize or attend without having declined; recurring series are expanded within the window.
+     * Unless {@code admin}, the caller may only query teams they belong to and users sharing a team with them.
+     */
+    @Transactional(readOnly = true)
+    public FreeBusyResponse getFreeBusy(String callerId, boolean admin, Collection<String> userIds,
+                                        Collection<String> teamIds, Instant start, Instant end, Duration minFree) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (Duration.between(start, end).compareTo(MAX_FREE_BUSY_WINDOW) > 0) {
+            throw new IllegalArgumentException("Free/busy window cannot exceed " + MAX_FREE_BUSY_WINDOW.toDays() + " days");
+        }
+
+        if (!admin) {
+            checkFreeBusyAccess(callerId, userIds, teamIds);
+        }
+
+        Set<String> participants = new HashSet<>();
+        if (userIds != null) {
+            participants.addAll(userIds);
+        }
+        if (teamIds != null && !teamIds.isEmpty()) {
+            participants.addAll(teamMemberRepository.findUserIdsByTeamIds(teamIds));
+        }
+        if (participants.isEmpty()) {
+            throw new IllegalArgumentException("At least one user or team is required");
+        }
+        if (participants.size() > MAX_FREE_BUSY_PARTICIPANTS) {
+            throw new IllegalArgumentException("Free/busy supports at most " + MAX_FREE_BUSY_PARTICIPANTS + " participants");
+        }
+
+        long from = start.toEpochMilli();
+        long to = end.toEpochMilli();
+        List<CalendarEventRepository.BusyBlock> blocks = eventRepository.findBusyBlocks(participants, start, end);
+        IntervalMerger merger = new IntervalMerger(blocks.size());
+        List<CalendarEventRepository.BusyBlock> series = new ArrayList<>();
+        for (CalendarEventRepository.BusyBlock block : blocks) {
+            if (block.getRecurrenceRule() == null) {
+                merger.add(block.getStartTime().toEpochMilli(), block.getEndTime().toEpochMilli(), from, to);
+            } else {
+                series.add(block);
+            }
+        }
+        if (!series.isEmpty()) {
+            addRecurringBusy(series, from, to, merger);
+        }
+
+        long[] busy = merger.merge();
+        long minFreeMillis = minFree != null ? minFree.toMillis() : 0;
+        List<FreeBusyResponse.Interval> busyIntervals = new ArrayList<>(busy.length / 2);
+        List<FreeBusyResponse.Interval> freeIntervals = new ArrayList<>(busy.length / 2 + 1);
+        long cursor = from;
+        for (int i = 0; i < busy.length; i += 2) {
+            busyIntervals.add(toInterval(busy[i], busy[i + 1]));
+            if (busy[i] - cursor >= minFreeMillis && busy[i] > cursor) {
+                freeIntervals.add(toInterval(cursor, busy[i]));
+            }
+            cursor = busy[i + 1];
+        }
+        if (to - cursor >= minFreeMillis && to > cursor) {
+            freeIntervals.add(toInterval(cursor, to));
+        }
+
+        return FreeBusyResponse.builder()
+                .start(start)
+                .end(end)
+                .participantCount(participants.size())
+                .busy(busyIntervals)
+                .free(freeIntervals)
+                .build();
     }
 
     @Transactional(readOnly = true)
     public Page<EventResponse> getEventsByOrganizer(String organizerId, Pageable pageable) {
-        return eventRepository.findByOrganizerId(organizerId, pageable)
-                .map(this::toEventResponse);
+        Page<CalendarEvent> events = eventRepository.findByOrganizerId(organizerId, pageable);
+        return new PageImpl<>(toEventResponses(events.getContent()), pageable, events.getTotalElements());
     }
 
     @Transactional(readOnly = true)
     public Page<EventResponse> getEventsByTeam(String teamId, Pageable pageable) {
-        return eventRepository.findByTeamId(teamId, pageable)
-                .map(this::toEventResponse);
+        Page<CalendarEvent> events = eventRepository.findByTeamId(teamId, pageable);
+        return new PageImpl<>(toEventResponses(events.getContent()), pageable, events.getTotalElements());
     }
 
     @Transactional(readOnly = true)
     public List<EventResponse> getUpcomingEvents(int limit) {
         Instant now = Instant.now();
         Pageable pageable = Pageable.ofSize(limit);
-        return eventRepository.findUpcomingEvents(now, pageable).stream()
-                .map(this::toEventResponse)
-                .collect(Collectors.toList());
+        return toEventResponses(eventRepository.findUpcomingEvents(now, pageable));
     }
 
     @Transactional(readOnly = true)
     public EventResponse getEventById(String id) {
-        CalendarEvent event = eventRepository.findById(id)
+        CalendarEvent event = eventRepository.findWithOrganizerAndTeamById(id)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + id));
         return toEventResponse(event);
     }
@@ -99,31 +203,23 @@ public class CalendarService {
                 .color(request.getColor())
                 .organizerId(organizerId)
                 .teamId(request.getTeamId())
+                .organizer(organizer)
+                .team(findTeam(request.getTeamId()))
                 .build();
+        applyRecurrence(event, request.getRecurrenceRule(), request.getRecurrenceTimeZone());
 
         event = eventRepository.save(event);
         log.info("Created calendar event: {}", event.getId());
 
-        // Add attendees
-        if (request.getAttendees() != null && !request.getAttendees().isEmpty()) {
-            for (AttendeeRequest attendeeReq : request.getAttendees()) {
-                addAttendeeToEvent(event, attendeeReq);
-            }
-        }
-
-        // Add reminders
-        if (request.getReminders() != null && !request.getReminders().isEmpty()) {
-            for (ReminderRequest reminderReq : request.getReminders()) {
-                addReminderToEvent(event, reminderReq);
-            }
-        }
+        List<EventAttendee> attendees = insertAttendees(event, request.getAttendees());
+        List<EventReminder> reminders = insertReminders(event, request.getReminders());
 
-        return toEventResponse(eventRepository.findById(event.getId()).orElseThrow());
+        return toEventResponse(event, attendees, reminders);
     }
 
     @Transactional
     public EventResponse updateEvent(String id, String userId, UpdateEventRequest request) {
-        CalendarEvent event = eventRepository.findById(id)
+        CalendarEvent event = eventRepository.findWithOrganizerAndTeamById(id)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + id));
 
         // Verify user is organizer
@@ -153,30 +249,47 @@ public class CalendarService {
         if (request.getColor() != null) {
             event.setColor(request.getColor());
         }
-        if (request.getTeamId() != null) {
+        if (request.getTeamId() != null && !request.getTeamId().equals(event.getTeamId())) {
             event.setTeamId(request.getTeamId());
+            event.setTeam(findTeam(request.getTeamId()));
+        }
+
+        // Re-derive the series bounds; overrides keyed by the old occurrence starts no longer apply
+        if (request.getRecurrenceRule() != null || event.getRecurrenceRule() != null) {
+            String previousRule = event.getRecurrenceRule();
+            String previousTimeZone = event.getRecurrenceTimeZone();
+            applyRecurrence(event, request.getRecurrenceRule() != null
+                    ? request.getRecurrenceRule() : previousRule,
+                    request.getRecurrenceTimeZone() != null ? request.getRecurrenceTimeZone() : previousTimeZone);
+            if (previousRule != null && (request.getStartTime() != null
+                    || !Objects.equals(previousRule, event.getRecurrenceRule())
+                    || !Objects.equals(previousTimeZone, event.getRecurrenceTimeZone()))) {
+                overrideRepository.deleteByEventId(id);
+            }
         }
 
-        // Update attendees if provided
+        // Replace attendees if provided
+        List<EventAttendee> attendees;
         if (request.getAttendees() != null) {
             attendeeRepository.deleteByIdEventId(id);
-            for (AttendeeRequest attendeeReq : request.getAttendees()) {
-                addAttendeeToEvent(event, attendeeReq);
-            }
+            attendees = insertAttendees(event, request.getAttendees());
+        } else {
+            attendees = attendeeRepository.findByIdEventId(id);
         }
 
-        // Update reminders if provided
+        // Replace reminders if provided
+        List<EventReminder> reminders;
         if (request.getReminders() != null) {
             reminderRepository.deleteByEventId(id);
-            for (ReminderRequest reminderReq : request.getReminders()) {
-                addReminderToEvent(event, reminderReq);
-            }
+            reminders = insertReminders(event, request.getReminders());
+        } else {
+            reminders = reminderRepository.findByEventId(id);
         }
 
         event = eventRepository.save(event);
         log.info("Updated calendar event: {}", event.getId());
 
-        return toEventResponse(eventRepository.findById(event.getId()).orElseThrow());
+        return toEventResponse(event, attendees, reminders);
     }
 
     @Transactional
@@ -206,7 +319,7 @@ public class CalendarService {
 
     @Transactional
     public EventResponse rescheduleEvent(String id, String userId, Instant newStart, Instant newEnd) {
-        CalendarEvent event = eventRepository.findById(id)
+        CalendarEvent event = eventRepository.findWithOrganizerAndTeamById(id)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + id));
 
         // Verify user is organizer
@@ -216,6 +329,10 @@ public class CalendarService {
 
         event.setStartTime(newStart);
         event.setEndTime(newEnd);
+        if (event.getRecurrenceRule() != null) {
+            applyRecurrence(event, event.getRecurrenceRule(), event.getRecurrenceTimeZone());
+            overrideRepository.deleteByEventId(id);
+        }
 
         event = eventRepository.save(event);
         log.info("Rescheduled calendar event: {}", event.getId());
@@ -225,7 +342,7 @@ public class CalendarService {
 
     @Transactional
     public EventResponse addAttendees(String eventId, String userId, List<String> attendeeIds) {
-        CalendarEvent event = eventRepository.findById(eventId)
+        CalendarEvent event = eventRepository.findWithOrganizerAndTeamById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
 
         // Verify user is organizer
@@ -233,22 +350,23 @@ public class CalendarService {
             throw new RuntimeException("Only the organizer can add attendees");
         }
 
-        for (String attendeeId : attendeeIds) {
-            if (!attendeeRepository.existsByIdEventIdAndIdUserId(eventId, attendeeId)) {
-                AttendeeRequest request = AttendeeRequest.builder()
-                        .userId(attendeeId)
-                        .build();
-                addAttendeeToEvent(event, request);
-            }
-        }
+        List<EventAttendee> attendees = new ArrayList<>(attendeeRepository.findByIdEventId(eventId));
+        Set<String> existing = attendees.stream()
+                .map(attendee -> attendee.getId().getUserId())
+                .collect(Collectors.toSet());
+        List<AttendeeRequest> additions = attendeeIds.stream()
+                .filter(attendeeId -> !existing.contains(attendeeId))
+                .map(attendeeId -> AttendeeRequest.builder().userId(attendeeId).build())
+                .collect(Collectors.toList());
+        attendees.addAll(insertAttendees(event, additions));
 
         log.info("Added {} attendees to event: {}", attendeeIds.size(), eventId);
-        return toEventResponse(eventRepository.findById(eventId).orElseThrow());
+        return toEventResponse(event, attendees, reminderRepository.findByEventId(eventId));
     }
 
     @Transactional
     public EventResponse removeAttendee(String eventId, String userId, String attendeeId) {
-        CalendarEvent event = eventRepository.findById(eventId)
+        CalendarEvent event = eventRepository.findWithOrganizerAndTeamById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
 
         // Verify user is organizer
@@ -256,20 +374,21 @@ public class CalendarService {
             throw new RuntimeException("Only the organizer can remove attendees");
         }
 
-        EventAttendeeId id = new EventAttendeeId(eventId, attendeeId);
-        attendeeRepository.deleteById(id);
+        attendeeRepository.deleteByIdEventIdAndIdUserId(eventId, attendeeId);
 
         log.info("Removed attendee {} from event: {}", attendeeId, eventId);
-        return toEventResponse(eventRepository.findById(eventId).orElseThrow());
+        return toEventResponse(event);
     }
 
     @Transactional
     public EventResponse updateAttendeeStatus(String eventId, String attendeeUserId, AttendeeStatus newStatus) {
-        CalendarEvent event = eventRepository.findById(eventId)
+        CalendarEvent event = eventRepository.findWithOrganizerAndTeamById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
 
-        EventAttendeeId id = new EventAttendeeId(eventId, attendeeUserId);
-        EventAttendee attendee = attendeeRepository.findById(id)
+        List<EventAttendee> attendees = attendeeRepository.findByIdEventId(eventId);
+        EventAttendee attendee = attendees.stream()
+                .filter(candidate -> candidate.getId().getUserId().equals(attendeeUserId))
+                .findFirst()
                 .orElseThrow(() -> new RuntimeException("Attendee not found for event: " + eventId));
 
         // Update status
@@ -278,34 +397,324 @@ public class CalendarService {
         attendeeRepository.save(attendee);
 
         log.info("Updated attendee {} status to {} for event: {}", attendeeUserId, newStatus, eventId);
-        return toEventResponse(eventRepository.findById(eventId).orElseThrow());
+        return toEventResponse(event, attendees, reminderRepository.findByEventId(eventId));
     }
 
-    private void addAttendeeToEvent(CalendarEvent event, AttendeeRequest request) {
-        User user = userRepository.findById(request.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + request.getUserId()));
+    /**
+     * Cancel or override a single occurrence of a recurring event. Overriding with no changed fields restores
+     * the occurrence to the series defaults.
+     *
+     * @return The resulting occurrence, or null when it is cancelled
+     */
+    @Transactional
+    public EventResponse overrideOccurrence(String eventId, String userId, OccurrenceOverrideRequest request) {
+        CalendarEvent event = eventRepository.findWithOrganizerAndTeamById(eventId)
+                .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
 
-        EventAttendee attendee = EventAttendee.builder()
-                .event(event)
-                .user(user)
-                .status(request.getStatus())
-                .build();
+        if (!event.getOrganizerId().equals(userId)) {
+            throw new RuntimeException("Only the organizer can modify occurrences");
+        }
+        if (event.getRecurrenceRule() == null) {
+            throw new IllegalArgumentException("Event is not recurring: " + eventId);
+        }
 
-        attendeeRepository.save(attendee);
+        Instant originalStart = request.getOriginalStartTime();
+        if (!RecurrenceRule.parse(event.getRecurrenceRule()).isOccurrence(zoneOf(event.getRecurrenceTimeZone()),
+                event.getStartTime().toEpochMilli(), originalStart.toEpochMilli())) {
+            throw new IllegalArgumentException("No occurrence of event " + eventId + " starts at " + originalStart);
+        }
+
+        EventOccurrenceOverride override = overrideRepository.findByEventIdAndOriginalStart(eventId, originalStart)
+                .orElseGet(() -> EventOccurrenceOverride.builder()
+                        .eventId(eventId)
+                        .originalStart(originalStart)
+                        .build());
+        override.setCancelled(Boolean.TRUE.equals(request.getCancelled()));
+        override.setTitle(request.getTitle());
+        override.setDescription(request.getDescription());
+        override.setLocation(request.getLocation());
+        override.setStartTime(request.getStartTime());
+        override.setEndTime(request.getEndTime());
+
+        boolean restoresDefaults = !override.getCancelled() && override.getTitle() == null
+                && override.getDescription() == null && override.getLocation() == null
+                && override.getStartTime() == null && override.getEndTime() == null;
+        if (restoresDefaults) {
+            if (override.getId() != null) {
+                overrideRepository.delete(override);
+            }
+        } else {
+            overrideRepository.save(override);
+        }
+        log.info("{} occurrence {} of event: {}", override.getCancelled() ? "Cancelled" : "Overrode",
+                originalStart, eventId);
+
+        if (override.getCancelled()) {
+            return null;
+        }
+        long duration = event.getEndTime().toEpochMilli() - event.getStartTime().toEpochMilli();
+        return toOccurrenceResponse(toEventResponse(event), originalStart, duration, restoresDefaults ? null : override);
+    }
+
+    @Transactional
+    public void cancelOccurrence(String eventId, String userId, Instant originalStart) {
+        overrideOccurrence(eventId, userId, OccurrenceOverrideRequest.builder()
+                .originalStartTime(originalStart)
+                .cancelled(true)
+                .build());
+    }
+
+    private void checkFreeBusyAccess(String callerId, Collection<String> userIds, Collection<String> teamIds) {
+        if (teamIds != null && !teamIds.isEmpty()
+                && !new HashSet<>(teamMemberRepository.findTeamIdsByUserId(callerId)).containsAll(teamIds)) {
+            throw new AccessDeniedException("You can only view free/busy of teams you belong to");
+        }
+        if (userIds != null && !userIds.isEmpty()) {
+            Set<String> others = new HashSet<>(userIds);
+            others.remove(callerId);
+            if (!others.isEmpty() && !new HashSet<>(teamMemberRepository.findTeammatesAmong(callerId, others))
+                    .containsAll(others)) {
+                throw new AccessDeniedException("You can only view free/busy of users sharing a team with you");
+            }
+        }
+    }
+
+    private void applyRecurrence(CalendarEvent event, String rule, String timeZone) {
+        if (rule == null || rule.isBlank()) {
+            event.setRecurrenceRule(null);
+            event.setRecurrenceTimeZone(null);
+            event.setRecurrenceEnd(null);
+            return;
+        }
+        RecurrenceRule parsed = RecurrenceRule.parse(rule);
+        ZoneId zone = timeZone == null || timeZone.isBlank() ? null : zoneOf(timeZone);
+        long seriesStart = event.getStartTime().toEpochMilli();
+        long seriesEnd = parsed.seriesEnd(zone, seriesStart, event.getEndTime().toEpochMilli() - seriesStart);
+        event.setRecurrenceRule(parsed.toString());
+        event.setRecurrenceTimeZone(zone == null ? null : zone.getId());
+        event.setRecurrenceEnd(seriesEnd == Long.MAX_VALUE ? null : Instant.ofEpochMilli(seriesEnd));
+    }
+
+    private static ZoneId zoneOf(String timeZone) {
+        if (timeZone == null) {
+            return null;
+        }
+        try {
+            return ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid time zone: " + timeZone);
+        }
+    }
+
+    private void expandOccurrences(List<CalendarEvent> series, Instant start, Instant end, List<EventResponse> out) {
+        Map<String, Map<Instant, EventOccurrenceOverride>> overridesBySeries = new HashMap<>();
+        List<String> seriesIds = series.stream().map(CalendarEvent::getId).collect(Collectors.toList());
+        for (EventOccurrenceOverride override : overrideRepository.findByEventIdsInWindow(seriesIds, start, end)) {
+            overridesBySeries.computeIfAbsent(override.getEventId(), k -> new HashMap<>())
+                    .put(override.getOriginalStart(), override);
+        }
+
+        Map<String, EventResponse> bases = toEventResponses(series).stream()
+                .collect(Collectors.toMap(EventResponse::getId, Function.identity()));
+        long from = start.toEpochMilli();
+        long to = end.toEpochMilli();
+        for (CalendarEvent event : series) {
+            long seriesStart = event.getStartTime().toEpochMilli();
+            long duration = event.getEndTime().toEpochMilli() - seriesStart;
+            long[] occurrences = recurrenceExpander.expand(event.getRecurrenceRule(),
+                    event.getRecurrenceTimeZone(), seriesStart, from, to);
+            Map<Instant, EventOccurrenceOverride> overrides = overridesBySeries.getOrDefault(event.getId(), Map.of());
+            if (occurrences.length == 0 && overrides.isEmpty()) {
+                continue;
+            }
+
+            EventResponse base = bases.get(event.getId());
+            for (long occurrence : occurrences) {
+                Instant originalStart = Instant.ofEpochMilli(occurrence);
+                if (!overrides.containsKey(originalStart)) {
+                    out.add(toOccurrenceResponse(base, originalStart, duration, null));
+                }
+            }
+            // Overridden occurrences may have moved into or out of the window
+            for (EventOccurrenceOverride override : overrides.values()) {
+                if (override.getCancelled()) {
+                    continue;
+                }
+                EventResponse occurrence = toOccurrenceResponse(base, override.getOriginalStart(), duration, override);
+                if (!occurrence.getStartTime().isBefore(start) && occurrence.getStartTime().isBefore(end)) {
+                    out.add(occurrence);
+                }
+            }
+        }
+    }
+
+    private void addRecurringBusy(List<CalendarEventRepository.BusyBlock> series, long from, long to,
+                                  IntervalMerger merger) {
+        long maxDuration = 0;
+        List<String> seriesIds = new ArrayList<>(series.size());
+        for (CalendarEventRepository.BusyBlock block : series) {
+            seriesIds.add(block.getId());
+            maxDuration = Math.max(maxDuration, block.getEndTime().toEpochMilli() - block.getStartTime().toEpochMilli());
+        }
+
+        Map<String, Map<Instant, EventOccurrenceOverride>> overridesBySeries = new HashMap<>();
+        for (EventOccurrenceOverride override : overrideRepository.findByEventIdsInWindow(
+                seriesIds, Instant.ofEpochMilli(from - maxDuration), Instant.ofEpochMilli(to))) {
+            overridesBySeries.computeIfAbsent(override.getEventId(), k -> new HashMap<>())
+                    .put(override.getOriginalStart(), override);
+        }
+
+        for (CalendarEventRepository.BusyBlock block : series) {
+            long seriesStart = block.getStartTime().toEpochMilli();
+            long duration = block.getEndTime().toEpochMilli() - seriesStart;
+            Map<Instant, EventOccurrenceOverride> overrides = overridesBySeries.getOrDefault(block.getId(), Map.of());
+            // Occurrences starting up to one duration before the window still overlap it
+            long[] occurrences = recurrenceExpander.expand(block.getRecurrenceRule(), block.getRecurrenceTimeZone(),
+                    seriesStart, from - duration, to);
+            for (long occurrence : occurrences) {
+                if (overrides.isEmpty() || !overrides.containsKey(Instant.ofEpochMilli(occurrence))) {
+                    merger.add(occurrence, occurrence + duration, from, to);
+                }
+            }
+            for (EventOccurrenceOverride override : overrides.values()) {
+                if (override.getCancelled()) {
+                    continue;
+                }
+                long occurrenceStart = (override.getStartTime() != null
+                        ? override.getStartTime() : override.getOriginalStart()).toEpochMilli();
+                long occurrenceEnd = override.getEndTime() != null
+                        ? override.getEndTime().toEpochMilli() : occurrenceStart + duration;
+                merger.add(occurrenceStart, occurrenceEnd, from, to);
+            }
+        }
     }
 
-    private void addReminderToEvent(CalendarEvent event, ReminderRequest request) {
-        EventReminder reminder = EventReminder.builder()
-                .eventId(event.getId())
-                .remindAt(request.getRemindAt())
-                .type(request.getType())
-                .sent(false)
+    private static FreeBusyResponse.Interval toInterval(long start, long end) {
+        return FreeBusyResponse.Interval.builder()
+                .start(Instant.ofEpochMilli(start))
+                .end(Instant.ofEpochMilli(end))
                 .build();
+    }
 
-        reminderRepository.save(reminder);
+    private EventResponse toOccurrenceResponse(EventResponse base, Instant originalStart, long duration,
+                                               EventOccurrenceOverride override) {
+        EventResponse.EventResponseBuilder builder = base.toBuilder()
+                .originalStartTime(originalStart)
+                .startTime(originalStart)
+                .endTime(originalStart.plusMillis(duration));
+        if (override != null) {
+            if (override.getStartTime() != null) {
+                builder.startTime(override.getStartTime())
+                        .endTime(override.getEndTime() != null
+                                ? override.getEndTime() : override.getStartTime().plusMillis(duration));
+            } else if (override.getEndTime() != null) {
+                builder.endTime(override.getEndTime());
+            }
+            if (override.getTitle() != null) {
+                builder.title(override.getTitle());
+            }
+            if (override.getDescription() != null) {
+                builder.description(override.getDescription());
+            }
+            if (override.getLocation() != null) {
+                builder.location(override.getLocation());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Validate all requested attendees with one query and insert them as a single JDBC batch.
+     */
+    private List<EventAttendee> insertAttendees(CalendarEvent event, List<AttendeeRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Last request wins for duplicated user ids
+        Map<String, AttendeeRequest> requestsByUser = new LinkedHashMap<>();
+        for (AttendeeRequest request : requests) {
+            requestsByUser.put(request.getUserId(), request);
+        }
+        Map<String, User> users = userRepository.findAllById(requestsByUser.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        for (String attendeeId : requestsByUser.keySet()) {
+            if (!users.containsKey(attendeeId)) {
+                throw new RuntimeException("User not found with id: " + attendeeId);
+            }
+        }
+
+        List<EventAttendee> attendees = new ArrayList<>(requestsByUser.size());
+        for (AttendeeRequest request : requestsByUser.values()) {
+            attendees.add(EventAttendee.builder()
+                    .id(new EventAttendeeId(event.getId(), request.getUserId()))
+                    .event(event)
+                    .user(users.get(request.getUserId()))
+                    .status(request.getStatus())
+                    .build());
+        }
+        return attendeeRepository.saveAll(attendees);
+    }
+
+    private List<EventReminder> insertReminders(CalendarEvent event, List<ReminderRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<EventReminder> reminders = new ArrayList<>(requests.size());
+        for (ReminderRequest request : requests) {
+            reminders.add(EventReminder.builder()
+                    .eventId(event.getId())
+                    .remindAt(request.getRemindAt())
+                    .type(request.getType())
+                    .sent(false)
+                    .build());
+        }
+        return reminderRepository.saveAll(reminders);
+    }
+
+    private Team findTeam(String teamId) {
+        if (teamId == null) {
+            return null;
+        }
+        return teamRepository.findById(teamId)
+                .orElseThrow(() -> new RuntimeException("Team not found with id: " + teamId));
     }
 
     private EventResponse toEventResponse(CalendarEvent event) {
+        return toEventResponse(event, attendeeRepository.findByIdEventId(event.getId()),
+                reminderRepository.findByEventId(event.getId()));
+    }
+
+    /**
+     * Map a list of events, loading attendees (with users) and reminders for all of them with one query each.
+     * Organizer and team come from the entity graph of the query that loaded the events.
+     */
+    private List<EventResponse> toEventResponses(List<CalendarEvent> events) {
+        if (events.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<String> eventIds = events.stream().map(CalendarEvent::getId).collect(Collectors.toList());
+        Map<String, List<EventAttendee>> attendeesByEvent = attendeeRepository.findByIdEventIdIn(eventIds).stream()
+                .collect(Collectors.groupingBy(attendee -> attendee.getId().getEventId()));
+        Map<String, List<EventReminder>> remindersByEvent = reminderRepository.findByEventIdIn(eventIds).stream()
+                .collect(Collectors.groupingBy(EventReminder::getEventId));
+
+        List<EventResponse> responses = new ArrayList<>(events.size());
+        for (CalendarEvent event : events) {
+            responses.add(toEventResponse(event,
+                    attendeesByEvent.getOrDefault(event.getId(), List.of()),
+                    remindersByEvent.getOrDefault(event.getId(), List.of())));
+        }
+        return responses;
+    }
+
+    /**
+     * Map an event whose attendees (with users) and reminders are already loaded.
+     */
+    private EventResponse toEventResponse(CalendarEvent event, List<EventAttendee> eventAttendees,
+                                          List<EventReminder> eventReminders) {
         EventResponse.EventResponseBuilder builder = EventResponse.builder()
                 .id(event.getId())
                 .title(event.getTitle())
@@ -317,6 +726,9 @@ public class CalendarService {
                 .color(event.getColor())
                 .organizerId(event.getOrganizerId())
                 .teamId(event.getTeamId())
+                .recurrenceRule(event.getRecurrenceRule())
+                .recurrenceTimeZone(event.getRecurrenceTimeZone())
+                .recurrenceEnd(event.getRecurrenceEnd())
                 .createdAt(event.getCreatedAt())
                 .updatedAt(event.getUpdatedAt());
 
@@ -343,8 +755,7 @@ public class CalendarService {
         }
 
         // Map attendees
-        List<EventResponse.AttendeeInfo> attendees = attendeeRepository.findByIdEventId(event.getId())
-                .stream()
+        List<EventResponse.AttendeeInfo> attendees = eventAttendees.stream()
                 .map(attendee -> {
                     User user = attendee.getUser();
                     return EventResponse.AttendeeInfo.builder()
@@ -361,8 +772,7 @@ public class CalendarService {
         builder.attendees(attendees);
 
         // Map reminders
-        List<EventResponse.ReminderInfo> reminders = reminderRepository.findByEventId(event.getId())
-                .stream()
+        List<EventResponse.ReminderInfo> reminders = eventReminders.stream()
                 .map(reminder -> EventResponse.ReminderInfo.builder()
                         .id(reminder.getId())
                         .remindAt(reminder.getRemindAt())
@@ -0,0 +1,235 @@
+package com.halolight.service;
+
+import com.halolight.exception.ApiException;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent read-only queries of one request in parallel, in the spirit of {@code StructuredTaskScope}
+ * (still a preview API on the Java versions we target).
+ * <pre>
+ * try (ConcurrentQueries.Scope scope = concurrentQueries.open()) {
+ *     Supplier&lt;Long&gt; members = scope.fork(() -&gt; teamMemberRepository.countByIdTeamId(teamId));
+ *     Supplier&lt;Long&gt; documents = scope.fork(() -&gt; documentRepository.countByTeamId(teamId));
+ *     scope.join();
+ *     ...
+ * }
+ * </pre>
+ * Each subtask runs on a virtual thread in its own read-only transaction, with the caller's security context
+ * and tracing context. The first failure cancels the remaining subtasks and is rethrown from {@link Scope#join()};
+ * exceeding the deadline cancels everything and fails with 503.
+ * <p>
+ * Parallel subtasks draw on a budget shared by all requests ({@code app.fan-out.max-concurrency}), so fan-out
+ * cannot drain the connection pool. A subtask forked while the budget is used up runs right away on the caller's
+ * thread instead, so under load requests fall back to running their queries one after another rather than
+ * waiting for, or failing on, each other's permits.
+ * <p>
+ * Callers should not hold a transaction of their own while joining, since that pins one connection per request
+ * in addition to the ones used by the subtasks.
+ */
+@Component
+public class ConcurrentQueries {
+
+    private final TransactionTemplate readOnlyTemplate;
+    private final Semaphore permits;
+    private final Duration defaultDeadline;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("query-fanout-", 0).factory());
+    private final ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+
+    public ConcurrentQueries(PlatformTransactionManager transactionManager,
+                             @Value("${app.fan-out.max-concurrency:8}") int maxConcurrency,
+                             @Value("${app.fan-out.deadline:3s}") Duration defaultDeadline) {
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.readOnlyTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.permits = new Semaphore(maxConcurrency);
+        this.defaultDeadline = defaultDeadline;
+    }
+
+    /**
+     * Open a scope with the default deadline
+     */
+    public Scope open() {
+        return open(defaultDeadline);
+    }
+
+    /**
+     * @param deadline Time from now after which {@link Scope#join()} gives up
+     */
+    public Scope open(Duration deadline) {
+        return new Scope(System.nanoTime() + deadline.toNanos());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final long deadlineNanos;
+        private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private Scope(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Start a subtask, or run it inline when the fan-out budget is used up. The returned supplier may only be
+         * read after {@link #join()} returned normally.
+         */
+        public <T> Supplier<T> fork(Callable<T> task) {
+            Future<T> future = permits.tryAcquire() ? submit(task) : runInline(task);
+            futures.add(future);
+            return future::resultNow;
+        }
+
+        /**
+         * Wait for all subtasks. Rethrows the first failure, or fails with 503 once the deadline has passed;
+         * either way the remaining subtasks are cancelled.
+         */
+        public void join() {
+            try {
+                for (Future<?> future : futures) {
+                    future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+            } catch (TimeoutException e) {
+                cancelAll();
+                throw ApiException.serviceUnavailable("Request took too long, please retry");
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw ApiException.serviceUnavailable("Request was interrupted");
+            } catch (ExecutionException | CancellationException e) {
+                cancelAll();
+                // Fall through to rethrow the failure that caused the cancellation
+            }
+
+            Throwable cause = failure.get();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            if (cause != null) {
+                throw new IllegalStateException(cause);
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        /**
+         * Run the subtask on a virtual thread holding one permit, with the caller's security and tracing context.
+         * The permit is returned when the subtask ends, or when it is cancelled before it started.
+         */
+        private <T> Future<T> submit(Callable<T> task) {
+            ContextSnapshot snapshot = snapshotFactory.captureAll();
+            Callable<T> subtask = new DelegatingSecurityContextCallable<>(
+                    () -> runInTransaction(task), SecurityContextHolder.getContext());
+            AtomicBoolean started = new AtomicBoolean();
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            };
+            FutureTask<T> future = new FutureTask<>(() -> {
+                started.set(true);
+                try (ContextSnapshot.Scope ignored = snapshot.setThreadLocals()) {
+                    return subtask.call();
+                } catch (Exception | Error e) {
+                    if (failure.compareAndSet(null, e)) {
+                        cancelAll();
+                    }
+                    throw e;
+                } finally {
+                    release.run();
+                }
+            }) {
+                @Override
+                protected void done() {
+                    if (!started.get()) {
+                        release.run();
+                    }
+                }
+            };
+            try {
+                executor.execute(future);
+            } catch (RuntimeException e) {
+                release.run();
+                throw e;
+            }
+            return future;
+        }
+
+        /**
+         * Run the subtask now on the caller's thread; skipped once another subtask has failed
+         */
+        private <T> Future<T> runInline(Callable<T> task) {
+            FutureTask<T> future = new FutureTask<>(() -> runInTransaction(task));
+            if (failure.get() != null) {
+                future.cancel(false);
+                return future;
+            }
+            future.run();
+            if (future.state() == Future.State.FAILED && failure.compareAndSet(null, future.exceptionNow())) {
+                cancelAll();
+            }
+            return future;
+        }
+
+        private <T> T runInTransaction(Callable<T> task) {
+            TransactionTemplate template = new TransactionTemplate(
+                    readOnlyTemplate.getTransactionManager(), readOnlyTemplate);
+            // Query timeouts follow the remaining deadline
+            template.setTimeout((int) Math.max(1,
+                    TimeUnit.NANOSECONDS.toSeconds(deadlineNanos - System.nanoTime() + 999_999_999L)));
+            return template.execute(status -> {
+                try {
+                    return task.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+
+        private void cancelAll() {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -1,87 +1,111 @@
 package com.halolight.service;
 
+import com.halolight.config.CacheLoaders;
 import com.halolight.dto.ChartDataDTO;
 import com.halolight.dto.DashboardStatsDTO;
 import com.halolight.domain.entity.enums.UserStatus;
 import com.halolight.domain.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Service for dashboard statistics and charts.
- * Updated to use the new domain structure.
+ * <p>
+ * Results are cached with refresh-ahead ({@code app.cache.specs}): once an entry is a few minutes old, the next
+ * request still gets it while it is recomputed in the background, so expiry never sends concurrent requests to
+ * the database. Only the first request, or one after the entry expired unread, computes the result, once for all
+ * concurrent callers.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DashboardService {
 
     private final UserRepository userRepository;
+    private final ConcurrentQueries concurrentQueries;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public DashboardService(UserRepository userRepository,
+                            ConcurrentQueries concurrentQueries,
+                            PlatformTransactionManager transactionManager,
+                            CacheLoaders cacheLoaders) {
+        this.userRepository = userRepository;
+        this.concurrentQueries = concurrentQueries;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        cacheLoaders.register("dashboardStats", key -> calculateStats());
+        cacheLoaders.register("userRegistrationChart",
+                key -> readOnlyTransaction.execute(status -> buildUserRegistrationChart()));
+        cacheLoaders.register("userActivityChart",
+                key -> readOnlyTransaction.execute(status -> buildUserActivityChart()));
+    }
 
     /**
-     * Get dashboard statistics.
-     * Cached for 5 minutes to reduce database load.
+     * Get dashboard statistics; the counts run concurrently.
      */
-    @Cacheable(value = "dashboardStats", unless = "#result == null")
-    @Transactional(readOnly = true)
+    @Cacheable(value = "dashboardStats", sync = true)
     public DashboardStatsDTO getStats() {
-        log.debug("Calculating dashboard statistics");
+        return calculateStats();
+    }
 
-        long totalUsers = userRepository.count();
+    /**
+     * Get user registration chart data for the last 7 days.
+     */
+    @Cacheable(value = "userRegistrationChart", sync = true)
+    @Transactional(readOnly = true)
+    public ChartDataDTO getUserRegistrationChart() {
+        return buildUserRegistrationChart();
+    }
 
-        // Use a custom query or filter in memory for now
-        // This is a simplified version - you may want to add custom repository methods
-        long activeUsers = userRepository.findAll().stream()
-                .filter(user -> user.getStatus() == UserStatus.ACTIVE)
-                .count();
+    /**
+     * Get user activity chart data for the last 7 days.
+     */
+    @Cacheable(value = "userActivityChart", sync = true)
+    @Transactional(readOnly = true)
+    public ChartDataDTO getUserActivityChart() {
+        return buildUserActivityChart();
+    }
 
-        long inactiveUsers = totalUsers - activeUsers;
+    private DashboardStatsDTO calculateStats() {
+        log.debug("Calculating dashboard statistics");
 
         Instant now = Instant.now();
         Instant startOfDay = now.truncatedTo(ChronoUnit.DAYS);
         Instant startOfWeek = now.minus(7, ChronoUnit.DAYS);
         Instant startOfMonth = now.minus(30, ChronoUnit.DAYS);
 
-        // These would ideally be custom repository methods
-        long newUsersToday = userRepository.findAll().stream()
-                .filter(user -> user.getCreatedAt().isAfter(startOfDay))
-                .count();
-
-        long newUsersThisWeek = userRepository.findAll().stream()
-                .filter(user -> user.getCreatedAt().isAfter(startOfWeek))
-                .count();
-
-        long newUsersThisMonth = userRepository.findAll().stream()
-                .filter(user -> user.getCreatedAt().isAfter(startOfMonth))
-                .count();
-
-        return DashboardStatsDTO.builder()
-                .totalUsers(totalUsers)
-                .activeUsers(activeUsers)
-                .inactiveUsers(inactiveUsers)
-                .newUsersToday(newUsersToday)
-                .newUsersThisWeek(newUsersThisWeek)
-                .newUsersThisMonth(newUsersThisMonth)
-                .averageLoginPerUser(0.0) // Placeholder for future implementation
-                .totalSessions(0L) // Placeholder for future implementation
-                .build();
+        try (ConcurrentQueries.Scope scope = concurrentQueries.open()) {
+            Supplier<Long> totalUsers = scope.fork(userRepository::count);
+            Supplier<Long> activeUsers = scope.fork(() -> userRepository.countByStatus(UserStatus.ACTIVE));
+            Supplier<Long> newUsersToday = scope.fork(() -> userRepository.countByCreatedAtAfter(startOfDay));
+            Supplier<Long> newUsersThisWeek = scope.fork(() -> userRepository.countByCreatedAtAfter(startOfWeek));
+            Supplier<Long> newUsersThisMonth = scope.fork(() -> userRepository.countByCreatedAtAfter(startOfMonth));
+            scope.join();
+
+            return DashboardStatsDTO.builder()
+                    .totalUsers(totalUsers.get())
+                    .activeUsers(activeUsers.get())
+                    .inactiveUsers(totalUsers.get() - activeUsers.get())
+                    .newUsersToday(newUsersToday.get())
+                    .newUsersThisWeek(newUsersThisWeek.get())
+                    .newUsersThisMonth(newUsersThisMonth.get())
+                    .averageLoginPerUser(0.0) // Placeholder for future implementation
+                    .totalSessions(0L) // Placeholder for future implementation
+                    .build();
+        }
     }
 
-    /**
-     * Get user registration chart data for the last 7 days.
-     * Cached for 1 hour.
-     */
-    @Cacheable(value = "userRegistrationChart", unless = "#result == null")
-    @Transactional(readOnly = true)
-    public ChartDataDTO getUserRegistrationChart() {
+    private ChartDataDTO buildUserRegistrationChart() {
         log.debug("Generating user registration chart data");
 
         List<String> labels = new ArrayList<>();
@@ -115,13 +139,7 @@ public class DashboardService {
                 .build();
     }
 
-    /**
-     * Get user activity chart data for the last 7 days.
-     * Cached for 1 hour.
-     */
-    @Cacheable(value = "userActivityChart", unless = "#result == null")
-    @Transactional(readOnly = true)
-    public ChartDataDTO getUserActivityChart() {
+    private ChartDataDTO buildUserActivityChart() {
         log.debug("Generating user activity chart data");
 
         List<String> labels = new ArrayList<>();
@@ -0,0 +1,225 @@
+package com.halolight.service;
+
+import com.halolight.domain.entity.DocumentAccess;
+import com.halolight.domain.entity.DocumentShare;
+import com.halolight.domain.entity.enums.SharePermission;
+import com.halolight.domain.entity.id.DocumentAccessId;
+import com.halolight.domain.entity.id.TeamMemberId;
+import com.halolight.domain.repository.DocumentAccessRepository;
+import com.halolight.domain.repository.DocumentShareRepository;
+import com.halolight.domain.repository.TeamMemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code document_access}, the effective permission of every user a document is shared with, either
+ * directly or through one of their teams. Access checks become one primary key lookup and the shared-with-me
+ * listing one index scan instead of walking shares and team memberships.
+ * <p>
+ * Entries are recomputed from the shares and memberships of the affected documents, in the transaction that
+ * changed them, so the index never disagrees with the source tables after commit. Expired shares are ignored;
+ * an entry built from a share that has since expired is re-evaluated from the source tables until the
+ * expired-share sweep in {@link MaintenanceJobs} removes the share and refreshes the entry. Shared documents
+ * without any entry, e.g. after an upgrade or seeding, are indexed by a backfill job there as well.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentAccessIndex {
+
+    private static final String BACKFILL_SQL = "INSERT INTO document_access (document_id, user_id, permission, "
+            + "expires_at) VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final DocumentAccessRepository accessRepository;
+    private final DocumentShareRepository documentShareRepository;
+    private final TeamMemberRepository teamMemberRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Strongest permission the user holds through shares, empty when the document is not shared with them
+     */
+    public Optional<SharePermission> findPermission(String documentId, String userId) {
+        Optional<DocumentAccess> access = accessRepository.findById(new DocumentAccessId(documentId, userId));
+        if (access.isPresent() && isExpired(access.get().getExpiresAt(), Instant.now())) {
+            return resolve(documentId, userId);
+        }
+        return access.map(DocumentAccess::getPermission);
+    }
+
+    /**
+     * Recompute the entries of documents whose shares changed
+     */
+    @Transactional
+    public void refreshDocuments(Collection<String> documentIds) {
+        if (documentIds.isEmpty()) {
+            return;
+        }
+        Map<DocumentAccessId, Grant> desired = grants(documentShareRepository.findByDocumentIdIn(documentIds));
+        apply(accessRepository.findByIdDocumentIdIn(documentIds), desired);
+    }
+
+    /**
+     * Index the next shared documents above {@code afterDocumentId} that have no entries yet, in the caller's
+     * transaction. Their shares stay locked until it ends, so a share revoked meanwhile waits and then removes
+     * the entries written here; entries written meanwhile by {@link #refreshDocuments} are kept.
+     *
+     * @return The documents looked at, in ID order; some may still have no entries, e.g. when only expired
+     * shares or memberless teams reach them
+     */
+    public List<String> backfill(String afterDocumentId, int limit) {
+        List<String> documentIds = documentShareRepository.findUnindexedDocumentIds(
+                afterDocumentId, PageRequest.of(0, limit));
+        if (documentIds.isEmpty()) {
+            return documentIds;
+        }
+        List<Map.Entry<DocumentAccessId, Grant>> entries = new ArrayList<>(
+                grants(documentShareRepository.findAndLockByDocumentIdIn(documentIds)).entrySet());
+        jdbcTemplate.batchUpdate(BACKFILL_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.getKey().getDocumentId());
+            ps.setString(2, entry.getKey().getUserId());
+            Instant expiresAt = entry.getValue().expiresAt();
+            ps.setString(3, entry.getValue().permission().name());
+            ps.setTimestamp(4, expiresAt == null ? null : Timestamp.from(expiresAt));
+        });
+        return documentIds;
+    }
+
+    /**
+     * Strongest unexpired grant per user reached by the given shares, directly or through a team
+     */
+    private Map<DocumentAccessId, Grant> grants(List<DocumentShare> allShares) {
+        Instant now = Instant.now();
+        List<DocumentShare> shares = allShares.stream()
+                .filter(share -> !isExpired(share.getExpiresAt(), now))
+                .collect(Collectors.toList());
+        Set<String> teamIds = shares.stream()
+                .map(DocumentShare::getTeamId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<String, List<String>> membersByTeam = teamIds.isEmpty() ? Map.of()
+                : teamMemberRepository.findIdsByTeamIds(teamIds).stream()
+                .collect(Collectors.groupingBy(TeamMemberId::getTeamId,
+                        Collectors.mapping(TeamMemberId::getUserId, Collectors.toList())));
+
+        Map<DocumentAccessId, Grant> desired = new HashMap<>();
+        for (DocumentShare share : shares) {
+            List<String> userIds = share.getSharedWithId() != null
+                    ? List.of(share.getSharedWithId())
+                    : membersByTeam.getOrDefault(share.getTeamId(), List.of());
+            for (String userId : userIds) {
+                desired.merge(new DocumentAccessId(share.getDocumentId(), userId), Grant.of(share), Grant::merge);
+            }
+        }
+        return desired;
+    }
+
+    /**
+     * Recompute one user's entries after they joined or left a team, for the documents shared with that team
+     */
+    @Transactional
+    public void refreshMembership(String teamId, String userId) {
+        Set<String> documentIds = documentShareRepository.findByTeamId(teamId).stream()
+                .map(DocumentShare::getDocumentId)
+                .collect(Collectors.toSet());
+        if (documentIds.isEmpty()) {
+            return;
+        }
+        Set<String> userTeamIds = new HashSet<>(teamMemberRepository.findTeamIdsByUserId(userId));
+
+        Instant now = Instant.now();
+        Map<DocumentAccessId, Grant> desired = new HashMap<>();
+        for (DocumentShare share : documentShareRepository.findByDocumentIdIn(documentIds)) {
+            if (reaches(share, userId, userTeamIds) && !isExpired(share.getExpiresAt(), now)) {
+                desired.merge(new DocumentAccessId(share.getDocumentId(), userId), Grant.of(share), Grant::merge);
+            }
+        }
+        apply(accessRepository.findByIdUserIdAndIdDocumentIdIn(userId, documentIds), desired);
+    }
+
+    /**
+     * Evaluate access from the source tables, for entries whose shares may have expired
+     */
+    private Optional<SharePermission> resolve(String documentId, String userId) {
+        Instant now = Instant.now();
+        Set<String> userTeamIds = new HashSet<>(teamMemberRepository.findTeamIdsByUserId(userId));
+        return documentShareRepository.findByDocumentId(documentId).stream()
+                .filter(share -> reaches(share, userId, userTeamIds) && !isExpired(share.getExpiresAt(), now))
+                .map(DocumentShare::getPermission)
+                .reduce(DocumentAccessIndex::strongest);
+    }
+
+    private void apply(List<DocumentAccess> existing, Map<DocumentAccessId, Grant> desired) {
+        List<DocumentAccess> stale = new ArrayList<>();
+        for (DocumentAccess access : existing) {
+            Grant grant = desired.remove(access.getId());
+            if (grant == null) {
+                stale.add(access);
+            } else if (grant.permission() != access.getPermission()
+                    || !Objects.equals(grant.expiresAt(), access.getExpiresAt())) {
+                access.setPermission(grant.permission());
+                access.setExpiresAt(grant.expiresAt());
+            }
+        }
+        accessRepository.deleteAll(stale);
+        accessRepository.saveAll(desired.entrySet().stream()
+                .map(entry -> DocumentAccess.builder()
+                        .id(entry.getKey())
+                        .permission(entry.getValue().permission())
+                        .expiresAt(entry.getValue().expiresAt())
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    private static boolean reaches(DocumentShare share, String userId, Set<String> userTeamIds) {
+        return userId.equals(share.getSharedWithId())
+                || (share.getTeamId() != null && userTeamIds.contains(share.getTeamId()));
+    }
+
+    private static boolean isExpired(Instant expiresAt, Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    private static SharePermission strongest(SharePermission a, SharePermission b) {
+        return rank(a) >= rank(b) ? a : b;
+    }
+
+    private static int rank(SharePermission permission) {
+        return switch (permission) {
+            case READ -> 0;
+            case COMMENT -> 1;
+            case EDIT -> 2;
+        };
+    }
+
+    /**
+     * Strongest permission over a user's shares of a document, valid until the earliest of their expiries
+     */
+    private record Grant(SharePermission permission, Instant expiresAt) {
+
+        static Grant of(DocumentShare share) {
+            return new Grant(share.getPermission(), share.getExpiresAt());
+        }
+
+        Grant merge(Grant other) {
+            Instant earliest = expiresAt == null ? other.expiresAt
+                    : other.expiresAt == null ? expiresAt
+                    : expiresAt.isBefore(other.expiresAt) ? expiresAt : other.expiresAt;
+            return new Grant(strongest(permission, other.permission), earliest);
+        }
+    }
+}
@@ -6,13 +6,14 @@ import com.halolight.domain.entity.DocumentTag;
 import com.halolight.domain.entity.Tag;
 import com.halolight.domain.entity.TeamMember;
 import com.halolight.domain.entity.User;
+import com.halolight.domain.entity.enums.SharePermission;
+import com.halolight.domain.entity.enums.SyncEntityType;
 import com.halolight.domain.entity.id.DocumentTagId;
-import com.halolight.domain.entity.id.TeamMemberId;
 import com.halolight.domain.repository.DocumentRepository;
 import com.halolight.domain.repository.DocumentShareRepository;
 import com.halolight.domain.repository.TagRepository;
-import com.halolight.domain.repository.TeamMemberRepository;
 import com.halolight.domain.repository.UserRepository;
+import com.halolight.dto.ContentVersion;
 import com.halolight.dto.UserDTO;
 import com.halolight.dto.UserMapper;
 import com.halolight.web.dto.document.CreateDocumentRequest;
@@ -29,10 +30,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigInteger;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -46,8 +50,12 @@ public class DocumentService {
     private final DocumentShareRepository documentShareRepository;
     private final TagRepository tagRepository;
     private final UserRepository userRepository;
-    private final TeamMemberRepository teamMemberRepository;
     private final UserMapper userMapper;
+    private final ConcurrentQueries concurrentQueries;
+    private final DocumentViewCounter documentViewCounter;
+    private final DocumentAccessIndex documentAccessIndex;
+    private final TagResolver tagResolver;
+    private final SyncChangeLog syncChangeLog;
 
     /**
      * Get documents for a user with optional filtering
@@ -65,6 +73,37 @@ public class DocumentService {
         return documents.map(this::convertToResponse);
     }
 
+    /**
+     * Version of the documents a user owns, compared by conditional requests before loading
+     * {@link #getUserDocuments}; one version covers every filter and page. View counts are not part of it, so a
+     * revalidated list shows the counts of when it was loaded until a document or share changes.
+     *
+     * @param userId User ID
+     * @return Version of the user's document list
+     */
+    @Transactional(readOnly = true)
+    public ContentVersion getUserDocumentsVersion(String userId) {
+        DocumentRepository.OwnerVersion version = documentRepository.findOwnerVersion(userId);
+        return ContentVersion.of(version.getDocuments(), version.getLastUpdated(), version.getShares(),
+                version.getLastShared(), version.getLastUserUpdate());
+    }
+
+    /**
+     * Get the user's own documents among the given IDs, for delta sync; IDs of missing or foreign documents are
+     * skipped
+     *
+     * @param userId User ID
+     * @param ids    Document IDs
+     * @return Document responses
+     */
+    @Transactional(readOnly = true)
+    public List<DocumentResponse> getDocumentsByIds(String userId, Collection<String> ids) {
+        return documentRepository.findAllById(ids).stream()
+                .filter(document -> document.getOwnerId().equals(userId))
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Get documents shared with a user
      *
@@ -85,21 +124,55 @@ public class DocumentService {
      * @param userId     Current user ID
      * @return Document response
      */
-    @Transactional(readOnly = true)
     public DocumentResponse getDocument(String documentId, String userId) {
-        Document document = documentRepository.findById(documentId)
-                .orElseThrow(() -> new EntityNotFoundException("Document not found with id: " + documentId));
-
-        // Check if user has access to this document
-        if (!hasAccess(document, userId)) {
-            throw new AccessDeniedException("You do not have access to this document");
+        Document document = findReadableDocument(documentId, userId);
+
+        // Count the view; written to the database in batches
+        documentViewCounter.recordView(documentId);
+        document.setViews(document.getViews() + (int) documentViewCounter.pendingViews(documentId));
+
+        // Tags, shares and owner are independent, load them concurrently
+        try (ConcurrentQueries.Scope scope = concurrentQueries.open()) {
+            Supplier<List<String>> tags = scope.fork(() -> tagRepository.findByDocumentId(documentId).stream()
+                    .map(Tag::getName)
+                    .collect(Collectors.toList()));
+            Supplier<Boolean> shared = scope.fork(() -> documentShareRepository.existsByDocumentId(documentId));
+            Supplier<List<UserDTO>> collaborators = scope.fork(() -> userRepository.findSharedWithByDocumentId(documentId)
+                    .stream()
+                    .map(userMapper::toDTO)
+                    .collect(Collectors.toList()));
+            Supplier<UserDTO> owner = scope.fork(() -> userRepository.findById(document.getOwnerId())
+                    .map(userMapper::toDTO)
+                    .orElse(null));
+            scope.join();
+
+            return convertToResponse(document, tags.get(), shared.get(), collaborators.get(), owner.get());
         }
+    }
 
-        // Increment view count
-        document.setViews(document.getViews() + 1);
-        documentRepository.save(document);
+    /**
+     * Version of a document as returned by {@link #getDocument}, with the same access check. Views not written
+     * yet are left out, so the version changes once they are.
+     *
+     * @param documentId Document ID
+     * @param userId     Current user ID
+     * @return Document version
+     */
+    public ContentVersion getDocumentVersion(String documentId, String userId) {
+        Document document = findReadableDocument(documentId, userId);
+        DocumentShareRepository.DocumentVersion shares =
+                documentShareRepository.findDocumentVersion(documentId, document.getOwnerId());
+        return ContentVersion.of(document.getUpdatedAt(), document.getViews(), shares.getShares(),
+                shares.getLastShared(), shares.getLastUserUpdate());
+    }
 
-        return convertToResponse(document);
+    /**
+     * Count a view of a document whose copy the client revalidated instead of loading it again
+     *
+     * @param documentId Document ID
+     */
+    public void recordView(String documentId) {
+        documentViewCounter.recordView(documentId);
     }
 
     /**
@@ -131,6 +204,7 @@ public class DocumentService {
         if (request.getTags() != null && !request.getTags().isEmpty()) {
             updateDocumentTags(savedDocument, request.getTags());
         }
+        syncChangeLog.changed(ownerId, SyncEntityType.DOCUMENT, savedDocument.getId());
 
         return convertToResponse(savedDocument);
     }
@@ -174,6 +248,7 @@ public class DocumentService {
         if (request.getTags() != null) {
             updateDocumentTags(updatedDocument, request.getTags());
         }
+        syncChangeLog.changed(document.getOwnerId(), SyncEntityType.DOCUMENT, documentId);
 
         return convertToResponse(updatedDocument);
     }
@@ -196,9 +271,11 @@ public class DocumentService {
 
         // Remove all shares
         documentShareRepository.deleteByDocumentId(documentId);
+        documentAccessIndex.refreshDocuments(List.of(documentId));
 
         // Delete the document
         documentRepository.delete(document);
+        syncChangeLog.deleted(userId, SyncEntityType.DOCUMENT, documentId);
     }
 
     /**
@@ -249,6 +326,9 @@ public class DocumentService {
             }
         }
 
+        documentAccessIndex.refreshDocuments(List.of(documentId));
+        // The owner's copy lists the collaborators
+        syncChangeLog.changed(userId, SyncEntityType.DOCUMENT, documentId);
         return convertToResponse(document);
     }
 
@@ -276,6 +356,8 @@ public class DocumentService {
                         .ifPresent(documentShareRepository::delete);
             }
         }
+        documentAccessIndex.refreshDocuments(List.of(documentId));
+        syncChangeLog.changed(userId, SyncEntityType.DOCUMENT, documentId);
         return convertToResponse(document);
     }
 
@@ -291,6 +373,7 @@ public class DocumentService {
         }
         document.setTitle(newTitle);
         document = documentRepository.save(document);
+        syncChangeLog.changed(document.getOwnerId(), SyncEntityType.DOCUMENT, documentId);
         return convertToResponse(document);
     }
 
@@ -306,6 +389,7 @@ public class DocumentService {
         }
         document.setFolder(folder);
         document = documentRepository.save(document);
+        syncChangeLog.changed(document.getOwnerId(), SyncEntityType.DOCUMENT, documentId);
         return convertToResponse(document);
     }
 
@@ -319,7 +403,10 @@ public class DocumentService {
         if (!hasEditPermission(document, userId)) {
             throw new AccessDeniedException("You do not have permission to update tags for this document");
         }
+        // Tag rows have no timestamp of their own; the document's tells clients that its tags changed
+        document.setUpdatedAt(Instant.now());
         updateDocumentTags(document, tags);
+        syncChangeLog.changed(document.getOwnerId(), SyncEntityType.DOCUMENT, documentId);
         return convertToResponse(document);
     }
 
@@ -331,13 +418,17 @@ public class DocumentService {
         if (ids == null || ids.isEmpty()) {
             return;
         }
+        List<String> deleted = new ArrayList<>();
         for (String id : ids) {
             Document document = documentRepository.findById(id).orElse(null);
             if (document != null && document.getOwnerId().equals(userId)) {
                 documentShareRepository.deleteByDocumentId(id);
+                documentAccessIndex.refreshDocuments(List.of(id));
                 documentRepository.delete(document);
+                deleted.add(id);
             }
         }
+        syncChangeLog.deleted(userId, SyncEntityType.DOCUMENT, deleted);
     }
 
     /**
@@ -347,19 +438,20 @@ public class DocumentService {
      * @param tagNames List of tag names
      */
     private void updateDocumentTags(Document document, List<String> tagNames) {
-        // Remove existing tags
-        document.getTags().clear();
+        List<Tag> tags = tagResolver.resolve(tagNames);
+        Set<String> tagIds = tags.stream().map(Tag::getId).collect(Collectors.toSet());
 
-        // Add new tags
-        for (String tagName : tagNames) {
-            Tag tag = tagRepository.findByName(tagName)
-                    .orElseGet(() -> {
-                        Tag newTag = Tag.builder()
-                                .name(tagName)
-                                .build();
-                        return tagRepository.save(newTag);
-                    });
+        // Remove tags no longer wanted; kept ones stay as they are, re-adding them would clash with the removal
+        document.getTags().removeIf(dt -> !tagIds.contains(dt.getId().getTagId()));
+        Set<String> existing = document.getTags().stream()
+                .map(dt -> dt.getId().getTagId())
+                .collect(Collectors.toSet());
 
+        // Add new tags
+        for (Tag tag : tags) {
+            if (existing.contains(tag.getId())) {
+                continue;
+            }
             DocumentTagId documentTagId = new DocumentTagId();
             documentTagId.setDocumentId(document.getId());
             documentTagId.setTagId(tag.getId());
@@ -402,6 +494,11 @@ public class DocumentService {
                 .map(userMapper::toDTO)
                 .orElse(null);
 
+        return convertToResponse(document, tags, !shares.isEmpty(), collaborators, owner);
+    }
+
+    private DocumentResponse convertToResponse(Document document, List<String> tags, boolean shared,
+                                               List<UserDTO> collaborators, UserDTO owner) {
         return DocumentResponse.builder()
                 .id(document.getId())
                 .title(document.getTitle())
@@ -413,7 +510,7 @@ public class DocumentService {
                 .ownerId(document.getOwnerId())
                 .owner(owner)
                 .teamId(document.getTeamId())
-                .shared(!shares.isEmpty())
+                .shared(shared)
                 .tags(tags)
                 .collaborators(collaborators)
                 .createdAt(document.getCreatedAt())
@@ -421,6 +518,24 @@ public class DocumentService {
                 .build();
     }
 
+    /**
+     * Load a document the user may read
+     *
+     * @param documentId Document ID
+     * @param userId     User ID
+     * @return Document entity
+     */
+    private Document findReadableDocument(String documentId, String userId) {
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new EntityNotFoundException("Document not found with id: " + documentId));
+
+        // Check if user has access to this document
+        if (!hasAccess(document, userId)) {
+            throw new AccessDeniedException("You do not have access to this document");
+        }
+        return document;
+    }
+
     /**
      * Check if user has access to a document
      *
@@ -434,28 +549,8 @@ public class DocumentService {
             return true;
         }
 
-        // Check if document is shared directly with user
-        if (documentShareRepository.existsByDocumentIdAndSharedWithId(document.getId(), userId)) {
-            return true;
-        }
-
-        // Check if document is shared with any of user's teams
-        List<DocumentShare> teamShares = documentShareRepository.findByDocumentId(document.getId()).stream()
-                .filter(share -> share.getTeamId() != null)
-                .collect(Collectors.toList());
-
-        for (DocumentShare share : teamShares) {
-            // Check if user is a member of this team
-            TeamMemberId teamMemberId = new TeamMemberId();
-            teamMemberId.setTeamId(share.getTeamId());
-            teamMemberId.setUserId(userId);
-
-            if (teamMemberRepository.existsById(teamMemberId)) {
-                return true;
-            }
-        }
-
-        return false;
+        // Direct and team shares are resolved by the access index
+        return documentAccessIndex.findPermission(document.getId(), userId).isPresent();
     }
 
     /**
@@ -471,28 +566,9 @@ public class DocumentService {
             return true;
         }
 
-        // Check if user has EDIT permission via direct share
-        var directShare = documentShareRepository.findByDocumentIdAndSharedWithId(document.getId(), userId);
-        if (directShare.isPresent() && directShare.get().getPermission() == com.halolight.domain.entity.enums.SharePermission.EDIT) {
-            return true;
-        }
-
-        // Check if user has EDIT permission via team share
-        List<DocumentShare> teamShares = documentShareRepository.findByDocumentId(document.getId()).stream()
-                .filter(share -> share.getTeamId() != null && share.getPermission() == com.halolight.domain.entity.enums.SharePermission.EDIT)
-                .collect(Collectors.toList());
-
-        for (DocumentShare share : teamShares) {
-            // Check if user is a member of this team
-            TeamMemberId teamMemberId = new TeamMemberId();
-            teamMemberId.setTeamId(share.getTeamId());
-            teamMemberId.setUserId(userId);
-
-            if (teamMemberRepository.existsById(teamMemberId)) {
-                return true;
-            }
-        }
-
-        return false;
+        // Check if user has EDIT permission via a direct or team share
+        return documentAccessIndex.findPermission(document.getId(), userId)
+                .filter(permission -> permission == SharePermission.EDIT)
+                .isPresent();
     }
 }
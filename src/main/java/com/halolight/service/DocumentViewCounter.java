@@ -0,0 +1,86 @@
+package com.halolight.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind document view counts.
+ * <p>
+ * Opening a document only bumps an in-memory counter; dirty counters are flushed periodically as one JDBC batch
+ * of {@code UPDATE documents SET views = views + ?}, so readers of a popular document never wait on its row lock.
+ * A failed flush puts its deltas back for the next attempt and a graceful shutdown flushes once more.
+ * <p>
+ * Bounded loss: a crash loses the views counted since the last flush, at most
+ * {@code app.document-views.flush-interval} worth. An increment racing with the flush of the same document can
+ * also be dropped; both only affect the view statistic.
+ */
+@Slf4j
+@Component
+public class DocumentViewCounter {
+
+    private static final String INCREMENT_SQL = "UPDATE documents SET views = views + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public DocumentViewCounter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void recordView(String documentId) {
+        pending.computeIfAbsent(documentId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Views of the document not flushed yet
+     */
+    public long pendingViews(String documentId) {
+        LongAdder adder = pending.get(documentId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.document-views.flush-interval:5s}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Sorted ids keep lock order consistent between instances flushing at the same time
+        Map<String, Long> deltas = new TreeMap<>();
+        for (String id : pending.keySet()) {
+            LongAdder adder = pending.remove(id);
+            long views = adder != null ? adder.sum() : 0;
+            if (views > 0) {
+                deltas.put(id, views);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> batch.add(new Object[]{delta, id}));
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT_SQL, batch);
+            log.debug("Flushed view counts of {} documents", deltas.size());
+        } catch (RuntimeException e) {
+            log.warn("Flushing view counts of {} documents failed, retrying later: {}", deltas.size(), e.getMessage());
+            deltas.forEach((id, delta) -> pending.computeIfAbsent(id, key -> new LongAdder()).add(delta));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
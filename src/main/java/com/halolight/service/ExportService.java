@@ -0,0 +1,169 @@
+package com.halolight.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halolight.domain.repository.ActivityLogRepository;
+import com.halolight.domain.repository.DocumentRepository;
+import com.halolight.domain.repository.NotificationRepository;
+import com.halolight.domain.repository.UserRepository;
+import com.halolight.exception.ApiException;
+import com.halolight.web.dto.export.ActivityLogExportRow;
+import com.halolight.web.dto.export.DocumentExportRow;
+import com.halolight.web.dto.export.ExportFormat;
+import com.halolight.web.dto.export.NotificationExportRow;
+import com.halolight.web.dto.export.UserExportRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports of users, document metadata, activity logs and notifications as NDJSON or CSV.
+ * <p>
+ * Rows are read through a database cursor as DTO projections, so they never enter a persistence context, and are
+ * written to the response as they arrive; memory use does not grow with the export. The body is written on an
+ * async request thread inside a read-only transaction of its own, which routes to the replica. Rows come in ID
+ * order: a client whose download broke off resumes with {@code after} set to the last ID it received.
+ * <p>
+ * Each running export holds a connection and an open cursor for its whole duration, so at most
+ * {@code max-concurrent} run at once; further requests are refused with 503 and a {@code Retry-After} header
+ * instead of draining the pool.
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+    private final UserRepository userRepository;
+    private final DocumentRepository documentRepository;
+    private final ActivityLogRepository activityLogRepository;
+    private final NotificationRepository notificationRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int flushInterval;
+    private final Semaphore running;
+    private final Duration retryAfter;
+
+    public ExportService(UserRepository userRepository,
+                         DocumentRepository documentRepository,
+                         ActivityLogRepository activityLogRepository,
+                         NotificationRepository notificationRepository,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.export.flush-interval:500}") int flushInterval,
+                         @Value("${app.export.max-concurrent:4}") int maxConcurrent,
+                         @Value("${app.export.retry-after:30s}") Duration retryAfter) {
+        this.userRepository = userRepository;
+        this.documentRepository = documentRepository;
+        this.activityLogRepository = activityLogRepository;
+        this.notificationRepository = notificationRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.flushInterval = flushInterval;
+        this.running = new Semaphore(maxConcurrent);
+        this.retryAfter = retryAfter;
+    }
+
+    public StreamingResponseBody exportUsers(ExportFormat format, String after, boolean gzip) {
+        return body("users", format, UserExportRow.class, gzip,
+                () -> userRepository.streamForExport(cursor(after)));
+    }
+
+    public StreamingResponseBody exportDocuments(String ownerId, ExportFormat format, String after, boolean gzip) {
+        return body("documents", format, DocumentExportRow.class, gzip,
+                () -> documentRepository.streamForExport(ownerId, cursor(after)));
+    }
+
+    public StreamingResponseBody exportActivityLogs(ExportFormat format, String after, boolean gzip) {
+        return body("activity-logs", format, ActivityLogExportRow.class, gzip,
+                () -> activityLogRepository.streamForExport(cursor(after)));
+    }
+
+    public StreamingResponseBody exportNotifications(String userId, ExportFormat format, String after,
+                                                     boolean gzip) {
+        return body("notifications", format, NotificationExportRow.class, gzip,
+                () -> notificationRepository.streamForExport(userId, cursor(after)));
+    }
+
+    /**
+     * IDs are non-empty, so the empty string starts before all of them
+     */
+    private static String cursor(String after) {
+        return after == null ? "" : after;
+    }
+
+    /**
+     * Takes a slot on the request thread, so a refusal is an ordinary error response; the body gives it back when
+     * it ends, however it ends
+     */
+    private <T extends Record> StreamingResponseBody body(String name, ExportFormat format, Class<T> type,
+                                                          boolean gzip, Supplier<Stream<T>> rows) {
+        if (!running.tryAcquire()) {
+            log.warn("Refusing export of {}: the maximum number of exports is running", name);
+            throw ApiException.serviceUnavailable("Too many exports in progress, please retry later", retryAfter);
+        }
+        return out -> {
+            long started = System.nanoTime();
+            try {
+                GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 8192, true) : null;
+                OutputStream target = compressed != null ? compressed : out;
+                Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+                long count;
+                try {
+                    count = write(format, type, rows, writer);
+                    writer.flush();
+                    if (compressed != null) {
+                        compressed.finish();
+                    }
+                } catch (UncheckedIOException e) {
+                    log.info("Export of {} aborted after {} ms: {}", name, elapsedMillis(started),
+                            e.getCause().getMessage());
+                    throw e.getCause();
+                }
+                log.info("Exported {} {} as {} in {} ms", count, name, format, elapsedMillis(started));
+            } finally {
+                running.release();
+            }
+        };
+    }
+
+    private <T extends Record> long write(ExportFormat format, Class<T> type, Supplier<Stream<T>> rows,
+                                          Writer writer) {
+        Long count = readOnlyTransaction.execute(status -> {
+            try (Stream<T> stream = rows.get()) {
+                ExportWriter<T> exportWriter = new ExportWriter<>(format, type, objectMapper, writer);
+                long written = 0;
+                for (T row : (Iterable<T>) stream::iterator) {
+                    exportWriter.write(row);
+                    // Hand completed rows to the client instead of holding them until the end
+                    if (++written % flushInterval == 0) {
+                        writer.flush();
+                    }
+                }
+                return written;
+            } catch (IOException e) {
+                // Usually the client went away; stops reading and closes the cursor
+                throw new UncheckedIOException(e);
+            }
+        });
+        return count == null ? 0 : count;
+    }
+
+    private static long elapsedMillis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
@@ -0,0 +1,78 @@
+package com.halolight.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.halolight.web.dto.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+
+/**
+ * Writes records of one type as NDJSON or CSV, one line per record. CSV columns are the record components, in
+ * declaration order, under a header row of their names.
+ */
+class ExportWriter<T extends Record> {
+
+    private final ExportFormat format;
+    private final RecordComponent[] components;
+    private final ObjectWriter jsonWriter;
+    private final Writer out;
+
+    ExportWriter(ExportFormat format, Class<T> type, ObjectMapper objectMapper, Writer out) throws IOException {
+        this.format = format;
+        this.components = type.getRecordComponents();
+        this.jsonWriter = objectMapper.writerFor(type);
+        this.out = out;
+        if (format == ExportFormat.CSV) {
+            for (int i = 0; i < components.length; i++) {
+                writeCsvCell(i, components[i].getName());
+            }
+            out.write("\r\n");
+        }
+    }
+
+    void write(T row) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            out.write(jsonWriter.writeValueAsString(row));
+            out.write('\n');
+            return;
+        }
+        for (int i = 0; i < components.length; i++) {
+            Object value = valueOf(components[i], row);
+            if (value instanceof String text) {
+                writeCsvCell(i, text);
+            } else {
+                // Numbers, booleans, enums and ISO-8601 instants need neither quoting nor escaping
+                writeCsvCell(i, value == null ? "" : value.toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeCsvCell(int column, String value) throws IOException {
+        if (column > 0) {
+            out.write(',');
+        }
+        // A leading =, +, - or @ would make spreadsheets evaluate the cell as a formula
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static Object valueOf(RecordComponent component, Record row) {
+        try {
+            return component.getAccessor().invoke(row);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot read " + component.getName() + " of " + row.getClass(), e);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.halolight.service;
 
 import com.halolight.domain.entity.Folder;
 import com.halolight.domain.entity.StorageFile;
+import com.halolight.domain.entity.enums.SyncEntityType;
 import com.halolight.domain.repository.FolderRepository;
 import com.halolight.domain.repository.StorageFileRepository;
+import com.halolight.dto.ContentVersion;
 import com.halolight.web.dto.file.FileResponse;
 import com.halolight.web.dto.file.QueryFilesRequest;
 import com.halolight.web.dto.file.StorageStatsResponse;
@@ -21,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigInteger;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -35,6 +38,7 @@ public class FileService {
 
     private final StorageFileRepository fileRepository;
     private final FolderRepository folderRepository;
+    private final SyncChangeLog syncChangeLog;
 
     /**
      * Upload file (save metadata)
@@ -72,11 +76,24 @@ public class FileService {
                 .build();
 
         file = fileRepository.save(file);
+        syncChangeLog.changed(userId, SyncEntityType.FILE, file.getId());
+        syncChangeLog.changed(userId, SyncEntityType.FOLDER, file.getFolderId());
         log.info("Uploaded file: {} by user: {}", file.getId(), userId);
 
         return toFileResponse(file);
     }
 
+    /**
+     * Version of a user's files and folders, compared by conditional requests before loading {@link #getFiles};
+     * one version covers every filter and page
+     */
+    @Transactional(readOnly = true)
+    public ContentVersion getFilesVersion(String userId) {
+        StorageFileRepository.OwnerVersion version = fileRepository.findOwnerVersion(userId);
+        return ContentVersion.of(version.getFiles(), version.getLastFileUpdate(),
+                version.getFolders(), version.getLastFolderUpdate());
+    }
+
     /**
      * Get file list with pagination and filters
      */
@@ -135,6 +152,17 @@ public class FileService {
         return new PageImpl<>(paginatedItems, pageable, allItems.size());
     }
 
+    /**
+     * Get the user's files among the given IDs, for delta sync; IDs of missing or foreign files are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<FileResponse> getFilesByIds(String userId, Collection<String> ids) {
+        return fileRepository.findAllById(ids).stream()
+                .filter(file -> file.getOwnerId().equals(userId))
+                .map(this::toFileResponse)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Get file by ID
      */
@@ -185,6 +213,8 @@ public class FileService {
         }
 
         fileRepository.delete(file);
+        syncChangeLog.deleted(userId, SyncEntityType.FILE, id);
+        syncChangeLog.changed(userId, SyncEntityType.FOLDER, file.getFolderId());
         log.info("Deleted file: {} by user: {}", id, userId);
     }
 
@@ -231,8 +261,11 @@ public class FileService {
             file.setPath("/" + file.getName());
         }
 
+        // Both folders' file counts change
+        syncChangeLog.changed(userId, SyncEntityType.FOLDER, file.getFolderId(), targetFolderId);
         file.setFolderId(targetFolderId);
         file = fileRepository.save(file);
+        syncChangeLog.changed(userId, SyncEntityType.FILE, id);
         log.info("Moved file: {} to folder: {} by user: {}", id, targetFolderId, userId);
 
         return toFileResponse(file);
@@ -258,6 +291,7 @@ public class FileService {
         file.setName(newName);
         file.setPath(newPath);
         file = fileRepository.save(file);
+        syncChangeLog.changed(userId, SyncEntityType.FILE, id);
         log.info("Renamed file: {} to {} by user: {}", id, newName, userId);
 
         return toFileResponse(file);
@@ -299,6 +333,8 @@ public class FileService {
                 .build();
 
         copy = fileRepository.save(copy);
+        syncChangeLog.changed(userId, SyncEntityType.FILE, copy.getId());
+        syncChangeLog.changed(userId, SyncEntityType.FOLDER, targetFolderId);
         log.info("Copied file: {} to new file: {} by user: {}", id, copy.getId(), userId);
 
         return toFileResponse(copy);
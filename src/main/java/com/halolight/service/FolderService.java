@@ -2,6 +2,7 @@ package com.halolight.service;
 
 import com.halolight.domain.entity.Folder;
 import com.halolight.domain.entity.StorageFile;
+import com.halolight.domain.entity.enums.SyncEntityType;
 import com.halolight.domain.repository.FolderRepository;
 import com.halolight.domain.repository.StorageFileRepository;
 import com.halolight.web.dto.folder.CreateFolderRequest;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,6 +28,7 @@ public class FolderService {
 
     private final FolderRepository folderRepository;
     private final StorageFileRepository fileRepository;
+    private final SyncChangeLog syncChangeLog;
 
     /**
      * Create folder
@@ -55,6 +58,7 @@ public class FolderService {
                 .build();
 
         folder = folderRepository.save(folder);
+        syncChangeLog.changed(userId, SyncEntityType.FOLDER, folder.getId(), folder.getParentId());
         log.info("Created folder: {} by user: {}", folder.getId(), userId);
 
         return toFolderResponse(folder);
@@ -94,6 +98,17 @@ public class FolderService {
         return toFolderResponse(folder);
     }
 
+    /**
+     * Get the user's folders among the given IDs, for delta sync; IDs of missing or foreign folders are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<FolderResponse> getFoldersByIds(String userId, Collection<String> ids) {
+        return folderRepository.findAllById(ids).stream()
+                .filter(folder -> folder.getOwnerId().equals(userId))
+                .map(this::toFolderResponse)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Update folder
      */
@@ -131,11 +146,14 @@ public class FolderService {
                     throw new RuntimeException("Cannot move folder to its own descendant");
                 }
 
+                // Both parents' child counts change
+                syncChangeLog.changed(userId, SyncEntityType.FOLDER, folder.getParentId(), request.getParentId());
                 folder.setParentId(request.getParentId());
             }
         }
 
         folder = folderRepository.save(folder);
+        syncChangeLog.changed(userId, SyncEntityType.FOLDER, id);
         log.info("Updated folder: {} by user: {}", id, userId);
 
         return toFolderResponse(folder);
@@ -160,6 +178,7 @@ public class FolderService {
 
         folder.setName(newName);
         folder = folderRepository.save(folder);
+        syncChangeLog.changed(userId, SyncEntityType.FOLDER, id);
         log.info("Renamed folder: {} to {} by user: {}", id, newName, userId);
 
         return toFolderResponse(folder);
@@ -186,6 +205,8 @@ public class FolderService {
         }
 
         folderRepository.delete(folder);
+        syncChangeLog.deleted(userId, SyncEntityType.FOLDER, id);
+        syncChangeLog.changed(userId, SyncEntityType.FOLDER, folder.getParentId());
         log.info("Deleted folder: {} by user: {}", id, userId);
     }
 
@@ -0,0 +1,77 @@
+package com.halolight.service;
+
+import java.util.Arrays;
+
+/**
+ * Accumulates half-open [start, end) intervals in primitive arrays and merges them into disjoint blocks.
+ * Starts and ends are sorted independently and swept with an overlap counter, which yields the union in
+ * O(n log n) without allocating per interval. Touching intervals are merged into one block.
+ */
+public final class IntervalMerger {
+
+    private long[] starts;
+    private long[] ends;
+    private int size;
+
+    public IntervalMerger(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        this.starts = new long[capacity];
+        this.ends = new long[capacity];
+    }
+
+    /**
+     * Add an interval clipped to [{@code lower}, {@code upper}); empty results are ignored.
+     */
+    public void add(long start, long end, long lower, long upper) {
+        long clippedStart = Math.max(start, lower);
+        long clippedEnd = Math.min(end, upper);
+        if (clippedEnd <= clippedStart) {
+            return;
+        }
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = clippedStart;
+        ends[size] = clippedEnd;
+        size++;
+    }
+
+    /**
+     * Merge the accumulated intervals.
+     *
+     * @return Disjoint ascending blocks flattened as [start0, end0, start1, end1, ...]
+     */
+    public long[] merge() {
+        if (size == 0) {
+            return new long[0];
+        }
+        Arrays.sort(starts, 0, size);
+        Arrays.sort(ends, 0, size);
+
+        long[] blocks = new long[size * 2];
+        int n = 0;
+        int active = 0;
+        long blockStart = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size) {
+            if (starts[i] <= ends[j]) {
+                if (active++ == 0) {
+                    blockStart = starts[i];
+                }
+                i++;
+            } else {
+                if (--active == 0) {
+                    blocks[n++] = blockStart;
+                    blocks[n++] = ends[j];
+                }
+                j++;
+            }
+        }
+        // Every start is consumed, so the open block ends with the latest end
+        blocks[n++] = blockStart;
+        blocks[n++] = ends[size - 1];
+        return Arrays.copyOf(blocks, n);
+    }
+}
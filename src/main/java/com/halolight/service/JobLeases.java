@@ -0,0 +1,80 @@
+package com.halolight.service;
+
+import com.halolight.domain.entity.JobLease;
+import com.halolight.domain.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Cluster-wide mutual exclusion for background jobs, backed by one row per job in {@code job_leases}.
+ * A lease expires on its own, so a crashed instance blocks a job for at most one lease duration.
+ */
+@Slf4j
+@Component
+public class JobLeases {
+
+    private final JobLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private volatile String owner;
+
+    public JobLeases(JobLeaseRepository leaseRepository, PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        renewOwner();
+    }
+
+    /**
+     * Pick a new owner id. Instances restored from the same CRaC checkpoint would otherwise share one and all
+     * hold every lease at once; a lease held under the old id simply expires.
+     */
+    public void renewOwner() {
+        this.owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * @return Whether this instance now holds the lease for the given duration
+     */
+    public boolean tryAcquire(String job, Duration duration) {
+        if (!leaseRepository.existsById(job)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> leaseRepository.save(JobLease.builder()
+                        .name(job)
+                        .leasedUntil(Instant.EPOCH)
+                        .build()));
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently by another instance
+            }
+        }
+        Instant now = Instant.now();
+        Integer updated = transactionTemplate.execute(status ->
+                leaseRepository.tryAcquire(job, owner, now, now.plus(duration)));
+        return updated != null && updated == 1;
+    }
+
+    public void release(String job) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> leaseRepository.release(job, owner, Instant.now()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release lease {}, it expires on its own: {}", job, e.getMessage());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.halolight.service;
+
+import com.halolight.domain.entity.Document;
+import com.halolight.domain.entity.DocumentShare;
+import com.halolight.domain.entity.SyncChange;
+import com.halolight.domain.entity.enums.SyncEntityType;
+import com.halolight.domain.repository.DocumentRepository;
+import com.halolight.domain.repository.DocumentShareRepository;
+import com.halolight.domain.repository.RefreshTokenRepository;
+import com.halolight.domain.repository.SyncChangeRepository;
+import com.halolight.domain.repository.SyncSequenceRepository;
+import com.halolight.domain.repository.UserImportErrorRepository;
+import com.halolight.domain.repository.UserImportJobRepository;
+import com.halolight.domain.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Periodic cleanup of expired document shares, of expired or revoked refresh tokens, of old delta sync
+ * tombstones and of finished bulk user imports, reconciliation of unread counters and backfill of the document
+ * access index.
+ * <p>
+ * Each job runs on one instance at a time, guarded by a {@link JobLeases lease}. Rows are processed in chunks,
+ * each in its own short transaction, until a chunk comes back short or the lease is about to run out.
+ * Publishes {@code maintenance.job.duration} and {@code maintenance.rows.purged} (rows deleted, or users
+ * reconciled), tagged by job.
+ */
+@Slf4j
+@Component
+public class MaintenanceJobs {
+
+    static final String EXPIRED_SHARES = "purge-expired-shares";
+    static final String REFRESH_TOKENS = "purge-refresh-tokens";
+    static final String SYNC_TOMBSTONES = "purge-sync-tombstones";
+    static final String USER_IMPORTS = "purge-user-imports";
+    static final String UNREAD_COUNTERS = "reconcile-unread-counters";
+    static final String DOCUMENT_ACCESS = "backfill-document-access";
+
+    private final DocumentShareRepository documentShareRepository;
+    private final DocumentRepository documentRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SyncChangeRepository syncChangeRepository;
+    private final SyncSequenceRepository syncSequenceRepository;
+    private final UserImportJobRepository userImportJobRepository;
+    private final UserImportErrorRepository userImportErrorRepository;
+    private final UserRepository userRepository;
+    private final DocumentAccessIndex documentAccessIndex;
+    private final UnreadCounterService unreadCounterService;
+    private final SyncChangeLog syncChangeLog;
+    private final JobLeases jobLeases;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final Duration leaseDuration;
+    private final Duration revokedTokenRetention;
+    private final Duration syncTombstoneRetention;
+    private final Duration userImportStaleAfter;
+    private final Duration userImportRetention;
+    /**
+     * Last user whose unread counters were reconciled, empty at the start of a pass
+     */
+    private volatile String unreadCountersCursor = "";
+    /**
+     * Last shared document looked at by the access index backfill, empty at the start of a pass
+     */
+    private volatile String documentAccessCursor = "";
+
+    public MaintenanceJobs(DocumentShareRepository documentShareRepository,
+                           DocumentRepository documentRepository,
+                           RefreshTokenRepository refreshTokenRepository,
+                           SyncChangeRepository syncChangeRepository,
+                           SyncSequenceRepository syncSequenceRepository,
+                           UserImportJobRepository userImportJobRepository,
+                           UserImportErrorRepository userImportErrorRepository,
+                           UserRepository userRepository,
+                           DocumentAccessIndex documentAccessIndex,
+                           UnreadCounterService unreadCounterService,
+                           SyncChangeLog syncChangeLog,
+                           JobLeases jobLeases,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.maintenance.chunk-size:500}") int chunkSize,
+                           @Value("${app.maintenance.lease-duration:5m}") Duration leaseDuration,
+                           @Value("${app.maintenance.revoked-token-retention:1d}") Duration revokedTokenRetention,
+                           @Value("${app.maintenance.sync-tombstone-retention:30d}") Duration syncTombstoneRetention,
+                           @Value("${app.user-import.stale-after:10m}") Duration userImportStaleAfter,
+                           @Value("${app.user-import.retention:7d}") Duration userImportRetention) {
+        this.documentShareRepository = documentShareRepository;
+        this.documentRepository = documentRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.syncChangeRepository = syncChangeRepository;
+        this.syncSequenceRepository = syncSequenceRepository;
+        this.userImportJobRepository = userImportJobRepository;
+        this.userImportErrorRepository = userImportErrorRepository;
+        this.userRepository = userRepository;
+        this.documentAccessIndex = documentAccessIndex;
+        this.unreadCounterService = unreadCounterService;
+        this.syncChangeLog = syncChangeLog;
+        this.jobLeases = jobLeases;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.leaseDuration = leaseDuration;
+        this.revokedTokenRetention = revokedTokenRetention;
+        this.syncTombstoneRetention = syncTombstoneRetention;
+        this.userImportStaleAfter = userImportStaleAfter;
+        this.userImportRetention = userImportRetention;
+    }
+
+    /**
+     * Delete shares past their expiry, drop the access they granted from the access index and record the change
+     * of the documents for their owners' delta sync
+     */
+    @Scheduled(fixedDelayString = "${app.maintenance.expired-shares-interval:1m}", initialDelayString = "30s")
+    public void purgeExpiredShares() {
+        run(EXPIRED_SHARES, () -> transactionTemplate.execute(status -> {
+            List<DocumentShare> expired = documentShareRepository.findByExpiresAtBefore(
+                    Instant.now(), PageRequest.of(0, chunkSize));
+            if (expired.isEmpty()) {
+                return 0;
+            }
+            Set<String> documentIds = expired.stream()
+                    .map(DocumentShare::getDocumentId)
+                    .collect(Collectors.toSet());
+            documentShareRepository.deleteAllInBatch(expired);
+            documentAccessIndex.refreshDocuments(documentIds);
+            documentRepository.findAllById(documentIds).stream()
+                    .collect(Collectors.groupingBy(Document::getOwnerId,
+                            Collectors.mapping(Document::getId, Collectors.toList())))
+                    .forEach((ownerId, ids) -> syncChangeLog.changed(ownerId, SyncEntityType.DOCUMENT, ids));
+            return expired.size();
+        }));
+    }
+
+    /**
+     * Delete expired refresh tokens, and revoked ones once the retention window has passed
+     */
+    @Scheduled(fixedDelayString = "${app.maintenance.refresh-tokens-interval:1h}", initialDelayString = "1m")
+    public void purgeRefreshTokens() {
+        run(REFRESH_TOKENS, () -> transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<String> ids = refreshTokenRepository.findPurgeableIds(
+                    now, now.minus(revokedTokenRetention), PageRequest.of(0, chunkSize));
+            return ids.isEmpty() ? 0 : refreshTokenRepository.deleteByIdIn(ids);
+        }));
+    }
+
+    /**
+     * Delete delta sync tombstones past the retention window. Tokens older than a purged tombstone would miss its
+     * delete, so the user's purged mark is raised first and such tokens get a reset instead of changes.
+     */
+    @Scheduled(fixedDelayString = "${app.maintenance.sync-tombstones-interval:1h}", initialDelayString = "2m")
+    public void purgeSyncTombstones() {
+        run(SYNC_TOMBSTONES, () -> transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<SyncChange> tombstones = syncChangeRepository.findTombstonesBefore(
+                    now.minus(syncTombstoneRetention), PageRequest.of(0, chunkSize));
+            if (tombstones.isEmpty()) {
+                return 0;
+            }
+            Map<String, Long> purgedSeqs = tombstones.stream()
+                    .collect(Collectors.toMap(change -> change.getId().getUserId(), SyncChange::getSeq, Math::max));
+            purgedSeqs.forEach((userId, seq) -> syncSequenceRepository.raisePurgedSeq(userId, seq, now));
+            syncChangeRepository.deleteAllInBatch(tombstones);
+            return tombstones.size();
+        }));
+    }
+
+    /**
+     * Fail user imports whose instance stopped reporting progress, then delete imports and their rejected rows
+     * once the retention window has passed since they ended
+     */
+    @Scheduled(fixedDelayString = "${app.maintenance.user-imports-interval:5m}", initialDelayString = "3m")
+    public void purgeUserImports() {
+        run(USER_IMPORTS, () -> transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            int stale = userImportJobRepository.failStale(now.minus(userImportStaleAfter),
+                    "Interrupted, no progress for " + userImportStaleAfter.toMinutes() + " minutes", now);
+            if (stale > 0) {
+                log.warn("Failed {} stale user imports", stale);
+            }
+            List<String> ids = userImportJobRepository.findFinishedBefore(
+                    now.minus(userImportRetention), PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            userImportErrorRepository.deleteByJobIdIn(ids);
+            return userImportJobRepository.deleteByIdIn(ids);
+        }));
+    }
+
+    /**
+     * Recompute unread counters from the source tables, a chunk of users at a time. A pass cut short by the lease
+     * resumes after the last reconciled user on this instance's next run.
+     */
+    @Scheduled(fixedDelayString = "${app.unread-counters.reconcile-interval:15m}",
+            initialDelayString = "${app.unread-counters.reconcile-interval:15m}")
+    public void reconcileUnreadCounters() {
+        run(UNREAD_COUNTERS, () -> {
+            List<String> userIds = transactionTemplate.execute(status -> {
+                List<String> ids = userRepository.findIdsAfter(unreadCountersCursor, PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    unreadCounterService.reconcile(ids);
+                }
+                return ids;
+            });
+            // Advance only past committed chunks; a full pass starts over
+            unreadCountersCursor = userIds.size() < chunkSize ? "" : userIds.get(userIds.size() - 1);
+            return userIds.size();
+        });
+    }
+
+    /**
+     * Index shared documents that have no access entries yet, e.g. after an upgrade or seeding. Runs shortly after
+     * startup rather than during it, and again periodically to pick up a pass another instance left unfinished.
+     */
+    @Scheduled(fixedDelayString = "${app.maintenance.document-access-interval:6h}", initialDelayString = "20s")
+    public void backfillDocumentAccess() {
+        run(DOCUMENT_ACCESS, () -> {
+            List<String> documentIds = transactionTemplate.execute(status ->
+                    documentAccessIndex.backfill(documentAccessCursor, chunkSize));
+            documentAccessCursor = documentIds.size() < chunkSize ? "" : documentIds.get(documentIds.size() - 1);
+            return documentIds.size();
+        });
+    }
+
+    private void run(String job, IntSupplier chunk) {
+        if (!jobLeases.tryAcquire(job, leaseDuration)) {
+            log.debug("Skipping {}, another instance holds the lease", job);
+            return;
+        }
+
+        Counter purged = meterRegistry.counter("maintenance.rows.purged", "job", job);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Stop with a safety margin so the lease never expires while a chunk is running
+        long deadline = System.nanoTime() + leaseDuration.toNanos() / 2;
+        String outcome = "success";
+        long total = 0;
+        try {
+            int processed;
+            do {
+                processed = chunk.getAsInt();
+                total += processed;
+                purged.increment(processed);
+            } while (processed >= chunkSize && System.nanoTime() < deadline);
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            log.warn("Maintenance job {} failed after processing {} rows", job, total, e);
+        } finally {
+            sample.stop(meterRegistry.timer("maintenance.job.duration", "job", job, "outcome", outcome));
+            jobLeases.release(job);
+        }
+        if (total > 0) {
+            log.info("Maintenance job {} processed {} rows", job, total);
+        }
+    }
+}
@@ -16,6 +16,7 @@ import com.halolight.web.dto.message.SendMessageRequest;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -23,7 +24,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,24 +38,34 @@ public class MessageService {
     private final ConversationParticipantRepository participantRepository;
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final UnreadCounterService unreadCounterService;
 
     @Transactional(readOnly = true)
     public Page<ConversationResponse> listConversations(String userId, Pageable pageable) {
-        return conversationRepository.findByParticipantUserId(userId, pageable)
-                .map(convo -> ConversationResponse.builder()
-                        .id(convo.getId())
-                        .name(convo.getName())
-                        .group(Boolean.TRUE.equals(convo.getIsGroup()))
-                        .teamId(convo.getTeamId())
-                        .participantIds(convo.getParticipants().stream()
-                                .map(p -> p.getUser().getId())
-                                .collect(Collectors.toSet()))
-                        .createdAt(convo.getCreatedAt())
-                        .updatedAt(convo.getUpdatedAt())
-                        .lastMessage(messageRepository.findFirstByConversationIdOrderByCreatedAtDesc(convo.getId())
-                                .map(this::toMessageResponse)
-                                .orElse(null))
-                        .build());
+        Page<Conversation> conversations = conversationRepository.findByParticipantUserId(userId, pageable);
+        if (conversations.isEmpty()) {
+            return conversations.map(this::toConversationResponse);
+        }
+
+        // Participants and latest messages of the whole page, one query each
+        List<String> ids = conversations.getContent().stream().map(Conversation::getId).collect(Collectors.toList());
+        List<ConversationParticipant> participants = participantRepository.findByIdConversationIdIn(ids);
+        Map<String, Set<String>> participantIds = participants.stream()
+                .collect(Collectors.groupingBy(p -> p.getId().getConversationId(),
+                        Collectors.mapping(p -> p.getId().getUserId(), Collectors.toSet())));
+        Map<String, Integer> unreadCounts = participants.stream()
+                .filter(p -> p.getId().getUserId().equals(userId))
+                .collect(Collectors.toMap(p -> p.getId().getConversationId(), ConversationParticipant::getUnreadCount));
+        Map<String, Message> lastMessages = messageRepository.findLatestByConversationIds(ids).stream()
+                .collect(Collectors.toMap(Message::getConversationId, Function.identity(), (a, b) -> a));
+
+        List<ConversationResponse> responses = conversations.getContent().stream()
+                .map(convo -> toConversationResponse(convo,
+                        participantIds.getOrDefault(convo.getId(), Set.of()),
+                        lastMessages.get(convo.getId()),
+                        unreadCounts.get(convo.getId())))
+                .collect(Collectors.toList());
+        return new PageImpl<>(responses, pageable, conversations.getTotalElements());
     }
 
     @Transactional
@@ -117,6 +131,10 @@ public class MessageService {
         convo.setUpdatedAt(Instant.now());
         conversationRepository.save(convo);
 
+        unreadCounterService.messageSent(conversationId, userId, convo.getParticipants().stream()
+                .map(p -> p.getId().getUserId())
+                .collect(Collectors.toList()));
+
         return toMessageResponse(message);
     }
 
@@ -126,8 +144,18 @@ public class MessageService {
                 .orElseThrow(() -> new EntityNotFoundException("Conversation not found"));
         ConversationParticipant participant = participantRepository.findById(new ConversationParticipantId(conversationId, userId))
                 .orElseThrow(() -> new AccessDeniedException("Not a participant"));
+        long unread = participant.getUnreadCount();
         participant.setLastReadAt(Instant.now());
+        participant.setUnreadCount(0);
         participantRepository.save(participant);
+        unreadCounterService.messagesRead(userId, unread);
+    }
+
+    /**
+     * Unread messages across all of the user's conversations
+     */
+    public long getUnreadCount(String userId) {
+        return unreadCounterService.getCounts(userId).messages();
     }
 
     @Transactional
@@ -136,6 +164,11 @@ public class MessageService {
                 .orElseThrow(() -> new EntityNotFoundException("Conversation not found"));
         ensureParticipant(convo, userId);
 
+        // Unread messages of this conversation no longer count towards anyone's badge
+        for (ConversationParticipant participant : convo.getParticipants()) {
+            unreadCounterService.messagesRead(participant.getId().getUserId(), participant.getUnreadCount());
+        }
+
         // Delete all messages in the conversation
         messageRepository.deleteByConversationId(conversationId);
 
@@ -147,26 +180,33 @@ public class MessageService {
     }
 
     private void ensureParticipant(Conversation convo, String userId) {
-        boolean isParticipant = convo.getParticipants().stream().anyMatch(p -> p.getUser().getId().equals(userId));
+        boolean isParticipant = convo.getParticipants().stream().anyMatch(p -> p.getId().getUserId().equals(userId));
         if (!isParticipant) {
             throw new AccessDeniedException("You are not a participant of this conversation");
         }
     }
 
     private ConversationResponse toConversationResponse(Conversation convo) {
+        return toConversationResponse(convo,
+                convo.getParticipants().stream()
+                        .map(p -> p.getId().getUserId())
+                        .collect(Collectors.toSet()),
+                messageRepository.findFirstByConversationIdOrderByCreatedAtDesc(convo.getId()).orElse(null),
+                null);
+    }
+
+    private ConversationResponse toConversationResponse(Conversation convo, Set<String> participantIds,
+                                                        Message lastMessage, Integer unreadCount) {
         return ConversationResponse.builder()
                 .id(convo.getId())
                 .name(convo.getName())
                 .group(Boolean.TRUE.equals(convo.getIsGroup()))
                 .teamId(convo.getTeamId())
-                .participantIds(convo.getParticipants().stream()
-                        .map(p -> p.getUser().getId())
-                        .collect(Collectors.toSet()))
+                .participantIds(participantIds)
                 .createdAt(convo.getCreatedAt())
                 .updatedAt(convo.getUpdatedAt())
-                .lastMessage(messageRepository.findFirstByConversationIdOrderByCreatedAtDesc(convo.getId())
-                        .map(this::toMessageResponse)
-                        .orElse(null))
+                .lastMessage(lastMessage != null ? toMessageResponse(lastMessage) : null)
+                .unreadCount(unreadCount)
                 .build();
     }
 
@@ -2,6 +2,7 @@ package com.halolight.service;
 
 import com.halolight.domain.entity.Notification;
 import com.halolight.domain.entity.User;
+import com.halolight.domain.entity.enums.SyncEntityType;
 import com.halolight.domain.repository.NotificationRepository;
 import com.halolight.domain.repository.UserRepository;
 import com.halolight.web.dto.notification.CreateNotificationRequest;
@@ -15,6 +16,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,6 +32,8 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final SyncChangeLog syncChangeLog;
 
     /**
      * Get paginated list of notifications for a user.
@@ -60,15 +65,14 @@ public class NotificationService {
     }
 
     /**
-     * Get count of unread notifications for a user.
+     * Get count of unread notifications for a user, served from the precomputed counters.
      *
      * @param userId ID of the user
      * @return Count response with unread notification count
      */
-    @Transactional(readOnly = true)
     public NotificationCountResponse getUnreadCount(String userId) {
         log.debug("Fetching unread count for user: {}", userId);
-        long count = notificationRepository.countByUserIdAndIsReadFalse(userId);
+        long count = unreadCounterService.getCounts(userId).notifications();
         return NotificationCountResponse.builder()
                 .count(count)
                 .build();
@@ -128,12 +132,30 @@ public class NotificationService {
             notification.setIsRead(true);
             notification.setReadAt(Instant.now());
             notification = notificationRepository.save(notification);
+            unreadCounterService.notificationsAdded(userId, -1);
+            syncChangeLog.changed(userId, SyncEntityType.NOTIFICATION, notificationId);
             log.debug("Notification {} marked as read", notificationId);
         }
 
         return toNotificationResponse(notification);
     }
 
+    /**
+     * Get the user's notifications among the given IDs, for delta sync.
+     * IDs of missing or foreign notifications are skipped.
+     *
+     * @param userId ID of the user
+     * @param ids    Notification IDs
+     * @return List of notification responses
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getNotificationsByIds(String userId, Collection<String> ids) {
+        return notificationRepository.findAllById(ids).stream()
+                .filter(notification -> notification.getUserId().equals(userId))
+                .map(this::toNotificationResponse)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Mark all notifications as read for a user.
      *
@@ -143,7 +165,12 @@ public class NotificationService {
     @Transactional
     public int markAllAsRead(String userId) {
         log.info("Marking all notifications as read for user: {}", userId);
-        int count = notificationRepository.markAllAsReadByUserId(userId, Instant.now());
+        // Truncated to what the column stores, so the rows marked here can be found by it
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        int count = notificationRepository.markAllAsReadByUserId(userId, now);
+        syncChangeLog.changed(userId, SyncEntityType.NOTIFICATION,
+                notificationRepository.findIdsByUserIdAndReadAt(userId, now));
+        unreadCounterService.notificationsCleared(userId);
         log.debug("Marked {} notifications as read", count);
         return count;
     }
@@ -167,6 +194,10 @@ public class NotificationService {
         }
 
         notificationRepository.delete(notification);
+        syncChangeLog.deleted(userId, SyncEntityType.NOTIFICATION, notificationId);
+        if (!notification.getIsRead()) {
+            unreadCounterService.notificationsAdded(userId, -1);
+        }
         log.debug("Notification {} deleted successfully", notificationId);
     }
 
@@ -178,7 +209,10 @@ public class NotificationService {
     @Transactional
     public void deleteAllUserNotifications(String userId) {
         log.info("Deleting all notifications for user: {}", userId);
-        notificationRepository.deleteByUserId(userId);
+        List<String> ids = notificationRepository.findIdsByUserId(userId);
+        notificationRepository.deleteAllByIdInBatch(ids);
+        syncChangeLog.deleted(userId, SyncEntityType.NOTIFICATION, ids);
+        unreadCounterService.notificationsCleared(userId);
         log.debug("All notifications deleted for user: {}", userId);
     }
 
@@ -207,6 +241,10 @@ public class NotificationService {
                 .build();
 
         notification = notificationRepository.save(notification);
+        if (!notification.getIsRead()) {
+            unreadCounterService.notificationsAdded(notification.getUserId(), 1);
+        }
+        syncChangeLog.changed(notification.getUserId(), SyncEntityType.NOTIFICATION, notification.getId());
         log.debug("Notification {} created successfully", notification.getId());
 
         return toNotificationResponse(notification);
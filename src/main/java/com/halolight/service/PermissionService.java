@@ -8,6 +8,7 @@ import com.halolight.exception.ResourceNotFoundException;
 import com.halolight.web.dto.role.PermissionResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +29,7 @@ public class PermissionService {
     /**
      * Get all permissions in the system.
      */
+    @Cacheable(value = "permissions", sync = true)
     @Transactional(readOnly = true)
     public List<PermissionResponse> getAllPermissions() {
         log.debug("Fetching all permissions");
@@ -61,6 +63,7 @@ public class PermissionService {
     /**
      * Get all unique resources that have permissions.
      */
+    @Cacheable(value = "permissionResources", sync = true)
     @Transactional(readOnly = true)
     public List<String> getAllResources() {
         log.debug("Fetching all resources");
@@ -70,6 +73,7 @@ public class PermissionService {
     /**
      * Get all unique actions that exist in permissions.
      */
+    @Cacheable(value = "permissionActions", sync = true)
     @Transactional(readOnly = true)
     public List<String> getAllActions() {
         log.debug("Fetching all actions");
@@ -0,0 +1,62 @@
+package com.halolight.service;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Expands recurring calendar series into occurrence start times for a requested window.
+ * Results depend only on the arguments, so they are cached without any invalidation; month views of the same
+ * series requested by different attendees share one entry.
+ */
+@Component
+public class RecurrenceExpander {
+
+    /**
+     * Upper bound on occurrences returned for a single series and window
+     */
+    static final int MAX_OCCURRENCES_PER_WINDOW = 1000;
+
+    private static final long[] NONE = new long[0];
+
+    /**
+     * Occurrence starts (epoch millis) of the series within [{@code windowStart}, {@code windowEnd}).
+     * The returned array is shared through the cache and must not be modified.
+     *
+     * @param rule        Canonical recurrence rule
+     * @param timeZone    Time zone ID the series is scheduled in; null for UTC
+     * @param seriesStart Start of the first occurrence
+     * @param windowStart Inclusive window start
+     * @param windowEnd   Exclusive window end
+     * @return Ascending occurrence start times
+     */
+    @Cacheable(value = "recurrenceExpansions", sync = true)
+    public long[] expand(String rule, String timeZone, long seriesStart, long windowStart, long windowEnd) {
+        OccurrenceBuffer buffer = new OccurrenceBuffer();
+        RecurrenceRule.parse(rule).forEachOccurrence(timeZone == null ? null : ZoneId.of(timeZone),
+                seriesStart, windowStart, windowEnd, buffer);
+        return buffer.toArray();
+    }
+
+    private static final class OccurrenceBuffer implements LongPredicate {
+
+        private long[] values = new long[16];
+        private int size;
+
+        @Override
+        public boolean test(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            return size < MAX_OCCURRENCES_PER_WINDOW;
+        }
+
+        long[] toArray() {
+            return size == 0 ? NONE : Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.halolight.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.zone.ZoneRules;
+import java.util.Locale;
+import java.util.function.LongPredicate;
+
+/**
+ * Parsed subset of an RFC 5545 RRULE.
+ * Supported parts: FREQ (DAILY, WEEKLY, MONTHLY, YEARLY), INTERVAL, COUNT, UNTIL, BYDAY (WEEKLY only)
+ * and WKST=MO. All instants are epoch milliseconds.
+ * <p>
+ * Rules are evaluated in the series' time zone, so a weekly 09:00 meeting stays at 09:00 local time across daylight
+ * saving changes. Occurrences falling into a gap move forward by its length and ambiguous ones take the earlier
+ * offset, as RFC 5545 requires. UNTIL is an instant in UTC; a date-only UNTIL covers that whole UTC day.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+        MONTHLY,
+        YEARLY
+    }
+
+    static final int MAX_COUNT = 1000;
+    static final int MAX_INTERVAL = 1000;
+
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final long WEEK_MILLIS = 7 * DAY_MILLIS;
+    /**
+     * More than any UTC offset, so a window widened by it in local time covers the instant window
+     */
+    private static final long OFFSET_MARGIN = DAY_MILLIS;
+    private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+    private static final DateTimeFormatter UNTIL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final Frequency frequency;
+    private final int interval;
+    private final int count;
+    private final long until;
+    private final int byDayMask;
+
+    private RecurrenceRule(Frequency frequency, int interval, int count, long until, int byDayMask) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDayMask = byDayMask;
+    }
+
+    /**
+     * Parse an RRULE value, with or without the {@code RRULE:} prefix.
+     *
+     * @throws IllegalArgumentException if the rule is malformed or uses unsupported parts
+     */
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule must not be empty");
+        }
+        String body = rule.trim();
+        if (body.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            body = body.substring(6);
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        int count = 0;
+        long until = Long.MAX_VALUE;
+        int byDayMask = 0;
+
+        for (String part : body.split(";")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+            String name = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String value = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+            switch (name) {
+                case "FREQ" -> frequency = parseFrequency(value);
+                case "INTERVAL" -> interval = parseBounded(name, value, MAX_INTERVAL);
+                case "COUNT" -> count = parseBounded(name, value, MAX_COUNT);
+                case "UNTIL" -> until = parseUntil(value);
+                case "BYDAY" -> byDayMask = parseByDay(value);
+                case "WKST" -> {
+                    if (!"MO".equals(value)) {
+                        throw new IllegalArgumentException("Only WKST=MO is supported");
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule requires FREQ");
+        }
+        if (count > 0 && until != Long.MAX_VALUE) {
+            throw new IllegalArgumentException("COUNT and UNTIL cannot be combined in a recurrence rule");
+        }
+        if (byDayMask != 0 && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(frequency, interval, count, until, byDayMask);
+    }
+
+    /**
+     * Emit the start of every occurrence whose start falls in [{@code from}, {@code to}), in ascending order,
+     * until the sink returns {@code false}. Periods before {@code from} are skipped arithmetically wherever the
+     * rule allows it, so the cost follows the size of the window rather than the age of the series.
+     *
+     * @param zone Time zone the series is scheduled in; null for UTC
+     */
+    public void forEachOccurrence(ZoneId zone, long seriesStart, long from, long to, LongPredicate sink) {
+        long end = until == Long.MAX_VALUE ? to : Math.min(to, until + 1);
+        if (end <= from || end <= seriesStart) {
+            return;
+        }
+        ZoneRules rules = zone == null ? null : zone.getRules();
+        if (rules == null || rules.isFixedOffset() && rules.getOffset(Instant.EPOCH).getTotalSeconds() == 0) {
+            expand(seriesStart, from, end, sink);
+            return;
+        }
+
+        // Expand on local wall-clock times, written as if they were UTC instants, and map each back to its
+        // instant. Local times only move forward, so the mapped instants stay in ascending order.
+        long localFrom = toLocal(rules, from) - OFFSET_MARGIN;
+        long localEnd = end >= Long.MAX_VALUE - OFFSET_MARGIN ? Long.MAX_VALUE : toLocal(rules, end) + OFFSET_MARGIN;
+        expand(toLocal(rules, seriesStart), localFrom, localEnd, local -> {
+            long t = toInstant(zone, local);
+            if (t >= end) {
+                return false;
+            }
+            return t < from || sink.test(t);
+        });
+    }
+
+    private void expand(long seriesStart, long from, long end, LongPredicate sink) {
+        switch (frequency) {
+            case DAILY -> fixedStep(seriesStart, from, end, interval * DAY_MILLIS, sink);
+            case WEEKLY -> {
+                if (byDayMask == 0) {
+                    fixedStep(seriesStart, from, end, interval * WEEK_MILLIS, sink);
+                } else {
+                    weeklyByDay(seriesStart, from, end, sink);
+                }
+            }
+            case MONTHLY -> monthly(seriesStart, from, end, interval, sink);
+            case YEARLY -> monthly(seriesStart, from, end, 12 * interval, sink);
+        }
+    }
+
+    /**
+     * Whether {@code instant} is the start of one of the series' occurrences.
+     */
+    public boolean isOccurrence(ZoneId zone, long seriesStart, long instant) {
+        boolean[] found = new boolean[1];
+        forEachOccurrence(zone, seriesStart, instant, instant + 1, t -> {
+            found[0] = true;
+            return false;
+        });
+        return found[0];
+    }
+
+    /**
+     * Latest instant at which an occurrence of the series ends, or {@link Long#MAX_VALUE} for open-ended rules.
+     */
+    public long seriesEnd(ZoneId zone, long seriesStart, long duration) {
+        if (count > 0) {
+            long[] last = {seriesStart};
+            forEachOccurrence(zone, seriesStart, seriesStart, Long.MAX_VALUE, t -> {
+                last[0] = t;
+                return true;
+            });
+            return last[0] + duration;
+        }
+        return until == Long.MAX_VALUE ? Long.MAX_VALUE : until + duration;
+    }
+
+    private void fixedStep(long seriesStart, long from, long end, long step, LongPredicate sink) {
+        long index = from > seriesStart ? Math.ceilDiv(from - seriesStart, step) : 0;
+        for (long t = seriesStart + index * step; t < end && withinCount(index); t += step, index++) {
+            if (!sink.test(t)) {
+                return;
+            }
+        }
+    }
+
+    private void weeklyByDay(long seriesStart, long from, long end, LongPredicate sink) {
+        // 1970-01-01 was a Thursday, i.e. index 3 with Monday = 0
+        int startDow = (int) Math.floorMod(Math.floorDiv(seriesStart, DAY_MILLIS) + 3, 7);
+        long weekAnchor = seriesStart - startDow * DAY_MILLIS;
+        long weekStep = interval * WEEK_MILLIS;
+        int perWeek = Integer.bitCount(byDayMask);
+        int firstWeek = Integer.bitCount(byDayMask >>> startDow);
+
+        long week = from > weekAnchor ? (from - weekAnchor) / weekStep : 0;
+        long index = week == 0 ? 0 : firstWeek + (week - 1) * perWeek;
+
+        for (long base = weekAnchor + week * weekStep; base < end; base += weekStep) {
+            for (int dow = 0; dow < 7; dow++) {
+                if ((byDayMask & (1 << dow)) == 0) {
+                    continue;
+                }
+                long t = base + dow * DAY_MILLIS;
+                if (t < seriesStart) {
+                    continue;
+                }
+                if (t >= end || !withinCount(index)) {
+                    return;
+                }
+                index++;
+                if (t >= from && !sink.test(t)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void monthly(long seriesStart, long from, long end, int monthStep, LongPredicate sink) {
+        long startDay = Math.floorDiv(seriesStart, DAY_MILLIS);
+        long timeOfDay = seriesStart - startDay * DAY_MILLIS;
+        LocalDate first = LocalDate.ofEpochDay(startDay);
+        int dayOfMonth = first.getDayOfMonth();
+        long startMonth = first.getYear() * 12L + first.getMonthValue() - 1;
+
+        // Months without the start day are skipped (RFC 5545), so with COUNT the occurrence index can only be
+        // derived arithmetically when every month has that day.
+        long period = 0;
+        if (from > seriesStart && (count == 0 || dayOfMonth <= 28)) {
+            LocalDate fromDate = LocalDate.ofEpochDay(Math.floorDiv(from, DAY_MILLIS));
+            long months = fromDate.getYear() * 12L + fromDate.getMonthValue() - 1 - startMonth;
+            period = months / monthStep;
+        }
+        long index = period;
+
+        for (; ; period++) {
+            long monthIndex = startMonth + period * monthStep;
+            int year = (int) Math.floorDiv(monthIndex, 12);
+            int month = (int) Math.floorMod(monthIndex, 12) + 1;
+            if (epochDay(year, month, 1) * DAY_MILLIS >= end) {
+                return;
+            }
+            if (dayOfMonth > Month.of(month).length(Year.isLeap(year))) {
+                continue;
+            }
+            long t = epochDay(year, month, dayOfMonth) * DAY_MILLIS + timeOfDay;
+            if (t >= end || !withinCount(index)) {
+                return;
+            }
+            index++;
+            if (t >= from && !sink.test(t)) {
+                return;
+            }
+        }
+    }
+
+    private static long toLocal(ZoneRules rules, long instant) {
+        return instant + rules.getOffset(Instant.ofEpochMilli(instant)).getTotalSeconds() * 1000L;
+    }
+
+    private static long toInstant(ZoneId zone, long local) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(local, 1000L),
+                (int) Math.floorMod(local, 1000L) * 1_000_000, ZoneOffset.UTC);
+        return ZonedDateTime.ofLocal(dateTime, zone, null).toInstant().toEpochMilli();
+    }
+
+    private boolean withinCount(long index) {
+        return count == 0 || index < count;
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date, without allocating a {@link LocalDate}.
+     */
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static Frequency parseFrequency(String value) {
+        try {
+            return Frequency.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported recurrence frequency: " + value);
+        }
+    }
+
+    private static int parseBounded(String name, String value, int max) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 1 || parsed > max) {
+                throw new IllegalArgumentException(name + " must be between 1 and " + max);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + " value: " + value);
+        }
+    }
+
+    private static long parseUntil(String value) {
+        try {
+            if (value.length() == 8) {
+                // A DATE value includes the whole day
+                return LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE).plusDays(1)
+                        .atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() - 1;
+            }
+            String dateTime = value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+            return LocalDateTime.parse(dateTime, UNTIL_DATE_TIME).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid UNTIL value: " + value);
+        }
+    }
+
+    private static int parseByDay(String value) {
+        int mask = 0;
+        for (String code : value.split(",")) {
+            int dow = indexOfDay(code.trim());
+            if (dow < 0) {
+                throw new IllegalArgumentException("Unsupported BYDAY value: " + code);
+            }
+            mask |= 1 << dow;
+        }
+        return mask;
+    }
+
+    private static int indexOfDay(String code) {
+        for (int i = 0; i < DAY_CODES.length; i++) {
+            if (DAY_CODES[i].equals(code)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Canonical form, used as the stored value and as part of expansion cache keys.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("FREQ=").append(frequency.name());
+        if (interval > 1) {
+            sb.append(";INTERVAL=").append(interval);
+        }
+        if (byDayMask != 0) {
+            sb.append(";BYDAY=");
+            boolean first = true;
+            for (int dow = 0; dow < 7; dow++) {
+                if ((byDayMask & (1 << dow)) != 0) {
+                    sb.append(first ? "" : ",").append(DAY_CODES[dow]);
+                    first = false;
+                }
+            }
+        }
+        if (count > 0) {
+            sb.append(";COUNT=").append(count);
+        }
+        if (until != Long.MAX_VALUE) {
+            sb.append(";UNTIL=").append(UNTIL_DATE_TIME.format(
+                    LocalDateTime.ofEpochSecond(Math.floorDiv(until, 1000L), 0, ZoneOffset.UTC))).append('Z');
+        }
+        return sb.toString();
+    }
+}
@@ -19,9 +19,12 @@ import com.halolight.web.dto.role.RoleResponse;
 import com.halolight.web.dto.role.UpdateRoleRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -42,10 +45,11 @@ public class RoleService {
     /**
      * Get all roles with their permissions.
      */
+    @Cacheable(value = "roles", sync = true)
     @Transactional(readOnly = true)
     public List<RoleResponse> getAllRoles() {
         log.debug("Fetching all roles");
-        return roleRepository.findAll().stream()
+        return roleRepository.findAllWithPermissions().stream()
                 .map(this::mapRoleToResponse)
                 .collect(Collectors.toList());
     }
@@ -56,7 +60,7 @@ public class RoleService {
     @Transactional(readOnly = true)
     public RoleResponse getRoleById(String id) {
         log.debug("Fetching role by id: {}", id);
-        Role role = roleRepository.findById(id)
+        Role role = roleRepository.findWithPermissionsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Role", "id", id));
         return mapRoleToDetailedResponse(role);
     }
@@ -64,6 +68,7 @@ public class RoleService {
     /**
      * Create a new role with optional permissions.
      */
+    @CacheEvict(value = "roles", allEntries = true)
     @Transactional
     public RoleResponse createRole(CreateRoleRequest request) {
         log.info("Creating new role: {}", request.getName());
@@ -94,6 +99,7 @@ public class RoleService {
     /**
      * Update an existing role (label and description only).
      */
+    @CacheEvict(value = "roles", allEntries = true)
     @Transactional
     public RoleResponse updateRole(String id, UpdateRoleRequest request) {
         log.info("Updating role: {}", id);
@@ -118,6 +124,7 @@ public class RoleService {
     /**
      * Delete a role. Cannot delete if users are assigned to it.
      */
+    @CacheEvict(value = "roles", allEntries = true)
     @Transactional
     public void deleteRole(String id) {
         log.info("Attempting to delete role: {}", id);
@@ -139,9 +146,28 @@ public class RoleService {
         log.info("Role deleted successfully: {}", id);
     }
 
+    /**
+     * Find a role by name, creating it if it does not exist.
+     */
+    @CacheEvict(value = "roles", allEntries = true)
+    @Transactional
+    public Role ensureRole(String name, String label, String description) {
+        return roleRepository.findByName(name).orElseGet(() -> {
+            log.warn("{} role not found, creating it", name);
+            return roleRepository.save(Role.builder()
+                    .name(name)
+                    .label(label)
+                    .description(description)
+                    .permissions(new LinkedHashSet<>())
+                    .users(new LinkedHashSet<>())
+                    .build());
+        });
+    }
+
     /**
      * Assign permissions to a role.
      */
+    @CacheEvict(value = "roles", allEntries = true)
     @Transactional
     public RoleResponse assignPermissions(String roleId, List<String> permissionIds) {
         log.info("Assigning {} permissions to role: {}", permissionIds.size(), roleId);
@@ -0,0 +1,118 @@
+package com.halolight.service;
+
+import com.halolight.domain.entity.SyncChange;
+import com.halolight.domain.entity.SyncSequence;
+import com.halolight.domain.entity.enums.SyncEntityType;
+import com.halolight.domain.entity.id.SyncChangeId;
+import com.halolight.domain.repository.SyncChangeRepository;
+import com.halolight.domain.repository.SyncSequenceRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records changes for delta sync in the transaction of the write that makes them.
+ * <p>
+ * Each change takes the user's next number from {@code sync_sequences} and moves the entity's row in
+ * {@code sync_changes} to it; a delete turns the row into a tombstone, purged by {@link MaintenanceJobs} after
+ * the retention window. Taking numbers locks the user's sequence row until commit, so a user's changes become
+ * visible in sequence order and reading everything above a token never skips one.
+ */
+@Component
+public class SyncChangeLog {
+
+    private final SyncSequenceRepository sequenceRepository;
+    private final SyncChangeRepository changeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public SyncChangeLog(SyncSequenceRepository sequenceRepository,
+                         SyncChangeRepository changeRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.sequenceRepository = sequenceRepository;
+        this.changeRepository = changeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * An entity visible to the user was created or updated; null or empty IDs, e.g. of a missing parent
+     * folder, are ignored
+     */
+    @Transactional
+    public void changed(String userId, SyncEntityType type, String... entityIds) {
+        record(userId, type, Arrays.asList(entityIds), false);
+    }
+
+    @Transactional
+    public void changed(String userId, SyncEntityType type, Collection<String> entityIds) {
+        record(userId, type, entityIds, false);
+    }
+
+    @Transactional
+    public void deleted(String userId, SyncEntityType type, String entityId) {
+        record(userId, type, List.of(entityId), true);
+    }
+
+    @Transactional
+    public void deleted(String userId, SyncEntityType type, Collection<String> entityIds) {
+        record(userId, type, entityIds, true);
+    }
+
+    private void record(String userId, SyncEntityType type, Collection<String> entityIds, boolean deleted) {
+        List<SyncChangeId> keys = entityIds.stream()
+                .filter(entityId -> entityId != null && !entityId.isEmpty())
+                .distinct()
+                .map(entityId -> new SyncChangeId(userId, type, entityId))
+                .toList();
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        long seq = nextSeqs(userId, keys.size()) - keys.size();
+        Instant now = Instant.now();
+        Map<SyncChangeId, SyncChange> existing = changeRepository.findAllById(keys).stream()
+                .collect(Collectors.toMap(SyncChange::getId, Function.identity()));
+        List<SyncChange> changes = new ArrayList<>(keys.size());
+        for (SyncChangeId key : keys) {
+            SyncChange change = existing.getOrDefault(key, SyncChange.builder().id(key).build());
+            change.setSeq(++seq);
+            change.setDeleted(deleted);
+            change.setChangedAt(now);
+            changes.add(change);
+        }
+        changeRepository.saveAll(changes);
+    }
+
+    /**
+     * @return The last of the {@code count} numbers taken
+     */
+    private long nextSeqs(String userId, int count) {
+        Instant now = Instant.now();
+        if (sequenceRepository.advance(userId, count, now) == 0) {
+            createSequence(userId);
+            sequenceRepository.advance(userId, count, now);
+        }
+        return sequenceRepository.findLastSeq(userId).orElseThrow();
+    }
+
+    private void createSequence(String userId) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    sequenceRepository.save(SyncSequence.builder().userId(userId).build()));
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another transaction
+        }
+    }
+}
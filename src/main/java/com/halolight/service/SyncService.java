@@ -0,0 +1,142 @@
+package com.halolight.service;
+
+import com.halolight.domain.entity.SyncChange;
+import com.halolight.domain.entity.SyncSequence;
+import com.halolight.domain.entity.enums.SyncEntityType;
+import com.halolight.domain.repository.SyncChangeRepository;
+import com.halolight.domain.repository.SyncSequenceRepository;
+import com.halolight.web.dto.document.DocumentResponse;
+import com.halolight.web.dto.file.FileResponse;
+import com.halolight.web.dto.folder.FolderResponse;
+import com.halolight.web.dto.notification.NotificationResponse;
+import com.halolight.web.dto.sync.SyncResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Delta sync of a user's files, folders, documents and notifications, read from the change log kept by
+ * {@link SyncChangeLog}.
+ * <p>
+ * A client first calls without a token, receives {@code reset} and the current token, then loads the full lists
+ * and from then on asks for the changes since its last token: current versions of created or updated entities
+ * and tombstones of deleted ones, in batches ordered by sequence number. An entity changed several times is sent
+ * once, at its latest sequence number. Documents are those the user owns; view counts are not changes of their
+ * own and are brought along with the next change of the document.
+ */
+@Service
+public class SyncService {
+
+    private final SyncSequenceRepository sequenceRepository;
+    private final SyncChangeRepository changeRepository;
+    private final FileService fileService;
+    private final FolderService folderService;
+    private final DocumentService documentService;
+    private final NotificationService notificationService;
+    private final int defaultBatchSize;
+    private final int maxBatchSize;
+
+    public SyncService(SyncSequenceRepository sequenceRepository,
+                       SyncChangeRepository changeRepository,
+                       FileService fileService,
+                       FolderService folderService,
+                       DocumentService documentService,
+                       NotificationService notificationService,
+                       @Value("${app.sync.batch-size:100}") int defaultBatchSize,
+                       @Value("${app.sync.max-batch-size:500}") int maxBatchSize) {
+        this.sequenceRepository = sequenceRepository;
+        this.changeRepository = changeRepository;
+        this.fileService = fileService;
+        this.folderService = folderService;
+        this.documentService = documentService;
+        this.notificationService = notificationService;
+        this.defaultBatchSize = defaultBatchSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @param since Token of the previous call, or null for the first one
+     * @param limit Maximum number of changes, capped at {@code app.sync.max-batch-size}
+     */
+    @Transactional(readOnly = true)
+    public SyncResponse getChanges(String userId, Long since, Integer limit) {
+        SyncSequence sequence = sequenceRepository.findById(userId)
+                .orElseGet(() -> SyncSequence.builder().userId(userId).build());
+        // Tokens above the last number are not reset: they may come from the primary while this read is served
+        // by a lagging replica
+        if (since == null || since < sequence.getPurgedSeq()) {
+            return SyncResponse.builder()
+                    .token(sequence.getLastSeq())
+                    .reset(true)
+                    .hasMore(false)
+                    .files(List.of())
+                    .folders(List.of())
+                    .documents(List.of())
+                    .notifications(List.of())
+                    .deleted(List.of())
+                    .build();
+        }
+
+        int batchSize = Math.clamp(limit != null ? limit : defaultBatchSize, 1, maxBatchSize);
+        List<SyncChange> changes = changeRepository.findSince(userId, since, PageRequest.of(0, batchSize + 1));
+        boolean hasMore = changes.size() > batchSize;
+        if (hasMore) {
+            changes = changes.subList(0, batchSize);
+        }
+
+        Map<SyncEntityType, Set<String>> changed = new EnumMap<>(SyncEntityType.class);
+        List<SyncResponse.Tombstone> deleted = new ArrayList<>();
+        for (SyncChange change : changes) {
+            SyncEntityType type = change.getId().getEntityType();
+            String entityId = change.getId().getEntityId();
+            if (change.getDeleted()) {
+                deleted.add(new SyncResponse.Tombstone(type, entityId));
+            } else {
+                changed.computeIfAbsent(type, t -> new HashSet<>()).add(entityId);
+            }
+        }
+
+        return SyncResponse.builder()
+                .token(changes.isEmpty() ? since : changes.getLast().getSeq())
+                .reset(false)
+                .hasMore(hasMore)
+                .files(load(userId, SyncEntityType.FILE, changed, deleted,
+                        fileService::getFilesByIds, FileResponse::getId))
+                .folders(load(userId, SyncEntityType.FOLDER, changed, deleted,
+                        folderService::getFoldersByIds, FolderResponse::getId))
+                .documents(load(userId, SyncEntityType.DOCUMENT, changed, deleted,
+                        documentService::getDocumentsByIds, DocumentResponse::getId))
+                .notifications(load(userId, SyncEntityType.NOTIFICATION, changed, deleted,
+                        notificationService::getNotificationsByIds, NotificationResponse::getId))
+                .deleted(deleted)
+                .build();
+    }
+
+    /**
+     * Load the changed entities of one type. An entity deleted since its change was read is reported as deleted;
+     * its tombstone follows in a later batch as well.
+     */
+    private <T> List<T> load(String userId, SyncEntityType type, Map<SyncEntityType, Set<String>> changed,
+                             List<SyncResponse.Tombstone> deleted,
+                             BiFunction<String, Set<String>, List<T>> loader, Function<T, String> idOf) {
+        Set<String> ids = changed.getOrDefault(type, Set.of());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<T> entities = loader.apply(userId, ids);
+        Set<String> missing = new HashSet<>(ids);
+        entities.forEach(entity -> missing.remove(idOf.apply(entity)));
+        missing.forEach(entityId -> deleted.add(new SyncResponse.Tombstone(type, entityId)));
+        return entities;
+    }
+}
@@ -0,0 +1,73 @@
+package com.halolight.service;
+
+import com.halolight.domain.entity.Tag;
+import com.halolight.domain.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns tag names into tag entities, creating the missing ones.
+ * <p>
+ * Existing tags are loaded with one query. Missing tags are written with one batched insert that skips names
+ * created concurrently by another request, and are then read back with a second query.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagResolver {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tags (id, name, created_at) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final TagRepository tagRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param names Tag names; blank names and duplicates are dropped, surrounding whitespace is trimmed
+     * @return Tags in the order of first appearance
+     */
+    @Transactional
+    public List<Tag> resolve(Collection<String> names) {
+        Set<String> wanted = names.stream()
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (wanted.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Tag> tags = tagRepository.findByNameIn(wanted).stream()
+                .collect(Collectors.toMap(Tag::getName, Function.identity()));
+
+        List<String> missing = wanted.stream().filter(name -> !tags.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            Timestamp now = Timestamp.from(Instant.now());
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, name) -> {
+                ps.setString(1, UUID.randomUUID().toString().replace("-", "").substring(0, 25));
+                ps.setString(2, name);
+                ps.setTimestamp(3, now);
+            });
+            tagRepository.findByNameIn(missing).forEach(tag -> tags.put(tag.getName(), tag));
+        }
+
+        List<Tag> resolved = new ArrayList<>(wanted.size());
+        for (String name : wanted) {
+            resolved.add(tags.get(name));
+        }
+        return resolved;
+    }
+}
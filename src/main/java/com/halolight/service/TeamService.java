@@ -1,12 +1,17 @@
 package com.halolight.service;
 
+import com.halolight.domain.entity.DocumentShare;
 import com.halolight.domain.entity.Team;
 import com.halolight.domain.entity.TeamMember;
 import com.halolight.domain.entity.User;
 import com.halolight.domain.entity.id.TeamMemberId;
+import com.halolight.domain.repository.DocumentRepository;
+import com.halolight.domain.repository.DocumentShareRepository;
+import com.halolight.domain.repository.StorageFileRepository;
 import com.halolight.domain.repository.TeamMemberRepository;
 import com.halolight.domain.repository.TeamRepository;
 import com.halolight.domain.repository.UserRepository;
+import com.halolight.dto.ContentVersion;
 import com.halolight.web.dto.team.AddMemberRequest;
 import com.halolight.web.dto.team.CreateTeamRequest;
 import com.halolight.web.dto.team.TeamMemberResponse;
@@ -16,11 +21,15 @@ import com.halolight.web.dto.team.UpdateTeamRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -31,6 +40,22 @@ public class TeamService {
     private final TeamRepository teamRepository;
     private final TeamMemberRepository teamMemberRepository;
     private final UserRepository userRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentShareRepository documentShareRepository;
+    private final StorageFileRepository storageFileRepository;
+    private final ConcurrentQueries concurrentQueries;
+    private final DocumentAccessIndex documentAccessIndex;
+
+    /**
+     * Version of the teams a user owns or belongs to, compared by conditional requests before loading
+     * {@link #getUserTeams}
+     */
+    @Transactional(readOnly = true)
+    public ContentVersion getUserTeamsVersion(String userId) {
+        TeamRepository.MemberVersion version = teamRepository.findMemberVersion(userId);
+        return ContentVersion.of(version.getTeams(), version.getLastUpdated(), version.getMembers(),
+                version.getLastJoined(), version.getLastOwnerUpdate());
+    }
 
     /**
      * Get all teams for a user (owned teams and teams user is a member of)
@@ -52,9 +77,7 @@ public class TeamService {
             }
         });
 
-        return allTeams.stream()
-                .map(this::toTeamResponse)
-                .collect(Collectors.toList());
+        return toTeamResponses(allTeams);
     }
 
     /**
@@ -62,8 +85,8 @@ public class TeamService {
      */
     @Transactional(readOnly = true)
     public Page<TeamResponse> getTeams(String search, Pageable pageable) {
-        return teamRepository.findBySearch(search, pageable)
-                .map(this::toTeamResponse);
+        Page<Team> teams = teamRepository.findBySearch(search, pageable);
+        return new PageImpl<>(toTeamResponses(teams.getContent()), pageable, teams.getTotalElements());
     }
 
     /**
@@ -71,7 +94,7 @@ public class TeamService {
      */
     @Transactional(readOnly = true)
     public TeamResponse getTeamById(String id) {
-        Team team = teamRepository.findById(id)
+        Team team = teamRepository.findWithOwnerById(id)
                 .orElseThrow(() -> new RuntimeException("Team not found with id: " + id));
         return toTeamResponseWithMembers(team);
     }
@@ -162,7 +185,11 @@ public class TeamService {
             throw new RuntimeException("Only the team owner can delete the team");
         }
 
+        List<String> sharedDocumentIds = documentShareRepository.findByTeamId(id).stream()
+                .map(DocumentShare::getDocumentId)
+                .collect(Collectors.toList());
         teamRepository.delete(team);
+        documentAccessIndex.refreshDocuments(sharedDocumentIds);
         log.info("Deleted team: {} by owner: {}", id, userId);
     }
 
@@ -185,6 +212,7 @@ public class TeamService {
         }
 
         addTeamMember(team, request.getUserId(), request.getRoleId());
+        documentAccessIndex.refreshMembership(teamId, request.getUserId());
         log.info("Added member {} to team: {}", request.getUserId(), teamId);
 
         return toTeamResponseWithMembers(teamRepository.findById(teamId).orElseThrow());
@@ -214,6 +242,7 @@ public class TeamService {
         }
 
         teamMemberRepository.deleteByIdTeamIdAndIdUserId(teamId, userId);
+        documentAccessIndex.refreshMembership(teamId, userId);
         log.info("Removed member {} from team: {}", userId, teamId);
 
         return toTeamResponseWithMembers(teamRepository.findById(teamId).orElseThrow());
@@ -250,21 +279,26 @@ public class TeamService {
     }
 
     /**
-     * Get team statistics
+     * Get team statistics. The existence check and the three counts run concurrently.
      */
-    @Transactional(readOnly = true)
     public TeamStatsResponse getTeamStats(String teamId) {
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new RuntimeException("Team not found with id: " + teamId));
-
-        long memberCount = teamMemberRepository.countByIdTeamId(teamId);
-
-        return TeamStatsResponse.builder()
-                .teamId(teamId)
-                .memberCount(memberCount + 1) // +1 for owner
-                .documentCount(team.getDocuments().size())
-                .fileCount(team.getFiles().size())
-                .build();
+        try (ConcurrentQueries.Scope scope = concurrentQueries.open()) {
+            Supplier<Boolean> exists = scope.fork(() -> teamRepository.existsById(teamId));
+            Supplier<Long> memberCount = scope.fork(() -> teamMemberRepository.countByIdTeamId(teamId));
+            Supplier<Long> documentCount = scope.fork(() -> documentRepository.countByTeamId(teamId));
+            Supplier<Long> fileCount = scope.fork(() -> storageFileRepository.countByTeamId(teamId));
+            scope.join();
+
+            if (!exists.get()) {
+                throw new RuntimeException("Team not found with id: " + teamId);
+            }
+            return TeamStatsResponse.builder()
+                    .teamId(teamId)
+                    .memberCount(memberCount.get() + 1) // +1 for owner
+                    .documentCount(documentCount.get().intValue())
+                    .fileCount(fileCount.get().intValue())
+                    .build();
+        }
     }
 
     /**
@@ -287,6 +321,29 @@ public class TeamService {
      * Convert Team entity to TeamResponse (without members list)
      */
     private TeamResponse toTeamResponse(Team team) {
+        return toTeamResponse(team, teamMemberRepository.countByIdTeamId(team.getId()));
+    }
+
+    /**
+     * Convert a list of teams, counting members of all of them with one grouped query.
+     * Owners come from the entity graph of the query that loaded the teams.
+     */
+    private List<TeamResponse> toTeamResponses(List<Team> teams) {
+        if (teams.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<String> teamIds = teams.stream().map(Team::getId).collect(Collectors.toList());
+        Map<String, Long> memberCounts = teamMemberRepository.countByTeamIds(teamIds).stream()
+                .collect(Collectors.toMap(TeamMemberRepository.TeamMemberCount::getTeamId,
+                        TeamMemberRepository.TeamMemberCount::getMemberCount));
+
+        return teams.stream()
+                .map(team -> toTeamResponse(team, memberCounts.getOrDefault(team.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    private TeamResponse toTeamResponse(Team team, long memberCount) {
         TeamResponse.TeamResponseBuilder builder = TeamResponse.builder()
                 .id(team.getId())
                 .name(team.getName())
@@ -309,7 +366,6 @@ public class TeamService {
         }
 
         // Add member count
-        long memberCount = teamMemberRepository.countByIdTeamId(team.getId());
         builder.memberCount(memberCount + 1); // +1 for owner
 
         return builder.build();
@@ -0,0 +1,157 @@
+package com.halolight.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.halolight.config.CacheInvalidationBus;
+import com.halolight.domain.entity.UnreadCounter;
+import com.halolight.domain.repository.ConversationParticipantRepository;
+import com.halolight.domain.repository.NotificationRepository;
+import com.halolight.domain.repository.UnreadCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Unread badge counts for messages and notifications.
+ * <p>
+ * Counts are kept per (user, conversation) on {@code conversation_participants.unread_count} and per user in
+ * {@code unread_counters}, adjusted in the same transaction as the write that changes them. Reads are served
+ * from a local cache that is invalidated after commit, on every instance through the {@link CacheInvalidationBus},
+ * so a badge request costs at most one primary key lookup.
+ * A user's counter row is created from the source tables on first read; adjustments before that are no-ops.
+ * Drift from concurrent writes is corrected by a periodic reconciliation, see {@link MaintenanceJobs}.
+ */
+@Slf4j
+@Service
+public class UnreadCounterService {
+
+    private static final String CACHE_NAME = "unreadCounts";
+
+    private final UnreadCounterRepository counterRepository;
+    private final ConversationParticipantRepository participantRepository;
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, UnreadCounts> cache;
+    private final CacheInvalidationBus invalidationBus;
+
+    public UnreadCounterService(UnreadCounterRepository counterRepository,
+                                ConversationParticipantRepository participantRepository,
+                                NotificationRepository notificationRepository,
+                                PlatformTransactionManager transactionManager,
+                                CacheInvalidationBus invalidationBus,
+                                @Value("${app.unread-counters.cache-ttl:10m}") Duration cacheTtl) {
+        this.counterRepository = counterRepository;
+        this.participantRepository = participantRepository;
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(100_000)
+                .build();
+        this.invalidationBus = invalidationBus;
+        invalidationBus.register(CACHE_NAME, cache::invalidate, cache::invalidateAll);
+    }
+
+    public UnreadCounts getCounts(String userId) {
+        return cache.get(userId, this::load);
+    }
+
+    /**
+     * A message was sent; every other participant has one more unread message.
+     */
+    public void messageSent(String conversationId, String senderId, Collection<String> participantIds) {
+        Instant now = Instant.now();
+        participantRepository.incrementUnreadCount(conversationId, senderId);
+        counterRepository.incrementMessages(conversationId, senderId, now);
+        participantIds.stream()
+                .filter(id -> !id.equals(senderId))
+                .forEach(this::evictAfterCommit);
+    }
+
+    /**
+     * The user read or left a conversation that had {@code unread} unread messages for them.
+     */
+    public void messagesRead(String userId, long unread) {
+        if (unread > 0) {
+            counterRepository.addMessages(userId, -unread, Instant.now());
+        }
+        evictAfterCommit(userId);
+    }
+
+    public void notificationsAdded(String userId, long count) {
+        counterRepository.addNotifications(userId, count, Instant.now());
+        evictAfterCommit(userId);
+    }
+
+    public void notificationsCleared(String userId) {
+        counterRepository.resetNotifications(userId, Instant.now());
+        evictAfterCommit(userId);
+    }
+
+    /**
+     * Drop every cached count, e.g. before a checkpoint whose image would otherwise restore them stale
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Recompute the counts of the given users from the source tables, in the caller's transaction; their cached
+     * counts are evicted once it commits.
+     */
+    public void reconcile(Collection<String> userIds) {
+        participantRepository.reconcileUnreadCounts(userIds);
+        counterRepository.reconcile(userIds, Instant.now());
+        userIds.forEach(this::evictAfterCommit);
+    }
+
+    /**
+     * Runs in a read-write transaction so it is served by the primary: a lagging replica would put stale
+     * counts into the cache right after the invalidation.
+     */
+    private UnreadCounts load(String userId) {
+        UnreadCounter counter;
+        try {
+            counter = transactionTemplate.execute(status -> counterRepository.findById(userId)
+                    .orElseGet(() -> counterRepository.save(UnreadCounter.builder()
+                            .userId(userId)
+                            .messages(counterRepository.sumUnreadMessages(userId))
+                            .notifications(notificationRepository.countByUserIdAndIsReadFalse(userId))
+                            .build())));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the row first
+            counter = transactionTemplate.execute(status -> counterRepository.findById(userId).orElseThrow());
+        }
+        return new UnreadCounts(counter.getMessages(), counter.getNotifications());
+    }
+
+    private void evictAfterCommit(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userId);
+            }
+        });
+    }
+
+    private void evict(String userId) {
+        cache.invalidate(userId);
+        invalidationBus.publishEvict(CACHE_NAME, userId);
+    }
+
+    public record UnreadCounts(long messages, long notifications) {
+    }
+}
@@ -25,9 +25,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user;
 
-        // Try to find by email first, then by username
-        user = userRepository.findByEmail(username)
-                .or(() -> userRepository.findByUsername(username))
+        // Match email or username in one query
+        user = userRepository.findByEmailOrUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + username));
 
         return UserPrincipal.create(user);
@@ -0,0 +1,239 @@
+package com.halolight.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.halolight.web.dto.export.ExportFormat;
+import com.halolight.web.dto.userimport.UserImportRow;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the rows of a bulk user import one at a time, so an upload of any size is parsed in constant memory.
+ * A malformed row becomes a {@link Row} with an error instead of ending the import; only an unusable upload as a
+ * whole, such as a CSV header without the required columns, throws.
+ */
+abstract class UserImportReader implements Closeable {
+
+    /**
+     * Longest row accepted, in characters; guards against a stray quote swallowing the rest of the file
+     */
+    static final int MAX_ROW_LENGTH = 10_000;
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    /**
+     * @param line  Line of the upload the row starts on, counting from 1
+     * @param value The row, or null if it could not be parsed
+     * @param error Why the row could not be parsed
+     */
+    record Row(long line, UserImportRow value, String error) {
+    }
+
+    protected final BufferedReader reader;
+
+    private UserImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static UserImportReader open(ExportFormat format, Path file, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        try {
+            return format == ExportFormat.CSV ? new Csv(reader) : new Ndjson(reader, objectMapper);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The next row, or null at the end of the upload; blank lines are skipped
+     */
+    abstract Row next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * One JSON object per line
+     */
+    private static final class Ndjson extends UserImportReader {
+
+        private final ObjectReader rowReader;
+        private long line;
+
+        Ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.rowReader = objectMapper.readerFor(UserImportRow.class);
+        }
+
+        @Override
+        Row next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (line == 1 && !text.isEmpty() && text.charAt(0) == BYTE_ORDER_MARK) {
+                    text = text.substring(1);
+                }
+                if (text.isBlank()) {
+                    continue;
+                }
+                if (text.length() > MAX_ROW_LENGTH) {
+                    return new Row(line, null, "Row is longer than " + MAX_ROW_LENGTH + " characters");
+                }
+                try {
+                    return new Row(line, rowReader.readValue(text), null);
+                } catch (JsonProcessingException e) {
+                    return new Row(line, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * RFC 4180 CSV; the header row names the columns, in any order and case. Quoted fields may span lines.
+     */
+    private static final class Csv extends UserImportReader {
+
+        private static final List<String> REQUIRED_COLUMNS = List.of("email", "username", "password", "name");
+
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long line = 1;
+        private int pushedBack = -1;
+        private String recordError;
+
+        Csv(BufferedReader reader) throws IOException {
+            super(reader);
+            int first = reader.read();
+            if (first != BYTE_ORDER_MARK) {
+                pushedBack = first;
+            }
+            List<String> header = readRecord();
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+            for (String column : REQUIRED_COLUMNS) {
+                if (!columns.containsKey(column)) {
+                    throw new IllegalArgumentException("CSV header lacks the " + column + " column");
+                }
+            }
+        }
+
+        @Override
+        Row next() throws IOException {
+            while (true) {
+                long start = line;
+                List<String> fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+                if (recordError != null) {
+                    return new Row(start, null, recordError);
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                UserImportRow row = new UserImportRow();
+                row.setEmail(field(fields, "email"));
+                row.setUsername(field(fields, "username"));
+                row.setPassword(field(fields, "password"));
+                row.setName(field(fields, "name"));
+                row.setPhone(field(fields, "phone"));
+                row.setDepartment(field(fields, "department"));
+                row.setPosition(field(fields, "position"));
+                row.setRole(field(fields, "role"));
+                return new Row(start, row, null);
+            }
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            return index == null || index >= fields.size() ? null : fields.get(index);
+        }
+
+        /**
+         * @return The fields of the next record, or null at the end of the upload
+         */
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordError = null;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            int length = 0;
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        recordError = "Unterminated quoted field";
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next != '"') {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                } else if (c == -1 || c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            pushedBack = next;
+                        }
+                    }
+                    if (c != -1) {
+                        line++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    c = read();
+                    continue;
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                    c = read();
+                    continue;
+                }
+                if (++length <= MAX_ROW_LENGTH) {
+                    field.append((char) c);
+                } else {
+                    recordError = "Row is longer than " + MAX_ROW_LENGTH + " characters";
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -1) {
+                int c = pushedBack;
+                pushedBack = -1;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+}
@@ -0,0 +1,555 @@
+package com.halolight.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halolight.domain.entity.Role;
+import com.halolight.domain.entity.UserImportError;
+import com.halolight.domain.entity.UserImportJob;
+import com.halolight.domain.entity.enums.UserImportStatus;
+import com.halolight.domain.entity.enums.UserStatus;
+import com.halolight.domain.repository.RoleRepository;
+import com.halolight.domain.repository.UserImportErrorRepository;
+import com.halolight.domain.repository.UserImportJobRepository;
+import com.halolight.domain.repository.UserRepository;
+import com.halolight.exception.ApiException;
+import com.halolight.web.dto.export.ExportFormat;
+import com.halolight.web.dto.userimport.UserImportJobResponse;
+import com.halolight.web.dto.userimport.UserImportRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user imports from CSV or NDJSON uploads.
+ * <p>
+ * The upload is spooled to a temporary file and imported in the background on {@code applicationTaskExecutor};
+ * the caller gets a job to poll. Rows are parsed one at a time and handled in batches:
+ * <ol>
+ *     <li>each row is validated like a registration, and checked against the other rows of its batch;</li>
+ *     <li>usernames, emails and phones of the whole batch are checked against the database with one query
+ *     each;</li>
+ *     <li>passwords are hashed in parallel on a bounded pool of the import's own, so logins keep their
+ *     {@link com.halolight.security.PasswordHasher hashing pool} to themselves;</li>
+ *     <li>users and their roles are written with batched inserts in one transaction per batch, together with the
+ *     rejected rows and the job's counters. Users created concurrently since the check are skipped by
+ *     {@code ON CONFLICT DO NOTHING} and reported as rejected.</li>
+ * </ol>
+ * Earlier batches are committed when later ones are checked, so duplicates across batches are caught by the
+ * database check. A job whose instance stops reporting progress is failed by {@link MaintenanceJobs}. Publishes
+ * {@code user.import.rows}, tagged by outcome.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (id, email, phone, username, password, name, "
+            + "status, department, position, quota_used, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String INSERT_ERROR_SQL =
+            "INSERT INTO user_import_errors (job_id, line, message) VALUES (?, ?, ?)";
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private final UserImportJobRepository jobRepository;
+    private final UserImportErrorRepository errorRepository;
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final RoleService roleService;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor importExecutor;
+    private final ThreadPoolExecutor hashExecutor;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final int batchSize;
+    private final int maxErrors;
+    private final DataSize maxUploadSize;
+
+    public UserImportService(UserImportJobRepository jobRepository,
+                             UserImportErrorRepository errorRepository,
+                             UserRepository userRepository,
+                             RoleRepository roleRepository,
+                             RoleService roleService,
+                             PasswordEncoder passwordEncoder,
+                             JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier("applicationTaskExecutor") Executor importExecutor,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.user-import.batch-size:1000}") int batchSize,
+                             @Value("${app.user-import.max-errors:1000}") int maxErrors,
+                             @Value("${app.user-import.max-upload-size:100MB}") DataSize maxUploadSize,
+                             @Value("${app.user-import.hashing-threads:0}") int hashingThreads) {
+        this.jobRepository = jobRepository;
+        this.errorRepository = errorRepository;
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.roleService = roleService;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importExecutor = importExecutor;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.maxUploadSize = maxUploadSize;
+
+        // Half the cores by default, leaving the rest to requests; when the queue is full the importing thread
+        // hashes too, which holds back parsing instead of queueing without bound
+        int poolSize = hashingThreads > 0
+                ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 16),
+                Thread.ofPlatform().name("user-import-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.importedRows = meterRegistry.counter("user.import.rows", "outcome", "imported");
+        this.rejectedRows = meterRegistry.counter("user.import.rows", "outcome", "rejected");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    /**
+     * Store an upload and start importing it in the background
+     *
+     * @param createdBy ID of the user starting the import
+     * @param body      The upload; read to the end before this returns
+     * @return The pending job
+     */
+    public UserImportJobResponse start(String createdBy, ExportFormat format, InputStream body) {
+        Path file = spool(body);
+        UserImportJob job;
+        try {
+            job = jobRepository.save(UserImportJob.builder()
+                    .createdBy(createdBy)
+                    .format(format.name())
+                    .build());
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+
+        String jobId = job.getId();
+        try {
+            importExecutor.execute(() -> run(jobId, format, file));
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(file);
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRepository.finish(jobId, UserImportStatus.FAILED, "Rejected, server busy", Instant.now()));
+            throw ApiException.serviceUnavailable("Too many background tasks, please retry shortly");
+        }
+
+        log.info("User import {} started by user: {} ({})", jobId, createdBy, format);
+        return toResponse(job, List.of());
+    }
+
+    @Transactional(readOnly = true)
+    public UserImportJobResponse getJob(String jobId) {
+        UserImportJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> ApiException.notFound("User import not found"));
+        List<UserImportError> errors = errorRepository.findByJobId(jobId, PageRequest.of(0, Math.max(1, maxErrors)));
+        return toResponse(job, errors);
+    }
+
+    private Path spool(InputStream body) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("user-import-", ".upload");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[8192];
+                long size = 0;
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxUploadSize.toBytes()) {
+                        throw new ApiException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                "Upload is larger than " + maxUploadSize.toMegabytes() + "MB");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Could not read the upload", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private void run(String jobId, ExportFormat format, Path file) {
+        long started = System.nanoTime();
+        try {
+            Integer claimed = transactionTemplate.execute(status -> jobRepository.transition(
+                    jobId, UserImportStatus.PENDING, UserImportStatus.RUNNING, Instant.now()));
+            if (claimed == null || claimed == 0) {
+                log.warn("User import {} is no longer pending, skipping it", jobId);
+                return;
+            }
+
+            ImportRun importRun = new ImportRun(jobId, roleService.ensureRole(
+                    AuthService.DEFAULT_ROLE, "User", "Default user role").getId(),
+                    roleRepository.findAll().stream()
+                            .collect(Collectors.toMap(Role::getName, Role::getId, (first, second) -> first)));
+            try (UserImportReader reader = UserImportReader.open(format, file, objectMapper)) {
+                List<UserImportReader.Row> batch = new ArrayList<>(batchSize);
+                UserImportReader.Row row;
+                while ((row = reader.next()) != null) {
+                    batch.add(row);
+                    if (batch.size() >= batchSize) {
+                        if (!importBatch(importRun, batch)) {
+                            return;
+                        }
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty() && !importBatch(importRun, batch)) {
+                    return;
+                }
+            }
+
+            finish(jobId, UserImportStatus.COMPLETED, null);
+            log.info("User import {} completed: {} imported, {} rejected in {} ms", jobId, importRun.imported,
+                    importRun.rejected, (System.nanoTime() - started) / 1_000_000);
+        } catch (IllegalArgumentException | IOException e) {
+            // The upload as a whole is unusable, e.g. a CSV header without required columns or invalid UTF-8
+            log.warn("User import {} failed: {}", jobId, e.getMessage());
+            finish(jobId, UserImportStatus.FAILED, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("User import {} failed", jobId, e);
+            finish(jobId, UserImportStatus.FAILED, "Import failed: " + e.getMessage());
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * @return false if the job was ended elsewhere, e.g. failed as stale, and the import should stop
+     */
+    private boolean importBatch(ImportRun importRun, List<UserImportReader.Row> rows) {
+        Map<Long, String> errors = new TreeMap<>();
+        List<Candidate> candidates = new ArrayList<>(rows.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (UserImportReader.Row row : rows) {
+            if (row.error() != null) {
+                errors.put(row.line(), row.error());
+                continue;
+            }
+            UserImportRow value = normalize(row.value());
+            String problem = validate(value);
+            String roleId = value.getRole() == null ? importRun.defaultRoleId : importRun.roleIds.get(value.getRole());
+            if (problem == null && roleId == null) {
+                problem = "role: unknown role " + value.getRole();
+            }
+            if (problem == null) {
+                problem = duplicate(value, usernames, emails, phones, "duplicated in upload");
+            }
+            if (problem != null) {
+                errors.put(row.line(), problem);
+            } else {
+                candidates.add(new Candidate(row.line(), value, roleId));
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                    candidates.stream().map(candidate -> candidate.row.getUsername()).toList()));
+            Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(
+                    candidates.stream().map(candidate -> candidate.row.getEmail()).toList()));
+            List<String> candidatePhones = candidates.stream()
+                    .map(candidate -> candidate.row.getPhone())
+                    .filter(phone -> phone != null)
+                    .toList();
+            Set<String> takenPhones = candidatePhones.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(userRepository.findExistingPhones(candidatePhones));
+            candidates.removeIf(candidate -> {
+                String problem = duplicate(candidate.row, takenUsernames, takenEmails, takenPhones);
+                if (problem != null) {
+                    errors.put(candidate.line, problem);
+                }
+                return problem != null;
+            });
+        }
+
+        hashPasswords(candidates);
+
+        Boolean running = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            Timestamp timestamp = Timestamp.from(now);
+            List<Candidate> inserted = new ArrayList<>(candidates.size());
+            if (!candidates.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate(INSERT_USER_SQL, candidates, candidates.size(),
+                        (ps, candidate) -> {
+                            UserImportRow row = candidate.row;
+                            ps.setString(1, candidate.id);
+                            ps.setString(2, row.getEmail());
+                            ps.setString(3, row.getPhone());
+                            ps.setString(4, row.getUsername());
+                            ps.setString(5, candidate.passwordHash);
+                            ps.setString(6, row.getName());
+                            ps.setString(7, UserStatus.ACTIVE.name());
+                            ps.setString(8, row.getDepartment());
+                            ps.setString(9, row.getPosition());
+                            ps.setTimestamp(10, timestamp);
+                            ps.setTimestamp(11, timestamp);
+                        })[0];
+                for (int i = 0; i < candidates.size(); i++) {
+                    if (counts[i] == 0) {
+                        errors.put(candidates.get(i).line, "username, email or phone: already exists");
+                    } else {
+                        inserted.add(candidates.get(i));
+                    }
+                }
+            }
+            if (!inserted.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, inserted, inserted.size(), (ps, candidate) -> {
+                    ps.setString(1, candidate.id);
+                    ps.setString(2, candidate.roleId);
+                });
+            }
+
+            // Counters always cover every rejected row; only the first max-errors are kept for the report
+            List<Map.Entry<Long, String>> kept = errors.entrySet().stream()
+                    .limit(Math.max(0, maxErrors - importRun.storedErrors))
+                    .toList();
+            if (!kept.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ERROR_SQL, kept, kept.size(), (ps, error) -> {
+                    ps.setString(1, importRun.jobId);
+                    ps.setLong(2, error.getKey());
+                    ps.setString(3, truncate(error.getValue()));
+                });
+            }
+
+            if (jobRepository.recordProgress(importRun.jobId, rows.size(), inserted.size(), errors.size(), now) == 0) {
+                status.setRollbackOnly();
+                return false;
+            }
+            importRun.storedErrors += kept.size();
+            importRun.imported += inserted.size();
+            importRun.rejected += errors.size();
+            importedRows.increment(inserted.size());
+            rejectedRows.increment(errors.size());
+            return true;
+        });
+        if (!Boolean.TRUE.equals(running)) {
+            log.warn("User import {} was ended elsewhere, stopping", importRun.jobId);
+            return false;
+        }
+        return true;
+    }
+
+    private void hashPasswords(List<Candidate> candidates) {
+        List<Future<String>> futures = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            futures.add(hashExecutor.submit(() -> passwordEncoder.encode(candidate.row.getPassword())));
+        }
+        try {
+            for (int i = 0; i < candidates.size(); i++) {
+                candidates.get(i).passwordHash = futures.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Trims the fields the way registration input arrives; empty optional fields become null
+     */
+    private static UserImportRow normalize(UserImportRow row) {
+        row.setEmail(trimToNull(row.getEmail()));
+        row.setUsername(trimToNull(row.getUsername()));
+        row.setName(trimToNull(row.getName()));
+        // Passwords are taken as they are, only an empty cell counts as missing
+        if (row.getPassword() != null && row.getPassword().isEmpty()) {
+            row.setPassword(null);
+        }
+        row.setPhone(trimToNull(row.getPhone()));
+        row.setDepartment(trimToNull(row.getDepartment()));
+        row.setPosition(trimToNull(row.getPosition()));
+        row.setRole(trimToNull(row.getRole()));
+        return row;
+    }
+
+    private String validate(UserImportRow row) {
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Checks a row's unique fields against values seen before and adds them when there is no clash
+     */
+    private static String duplicate(UserImportRow row, Set<String> usernames, Set<String> emails,
+                                    Set<String> phones, String reason) {
+        String problem = duplicate(row, usernames, emails, phones);
+        if (problem != null) {
+            return problem.replace("already exists", reason);
+        }
+        usernames.add(row.getUsername());
+        emails.add(row.getEmail());
+        if (row.getPhone() != null) {
+            phones.add(row.getPhone());
+        }
+        return null;
+    }
+
+    private static String duplicate(UserImportRow row, Set<String> usernames, Set<String> emails,
+                                    Set<String> phones) {
+        if (usernames.contains(row.getUsername())) {
+            return "username: already exists";
+        }
+        if (emails.contains(row.getEmail())) {
+            return "email: already exists";
+        }
+        if (row.getPhone() != null && phones.contains(row.getPhone())) {
+            return "phone: already exists";
+        }
+        return null;
+    }
+
+    private void finish(String jobId, UserImportStatus status, String message) {
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    jobRepository.finish(jobId, status, message, Instant.now()));
+        } catch (RuntimeException e) {
+            log.error("Could not record the end of user import {}", jobId, e);
+        }
+    }
+
+    private static UserImportJobResponse toResponse(UserImportJob job, List<UserImportError> errors) {
+        return UserImportJobResponse.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .format(job.getFormat())
+                .totalRows(job.getTotalRows())
+                .importedRows(job.getImportedRows())
+                .failedRows(job.getFailedRows())
+                .message(job.getMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .errors(errors.stream()
+                        .map(error -> UserImportJobResponse.RowError.builder()
+                                .line(error.getId().getLine())
+                                .message(error.getMessage())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private static String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_MESSAGE_LENGTH ? message : message.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+
+    /**
+     * State of one import across its batches
+     */
+    private static final class ImportRun {
+
+        private final String jobId;
+        private final String defaultRoleId;
+        private final Map<String, String> roleIds;
+        private long storedErrors;
+        private long imported;
+        private long rejected;
+
+        private ImportRun(String jobId, String defaultRoleId, Map<String, String> roleIds) {
+            this.jobId = jobId;
+            this.defaultRoleId = defaultRoleId;
+            this.roleIds = roleIds;
+        }
+    }
+
+    /**
+     * A valid row about to be inserted
+     */
+    private static final class Candidate {
+
+        private final long line;
+        private final UserImportRow row;
+        private final String roleId;
+        private final String id = UUID.randomUUID().toString().replace("-", "").substring(0, 25);
+        private String passwordHash;
+
+        private Candidate(long line, UserImportRow row, String roleId) {
+            this.line = line;
+            this.row = row;
+            this.roleId = roleId;
+        }
+    }
+}
@@ -5,14 +5,15 @@ import com.halolight.domain.entity.enums.UserStatus;
 import com.halolight.domain.repository.UserRepository;
 import com.halolight.dto.UserDTO;
 import com.halolight.exception.ResourceNotFoundException;
-import lombok.RequiredArgsConstructor;
+import com.halolight.security.PasswordHasher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -23,11 +24,19 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserService(UserRepository userRepository,
+                       PasswordHasher passwordHasher,
+                       PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Transactional(readOnly = true)
     public UserDTO getCurrentAuthenticatedUser() {
@@ -158,18 +167,30 @@ public class UserService {
         return count;
     }
 
-    @Transactional
+    /**
+     * Both hashes are computed outside the transaction, so no connection is held while they queue for a hashing
+     * thread; the change is rejected if the password was changed concurrently in between.
+     */
     public void changePassword(String id, String oldPassword, String newPassword) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        String verifiedHash = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id))
+                .getPassword();
 
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordHasher.matches(oldPassword, verifiedHash)) {
             throw new IllegalArgumentException("Old password is incorrect");
         }
+        String encodedPassword = passwordHasher.encode(newPassword);
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
-        log.info("Password changed for user: {}", user.getUsername());
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+            if (!verifiedHash.equals(user.getPassword())) {
+                throw new IllegalArgumentException("Old password is incorrect");
+            }
+            user.setPassword(encodedPassword);
+            userRepository.save(user);
+            log.info("Password changed for user: {}", user.getUsername());
+        });
     }
 
     @Transactional(readOnly = true)
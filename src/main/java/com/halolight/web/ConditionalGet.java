@@ -0,0 +1,42 @@
+package com.halolight.web;
+
+import com.halolight.dto.ContentVersion;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET against a {@link ContentVersion} read before the response body is loaded:
+ * <pre>
+ * if (ConditionalGet.notModified(request, userId, version)) {
+ *     return null; // 304 Not Modified
+ * }
+ * </pre>
+ * The client's copy is current when {@code If-None-Match} matches the version's tag or, for versions with a date
+ * and requests without {@code If-None-Match}, when {@code If-Modified-Since} is not older. Both outcomes carry the
+ * validators and {@code Cache-Control: private, no-cache}, which lets clients keep the body and revalidate it on
+ * every use instead of Spring Security's default of not storing it at all.
+ */
+public final class ConditionalGet {
+
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * @param scope Whom the body is built for, see {@link ContentVersion#eTag}
+     * @return true if the response has been turned into a 304 and the handler should return without a body
+     */
+    public static boolean notModified(ServletWebRequest request, String scope, ContentVersion version) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        }
+        String eTag = version.eTag(scope);
+        return version.lastModified() == null
+                ? request.checkNotModified(eTag)
+                : request.checkNotModified(eTag, version.lastModified().toEpochMilli());
+    }
+}
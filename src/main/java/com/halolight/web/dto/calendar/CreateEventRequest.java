@@ -3,6 +3,7 @@ package com.halolight.web.dto.calendar;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -37,6 +38,18 @@ public class CreateEventRequest {
 
     private String teamId;
 
+    /**
+     * RFC 5545 RRULE, e.g. FREQ=WEEKLY;BYDAY=MO,WE;COUNT=10
+     */
+    @Size(max = 255, message = "重复规则长度不能超过255个字符")
+    private String recurrenceRule;
+
+    /**
+     * IANA time zone the rule is evaluated in, e.g. Asia/Shanghai; UTC when omitted
+     */
+    @Size(max = 64, message = "时区长度不能超过64个字符")
+    private String recurrenceTimeZone;
+
     @Valid
     private List<AttendeeRequest> attendees;
 
@@ -10,7 +10,7 @@ import java.time.Instant;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class EventResponse {
@@ -25,6 +25,10 @@ public class EventResponse {
     private String color;
     private String organizerId;
     private String teamId;
+    private String recurrenceRule;
+    private String recurrenceTimeZone;
+    private Instant recurrenceEnd;
+    private Instant originalStartTime;
     private Instant createdAt;
     private Instant updatedAt;
     private OrganizerInfo organizer;
@@ -0,0 +1,31 @@
+package com.halolight.web.dto.calendar;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeBusyResponse {
+
+    private Instant start;
+    private Instant end;
+    private Integer participantCount;
+    private List<Interval> busy;
+    private List<Interval> free;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Interval {
+        private Instant start;
+        private Instant end;
+    }
+}
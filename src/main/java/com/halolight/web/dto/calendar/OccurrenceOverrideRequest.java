@@ -0,0 +1,32 @@
+package com.halolight.web.dto.calendar;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccurrenceOverrideRequest {
+
+    @NotNull(message = "原始开始时间不能为空")
+    private Instant originalStartTime;
+
+    @Builder.Default
+    private Boolean cancelled = false;
+
+    private String title;
+
+    private String description;
+
+    private String location;
+
+    private Instant startTime;
+
+    private Instant endTime;
+}
@@ -0,0 +1,19 @@
+package com.halolight.web.dto.export;
+
+import java.time.Instant;
+
+/**
+ * One activity log entry in an export
+ */
+public record ActivityLogExportRow(
+        String id,
+        String userId,
+        String action,
+        String resourceType,
+        String resourceId,
+        String details,
+        String ipAddress,
+        String userAgent,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,20 @@
+package com.halolight.web.dto.export;
+
+import java.math.BigInteger;
+import java.time.Instant;
+
+/**
+ * Metadata of one document in an export, without its content
+ */
+public record DocumentExportRow(
+        String id,
+        String title,
+        String folder,
+        String type,
+        BigInteger size,
+        Integer views,
+        String teamId,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
@@ -0,0 +1,31 @@
+package com.halolight.web.dto.export;
+
+/**
+ * Format of an export, or of a bulk user import upload
+ */
+public enum ExportFormat {
+    /**
+     * One JSON object per line
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /**
+     * RFC 4180 CSV with a header row
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,18 @@
+package com.halolight.web.dto.export;
+
+import java.time.Instant;
+
+/**
+ * One notification in an export
+ */
+public record NotificationExportRow(
+        String id,
+        String type,
+        String title,
+        String message,
+        Boolean isRead,
+        Instant readAt,
+        String actionUrl,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,23 @@
+package com.halolight.web.dto.export;
+
+import com.halolight.domain.entity.enums.UserStatus;
+
+import java.time.Instant;
+
+/**
+ * One user in an export; credentials and profile text are left out
+ */
+public record UserExportRow(
+        String id,
+        String username,
+        String email,
+        String name,
+        String phone,
+        UserStatus status,
+        String department,
+        String position,
+        Instant lastLoginAt,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
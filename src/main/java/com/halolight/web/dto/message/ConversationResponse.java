@@ -17,4 +17,5 @@ public class ConversationResponse {
     private Instant createdAt;
     private Instant updatedAt;
     private MessageResponse lastMessage;
+    private Integer unreadCount;
 }
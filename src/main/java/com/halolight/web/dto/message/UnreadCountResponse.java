@@ -0,0 +1,10 @@
+package com.halolight.web.dto.message;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class UnreadCountResponse {
+    private Long count;
+}
@@ -0,0 +1,64 @@
+package com.halolight.web.dto.sync;
+
+import com.halolight.domain.entity.enums.SyncEntityType;
+import com.halolight.web.dto.document.DocumentResponse;
+import com.halolight.web.dto.file.FileResponse;
+import com.halolight.web.dto.folder.FolderResponse;
+import com.halolight.web.dto.notification.NotificationResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Delta sync response DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Delta sync response")
+public class SyncResponse {
+
+    @Schema(description = "Change token to pass as since on the next call", example = "1024")
+    private Long token;
+
+    @Schema(description = "The given token cannot be answered with changes; reload the full lists, then sync from "
+            + "the returned token", example = "false")
+    private Boolean reset;
+
+    @Schema(description = "More changes follow; call again with the returned token", example = "false")
+    private Boolean hasMore;
+
+    @Schema(description = "Created or updated files")
+    private List<FileResponse> files;
+
+    @Schema(description = "Created or updated folders")
+    private List<FolderResponse> folders;
+
+    @Schema(description = "Created or updated documents")
+    private List<DocumentResponse> documents;
+
+    @Schema(description = "Created or updated notifications")
+    private List<NotificationResponse> notifications;
+
+    @Schema(description = "Deleted entities")
+    private List<Tombstone> deleted;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Deleted entity")
+    public static class Tombstone {
+
+        @Schema(description = "Entity type", example = "FILE")
+        private SyncEntityType type;
+
+        @Schema(description = "Entity ID", example = "file_123")
+        private String id;
+    }
+}
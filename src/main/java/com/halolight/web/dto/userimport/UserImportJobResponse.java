@@ -0,0 +1,66 @@
+package com.halolight.web.dto.userimport;
+
+import com.halolight.domain.entity.enums.UserImportStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Bulk user import status response DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk user import status")
+public class UserImportJobResponse {
+
+    @Schema(description = "Import ID")
+    private String id;
+
+    @Schema(description = "Import status", example = "RUNNING")
+    private UserImportStatus status;
+
+    @Schema(description = "Upload format", example = "CSV")
+    private String format;
+
+    @Schema(description = "Rows read so far", example = "12000")
+    private Long totalRows;
+
+    @Schema(description = "Users created so far", example = "11990")
+    private Long importedRows;
+
+    @Schema(description = "Rows rejected so far", example = "10")
+    private Long failedRows;
+
+    @Schema(description = "Why the import as a whole failed")
+    private String message;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    @Schema(description = "Rejected rows in line order; at most app.user-import.max-errors are kept")
+    private List<RowError> errors;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Rejected row")
+    public static class RowError {
+
+        @Schema(description = "Line of the upload the row starts on", example = "42")
+        private Long line;
+
+        @Schema(description = "Why the row was rejected", example = "username: already exists")
+        private String message;
+    }
+}
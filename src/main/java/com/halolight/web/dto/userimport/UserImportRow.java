@@ -0,0 +1,39 @@
+package com.halolight.web.dto.userimport;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * One user of a bulk import: a CSV row or an NDJSON line. Validated like a registration.
+ */
+@Data
+public class UserImportRow {
+
+    @NotBlank(message = "邮箱不能为空")
+    @Email(message = "邮箱格式不正确")
+    private String email;
+
+    @NotBlank(message = "用户名不能为空")
+    @Size(min = 2, max = 50, message = "用户名长度2-50个字符")
+    private String username;
+
+    @NotBlank(message = "密码不能为空")
+    @Size(min = 6, message = "密码至少6位")
+    private String password;
+
+    @NotBlank(message = "姓名不能为空")
+    private String name;
+
+    private String phone;
+
+    private String department;
+
+    private String position;
+
+    /**
+     * Name of the role to grant; the default user role when empty
+     */
+    private String role;
+}
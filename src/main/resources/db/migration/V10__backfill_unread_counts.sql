@@ -0,0 +1,15 @@
+-- conversation_participants.unread_count was added with a default of 0 (V2); count the messages each participant
+-- has not read yet, then bring counter rows created in the meantime in line with it.
+update conversation_participants cp
+set unread_count = (select count(*) from messages m
+                    where m.conversation_id = cp.conversation_id
+                      and m.sender_id <> cp.user_id
+                      and m.created_at > coalesce(cp.last_read_at, cp.joined_at))
+where exists (select 1 from messages m
+              where m.conversation_id = cp.conversation_id
+                and m.sender_id <> cp.user_id
+                and m.created_at > coalesce(cp.last_read_at, cp.joined_at));
+
+update unread_counters u
+set messages = (select coalesce(sum(cp.unread_count), 0) from conversation_participants cp
+                where cp.user_id = u.user_id);
@@ -0,0 +1,4 @@
+-- Every refresh token row is updated once, when it is revoked. Free space in each page lets that update stay on
+-- the page as a HOT update, which writes no new entries into the token_hash, family and user indexes. Applies to
+-- pages written from now on; existing pages follow as refresh tokens expire and are purged.
+alter table refresh_tokens set (fillfactor = 90);
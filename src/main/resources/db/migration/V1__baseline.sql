@@ -0,0 +1,426 @@
+-- Baseline: the schema Hibernate generated from the entities while it was managed with ddl-auto update.
+-- Databases created that way are baselined at this version (spring.flyway.baseline-on-migrate) and brought
+-- up to date by V2; new databases start here.
+
+create table activity_logs (
+    created_at timestamp(6) with time zone not null,
+    id varchar(40) not null,
+    resource_id varchar(40),
+    user_id varchar(40),
+    ip_address varchar(45),
+    action varchar(50) not null,
+    resource_type varchar(50) not null,
+    details text,
+    user_agent varchar(255),
+    primary key (id)
+);
+
+create table calendar_events (
+    all_day boolean not null,
+    created_at timestamp(6) with time zone not null,
+    end_time timestamp(6) with time zone not null,
+    recurrence_end timestamp(6) with time zone,
+    start_time timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    color varchar(20),
+    id varchar(40) not null,
+    organizer_id varchar(40) not null,
+    team_id varchar(40),
+    description text,
+    location varchar(255),
+    recurrence_rule varchar(255),
+    title varchar(255) not null,
+    primary key (id)
+);
+
+create table conversation_participants (
+    unread_count integer default 0 not null,
+    joined_at timestamp(6) with time zone not null,
+    last_read_at timestamp(6) with time zone,
+    conversation_id varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (conversation_id, user_id)
+);
+
+create table conversations (
+    is_group boolean not null,
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    id varchar(40) not null,
+    team_id varchar(40),
+    name varchar(255),
+    primary key (id)
+);
+
+create table document_access (
+    expires_at timestamp(6) with time zone,
+    permission varchar(20) not null check (permission in ('READ','EDIT','COMMENT')),
+    document_id varchar(40) not null,
+    user_id varchar(40) not null,
+    primary key (document_id, user_id)
+);
+
+create table document_shares (
+    created_at timestamp(6) with time zone not null,
+    expires_at timestamp(6) with time zone,
+    permission varchar(20) not null check (permission in ('READ','EDIT','COMMENT')),
+    document_id varchar(40) not null,
+    id varchar(40) not null,
+    shared_with_id varchar(40),
+    team_id varchar(40),
+    primary key (id)
+);
+
+create table document_tags (
+    document_id varchar(255) not null,
+    tag_id varchar(255) not null,
+    primary key (document_id, tag_id)
+);
+
+create table documents (
+    size numeric(38,0) not null,
+    views integer not null,
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    id varchar(40) not null,
+    owner_id varchar(40) not null,
+    team_id varchar(40),
+    content text not null,
+    folder varchar(255),
+    title varchar(255) not null,
+    type varchar(255) not null,
+    primary key (id)
+);
+
+create table event_attendees (
+    responded_at timestamp(6) with time zone,
+    status varchar(20) not null check (status in ('PENDING','ACCEPTED','DECLINED')),
+    event_id varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (event_id, user_id)
+);
+
+create table event_occurrence_overrides (
+    cancelled boolean not null,
+    created_at timestamp(6) with time zone not null,
+    end_time timestamp(6) with time zone,
+    original_start timestamp(6) with time zone not null,
+    start_time timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone not null,
+    event_id varchar(40) not null,
+    id varchar(40) not null,
+    description text,
+    location varchar(255),
+    title varchar(255),
+    primary key (id),
+    constraint uk_occurrence_overrides_event_start unique (event_id, original_start)
+);
+
+create table event_reminders (
+    sent boolean not null,
+    created_at timestamp(6) with time zone not null,
+    remind_at timestamp(6) with time zone not null,
+    type varchar(20) not null,
+    event_id varchar(40) not null,
+    id varchar(40) not null,
+    primary key (id)
+);
+
+create table files (
+    size numeric(38,0) not null,
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    folder_id varchar(40),
+    id varchar(40) not null,
+    owner_id varchar(40) not null,
+    team_id varchar(40),
+    name varchar(255) not null,
+    path varchar(255) not null,
+    type varchar(255) not null,
+    primary key (id)
+);
+
+create table folders (
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    id varchar(40) not null,
+    owner_id varchar(40) not null,
+    parent_id varchar(40),
+    team_id varchar(40),
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table job_leases (
+    leased_until timestamp(6) with time zone not null,
+    name varchar(100) not null,
+    owner varchar(100),
+    primary key (name)
+);
+
+create table messages (
+    is_edited boolean not null,
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    type varchar(20),
+    conversation_id varchar(40) not null,
+    id varchar(40) not null,
+    sender_id varchar(40) not null,
+    content text not null,
+    primary key (id)
+);
+
+create table notifications (
+    is_read boolean not null,
+    created_at timestamp(6) with time zone not null,
+    read_at timestamp(6) with time zone,
+    id varchar(40) not null,
+    user_id varchar(40) not null,
+    type varchar(50) not null,
+    action_url varchar(255),
+    message text not null,
+    title varchar(255) not null,
+    primary key (id)
+);
+
+create table permissions (
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    id varchar(40) not null,
+    action varchar(255) not null,
+    description varchar(255),
+    resource varchar(255) not null,
+    primary key (id),
+    constraint uk_permissions_resource_action unique (resource, action)
+);
+
+create table refresh_tokens (
+    is_revoked boolean not null,
+    created_at timestamp(6) with time zone not null,
+    expires_at timestamp(6) with time zone not null,
+    family_id varchar(40) not null,
+    id varchar(40) not null,
+    user_id varchar(40) not null,
+    ip_address varchar(45),
+    token_hash varchar(64) not null unique,
+    device_info varchar(255),
+    primary key (id)
+);
+
+create table role_permissions (
+    permission_id varchar(255) not null,
+    role_id varchar(255) not null,
+    primary key (permission_id, role_id)
+);
+
+create table roles (
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    id varchar(40) not null,
+    description varchar(255),
+    label varchar(255) not null,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table tags (
+    created_at timestamp(6) with time zone not null,
+    id varchar(40) not null,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table team_members (
+    joined_at timestamp(6) with time zone not null,
+    role_id varchar(40),
+    team_id varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (team_id, user_id)
+);
+
+create table teams (
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    id varchar(40) not null,
+    owner_id varchar(40) not null,
+    avatar varchar(255),
+    description varchar(255),
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table unread_counters (
+    messages bigint not null,
+    notifications bigint not null,
+    updated_at timestamp(6) with time zone not null,
+    user_id varchar(40) not null,
+    primary key (user_id)
+);
+
+create table user_roles (
+    role_id varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (role_id, user_id)
+);
+
+create table users (
+    quota_used numeric(38,0) not null,
+    created_at timestamp(6) with time zone not null,
+    last_login_at timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone not null,
+    status varchar(20) not null check (status in ('ACTIVE','INACTIVE','SUSPENDED')),
+    id varchar(40) not null,
+    avatar varchar(255),
+    bio text,
+    department varchar(255),
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone varchar(255),
+    position varchar(255),
+    username varchar(255) not null,
+    primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_username unique (username),
+    constraint uk_users_phone unique (phone)
+);
+
+create index idx_activity_user on activity_logs (user_id);
+create index idx_activity_resource on activity_logs (resource_type, resource_id);
+create index idx_activity_created on activity_logs (created_at);
+create index idx_events_organizer on calendar_events (organizer_id);
+create index idx_events_team on calendar_events (team_id);
+create index idx_events_start on calendar_events (start_time);
+create index idx_events_end on calendar_events (end_time);
+create index idx_events_recurrence_end on calendar_events (recurrence_end);
+create index idx_conversations_team on conversations (team_id);
+create index idx_conversations_updated on conversations (updated_at);
+create index idx_document_access_user on document_access (user_id, document_id);
+create index idx_document_shares_document on document_shares (document_id);
+create index idx_document_shares_user on document_shares (shared_with_id);
+create index idx_documents_owner on documents (owner_id);
+create index idx_documents_team on documents (team_id);
+create index idx_documents_folder on documents (folder);
+create index idx_occurrence_overrides_start on event_occurrence_overrides (start_time);
+create index idx_reminders_event on event_reminders (event_id);
+create index idx_reminders_remind_at on event_reminders (remind_at);
+create index idx_files_owner on files (owner_id);
+create index idx_files_folder on files (folder_id);
+create index idx_files_team on files (team_id);
+create index idx_folders_owner on folders (owner_id);
+create index idx_folders_parent on folders (parent_id);
+create index idx_folders_team on folders (team_id);
+create index idx_messages_conversation on messages (conversation_id);
+create index idx_messages_sender on messages (sender_id);
+create index idx_messages_created on messages (created_at);
+create index idx_notifications_user on notifications (user_id);
+create index idx_notifications_read on notifications (is_read);
+create index idx_notifications_created on notifications (created_at);
+create index idx_permissions_action on permissions (action);
+create index idx_refresh_tokens_user on refresh_tokens (user_id);
+create index idx_refresh_tokens_family on refresh_tokens (family_id);
+create index idx_refresh_tokens_expires on refresh_tokens (expires_at);
+create index idx_users_email on users (email);
+create index idx_users_username on users (username);
+
+alter table activity_logs
+    add constraint FK5bm1lt4f4eevt8lv2517soakd foreign key (user_id) references users;
+
+alter table calendar_events
+    add constraint FKnom8jhclyha0s0r1piplv6uiu foreign key (organizer_id) references users;
+
+alter table calendar_events
+    add constraint FKdw0rgfx7x2eb8rrabts5hinpg foreign key (team_id) references teams;
+
+alter table conversation_participants
+    add constraint FK84npv3fo2vwl7ut63im0p417q foreign key (conversation_id) references conversations;
+
+alter table conversation_participants
+    add constraint FKjukjgq6uinvvk4307y8u9lixu foreign key (user_id) references users;
+
+alter table conversations
+    add constraint FKnee6vqrmrtbno7ctpmf0gj9bf foreign key (team_id) references teams;
+
+alter table document_shares
+    add constraint FK2q6i3ymobf720h0xq3gdvhabn foreign key (document_id) references documents;
+
+alter table document_shares
+    add constraint FKkgqudvy9yibycdw89nxhf0an0 foreign key (shared_with_id) references users;
+
+alter table document_shares
+    add constraint FKbwhl2a7qydakyxlh8cmpr0y5t foreign key (team_id) references teams;
+
+alter table document_tags
+    add constraint FKc99c5qjulwx9gru07yrhicgd2 foreign key (document_id) references documents;
+
+alter table document_tags
+    add constraint FKaurbdl9yo1wsoereckcwejrxs foreign key (tag_id) references tags;
+
+alter table documents
+    add constraint FKoduxo6gl9tkyx39jo5kue60bq foreign key (owner_id) references users;
+
+alter table documents
+    add constraint FKdfea66d2xu89y2t8508ij054a foreign key (team_id) references teams;
+
+alter table event_attendees
+    add constraint FKj2tj3klyc22ipih72m42elllj foreign key (event_id) references calendar_events;
+
+alter table event_attendees
+    add constraint FK3mumymyj0ryrrywpf5ivgnf1f foreign key (user_id) references users;
+
+alter table event_occurrence_overrides
+    add constraint FKcqa0vl0wkl603cfq6f1b3bybo foreign key (event_id) references calendar_events;
+
+alter table event_reminders
+    add constraint FKejanmx779h1we018thxki66wa foreign key (event_id) references calendar_events;
+
+alter table files
+    add constraint FKe9awb46i258gxwjtbjprmtpmi foreign key (folder_id) references folders;
+
+alter table files
+    add constraint FKndbd0r86rsovslrthjrgl960x foreign key (owner_id) references users;
+
+alter table files
+    add constraint FK9rgu9ie2vbw2iec9h6b4d4sf6 foreign key (team_id) references teams;
+
+alter table folders
+    add constraint FK5b5p96ewk9msg1omqhl0vttop foreign key (owner_id) references users;
+
+alter table folders
+    add constraint FKqcp836dgme9195j0wy9v3b6o3 foreign key (parent_id) references folders;
+
+alter table folders
+    add constraint FK2lg59t0oxv3469c2nhyr25dok foreign key (team_id) references teams;
+
+alter table messages
+    add constraint FKt492th6wsovh1nush5yl5jj8e foreign key (conversation_id) references conversations;
+
+alter table messages
+    add constraint FK4ui4nnwntodh6wjvck53dbk9m foreign key (sender_id) references users;
+
+alter table notifications
+    add constraint FK9y21adhxn0ayjhfocscqox7bh foreign key (user_id) references users;
+
+alter table refresh_tokens
+    add constraint FK1lih5y2npsf8u5o3vhdb9y0os foreign key (user_id) references users;
+
+alter table role_permissions
+    add constraint FKegdk29eiy7mdtefy5c7eirr6e foreign key (permission_id) references permissions;
+
+alter table role_permissions
+    add constraint FKn5fotdgk8d1xvo8nav9uv3muc foreign key (role_id) references roles;
+
+alter table team_members
+    add constraint FKtgca08el3ofisywcf11f0f76t foreign key (team_id) references teams;
+
+alter table team_members
+    add constraint FKee8x7x5026imwmma9kndkxs36 foreign key (user_id) references users;
+
+alter table teams
+    add constraint FKde03in0noals71lom04bmfgit foreign key (owner_id) references users;
+
+alter table user_roles
+    add constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles;
+
+alter table user_roles
+    add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users;
@@ -0,0 +1,119 @@
+-- Catch-up for databases baselined at V1 from a ddl-auto update schema that predates parts of V1.
+-- Every statement checks before it changes anything, so on databases created by V1 this migration is a no-op.
+
+-- Recurring events
+alter table calendar_events add column if not exists recurrence_rule varchar(255);
+alter table calendar_events add column if not exists recurrence_end timestamp(6) with time zone;
+create index if not exists idx_events_recurrence_end on calendar_events (recurrence_end);
+
+create table if not exists event_occurrence_overrides (
+    cancelled boolean not null,
+    created_at timestamp(6) with time zone not null,
+    end_time timestamp(6) with time zone,
+    original_start timestamp(6) with time zone not null,
+    start_time timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone not null,
+    event_id varchar(40) not null,
+    id varchar(40) not null,
+    description text,
+    location varchar(255),
+    title varchar(255),
+    primary key (id),
+    constraint uk_occurrence_overrides_event_start unique (event_id, original_start)
+);
+create index if not exists idx_occurrence_overrides_start on event_occurrence_overrides (start_time);
+
+do $$
+begin
+    if not exists (select 1 from pg_constraint
+                   where conrelid = 'event_occurrence_overrides'::regclass and contype = 'f') then
+        alter table event_occurrence_overrides
+            add constraint FKcqa0vl0wkl603cfq6f1b3bybo foreign key (event_id) references calendar_events;
+    end if;
+end $$;
+
+-- Document access for teams
+create table if not exists document_access (
+    expires_at timestamp(6) with time zone,
+    permission varchar(20) not null check (permission in ('READ','EDIT','COMMENT')),
+    document_id varchar(40) not null,
+    user_id varchar(40) not null,
+    primary key (document_id, user_id)
+);
+create index if not exists idx_document_access_user on document_access (user_id, document_id);
+
+-- Scheduled job leases and unread counters
+create table if not exists job_leases (
+    leased_until timestamp(6) with time zone not null,
+    name varchar(100) not null,
+    owner varchar(100),
+    primary key (name)
+);
+
+create table if not exists unread_counters (
+    messages bigint not null,
+    notifications bigint not null,
+    updated_at timestamp(6) with time zone not null,
+    user_id varchar(40) not null,
+    primary key (user_id)
+);
+
+alter table conversation_participants add column if not exists unread_count integer default 0 not null;
+
+-- Refresh tokens are stored as hashes grouped in rotation families. Plain tokens still in the table are hashed
+-- the way JwtTokenProvider.hashRefreshToken does, so issued tokens keep working; each starts its own family.
+alter table refresh_tokens add column if not exists token_hash varchar(64);
+alter table refresh_tokens add column if not exists family_id varchar(40);
+
+do $$
+begin
+    if exists (select 1 from information_schema.columns
+               where table_schema = current_schema() and table_name = 'refresh_tokens' and column_name = 'token') then
+        update refresh_tokens
+        set token_hash = coalesce(token_hash, encode(sha256(convert_to(token, 'UTF8')), 'hex')),
+            family_id = coalesce(family_id, id);
+        alter table refresh_tokens drop column token;
+    end if;
+end $$;
+
+alter table refresh_tokens alter column token_hash set not null;
+alter table refresh_tokens alter column family_id set not null;
+
+do $$
+begin
+    if not exists (select 1 from pg_constraint c
+                   join pg_attribute a on a.attrelid = c.conrelid and a.attnum = c.conkey[1]
+                   where c.conrelid = 'refresh_tokens'::regclass and c.contype = 'u'
+                     and cardinality(c.conkey) = 1 and a.attname = 'token_hash') then
+        alter table refresh_tokens add constraint refresh_tokens_token_hash_key unique (token_hash);
+    end if;
+end $$;
+create index if not exists idx_refresh_tokens_family on refresh_tokens (family_id);
+
+-- Duplicate registrations are reported by the name of the violated constraint (uk_users_email, uk_users_username,
+-- uk_users_phone); ddl-auto generated hash names for them.
+do $$
+declare
+    col text;
+    wanted text;
+    existing text;
+begin
+    foreach col in array array['email', 'username', 'phone'] loop
+        wanted := 'uk_users_' || col;
+        for existing in
+            select c.conname from pg_constraint c
+            join pg_attribute a on a.attrelid = c.conrelid and a.attnum = c.conkey[1]
+            where c.conrelid = 'users'::regclass and c.contype = 'u'
+              and cardinality(c.conkey) = 1 and a.attname = col and c.conname <> wanted
+        loop
+            if exists (select 1 from pg_constraint where conrelid = 'users'::regclass and conname = wanted) then
+                execute format('alter table users drop constraint %I', existing);
+            else
+                execute format('alter table users rename constraint %I to %I', existing, wanted);
+            end if;
+        end loop;
+        if not exists (select 1 from pg_constraint where conrelid = 'users'::regclass and conname = wanted) then
+            execute format('alter table users add constraint %I unique (%I)', wanted, col);
+        end if;
+    end loop;
+end $$;
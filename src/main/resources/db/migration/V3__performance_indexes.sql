@@ -0,0 +1,33 @@
+-- Indexes for the hot queries that @Index cannot express (partial indexes) or that replace single-column ones.
+-- Built concurrently so the tables stay writable, which makes Flyway run this migration outside a transaction.
+-- A concurrent build that fails leaves an INVALID index behind: drop it before running the migration again.
+
+-- Notification list, unread count and mark-all-read: one user's rows by read state, newest first
+create index concurrently if not exists idx_notifications_user_read_created on notifications (user_id, is_read, created_at);
+drop index concurrently if exists idx_notifications_user;
+drop index concurrently if exists idx_notifications_read;
+
+-- Message history and the latest message of each conversation
+create index concurrently if not exists idx_messages_conversation_created on messages (conversation_id, created_at);
+drop index concurrently if exists idx_messages_conversation;
+
+-- Activity feeds of a user and of a resource, newest first
+create index concurrently if not exists idx_activity_user_created on activity_logs (user_id, created_at);
+create index concurrently if not exists idx_activity_resource_created on activity_logs (resource_type, resource_id, created_at);
+drop index concurrently if exists idx_activity_user;
+drop index concurrently if exists idx_activity_resource;
+
+-- Reminder dispatch only looks at unsent reminders, a small and shrinking part of the table
+create index concurrently if not exists idx_reminders_due on event_reminders (remind_at) where sent = false;
+drop index concurrently if exists idx_reminders_remind_at;
+
+-- Expired share purge (MaintenanceJobs); most shares never expire
+create index concurrently if not exists idx_document_shares_expires on document_shares (expires_at) where expires_at is not null;
+
+-- Shares of a team, and lookups by the second column of a composite primary key
+create index concurrently if not exists idx_document_shares_team on document_shares (team_id);
+create index concurrently if not exists idx_team_members_user on team_members (user_id);
+create index concurrently if not exists idx_user_roles_user on user_roles (user_id);
+create index concurrently if not exists idx_role_permissions_role on role_permissions (role_id);
+create index concurrently if not exists idx_event_attendees_user on event_attendees (user_id);
+create index concurrently if not exists idx_conversation_participants_user on conversation_participants (user_id);
@@ -0,0 +1,3 @@
+-- Trigram operator classes for the substring search indexes in V5. pg_trgm is a trusted extension, so the
+-- database owner can create it without superuser rights.
+create extension if not exists pg_trgm;
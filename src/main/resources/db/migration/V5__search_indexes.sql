@@ -0,0 +1,6 @@
+-- Substring search (lower(column) like '%term%') on users and document titles; a B-tree index cannot serve a
+-- leading wildcard. Built concurrently, so this migration runs outside a transaction.
+create index concurrently if not exists idx_users_name_trgm on users using gin (lower(name) gin_trgm_ops);
+create index concurrently if not exists idx_users_email_trgm on users using gin (lower(email) gin_trgm_ops);
+create index concurrently if not exists idx_users_username_trgm on users using gin (lower(username) gin_trgm_ops);
+create index concurrently if not exists idx_documents_title_trgm on documents using gin (lower(title) gin_trgm_ops);
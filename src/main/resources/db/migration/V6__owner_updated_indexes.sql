@@ -0,0 +1,14 @@
+-- Owner lists sorted by last change, and the count/max(updated_at) versions of those lists that conditional GETs
+-- compare before loading them. Replace the single-column owner indexes; built concurrently like V3.
+
+create index concurrently if not exists idx_documents_owner_updated on documents (owner_id, updated_at);
+drop index concurrently if exists idx_documents_owner;
+
+create index concurrently if not exists idx_files_owner_updated on files (owner_id, updated_at);
+drop index concurrently if exists idx_files_owner;
+
+create index concurrently if not exists idx_folders_owner_updated on folders (owner_id, updated_at);
+drop index concurrently if exists idx_folders_owner;
+
+-- Teams of their owner had no index at all
+create index concurrently if not exists idx_teams_owner_updated on teams (owner_id, updated_at);
@@ -0,0 +1,22 @@
+-- Delta sync: a change sequence per user and the latest change of each entity, tombstones included.
+create table sync_sequences (
+    last_seq bigint not null,
+    purged_seq bigint not null,
+    updated_at timestamp(6) with time zone not null,
+    user_id varchar(40) not null,
+    primary key (user_id)
+);
+
+create table sync_changes (
+    deleted boolean not null,
+    changed_at timestamp(6) with time zone not null,
+    seq bigint not null,
+    entity_id varchar(40) not null,
+    entity_type varchar(20) not null check (entity_type in ('FILE','FOLDER','DOCUMENT','NOTIFICATION')),
+    user_id varchar(40) not null,
+    primary key (entity_id, entity_type, user_id)
+);
+
+create unique index idx_sync_changes_user_seq on sync_changes (user_id, seq);
+-- Only tombstones are purged; live rows stay for as long as their entity
+create index idx_sync_changes_tombstones on sync_changes (changed_at) where deleted;
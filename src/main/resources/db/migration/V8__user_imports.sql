@@ -0,0 +1,25 @@
+-- Bulk user imports: one row per upload with its progress, and the rows it rejected.
+create table user_import_jobs (
+    failed_rows bigint not null,
+    imported_rows bigint not null,
+    total_rows bigint not null,
+    created_at timestamp(6) with time zone not null,
+    finished_at timestamp(6) with time zone,
+    started_at timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone not null,
+    format varchar(10) not null,
+    status varchar(20) not null check (status in ('PENDING','RUNNING','COMPLETED','FAILED')),
+    created_by varchar(40) not null,
+    id varchar(40) not null,
+    message text,
+    primary key (id)
+);
+
+create index idx_user_import_jobs_status on user_import_jobs (status, updated_at);
+
+create table user_import_errors (
+    line bigint not null,
+    job_id varchar(40) not null,
+    message varchar(1000) not null,
+    primary key (job_id, line)
+);
@@ -0,0 +1,2 @@
+-- Time zone a recurring series is expanded in; existing series stay null, which means UTC.
+alter table calendar_events add column recurrence_time_zone varchar(64);
@@ -0,0 +1,105 @@
+package com.halolight.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@code @Cacheable(sync = true)} loads run outside Caffeine's map lock but must keep its guarantees: one load per
+ * key however many callers miss at once, and a failed load reaches every waiting caller and is not cached.
+ * Refresh-ahead caches refresh existing entries only.
+ */
+class ClusterCaffeineCacheTest {
+
+    private static final int CALLERS = 8;
+
+    private final CacheConfig.ClusterCaffeineCache cache = new CacheConfig.ClusterCaffeineCache("test",
+            Caffeine.newBuilder().build(), true, mock(CacheInvalidationBus.class));
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>(CALLERS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> cache.get("key", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "value";
+                })));
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get("key", String.class)).isEqualTo("value");
+    }
+
+    @Test
+    void failedLoadReachesWaitingCallersAndIsRetried() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> leader = executor.submit(() -> cache.get("key", () -> {
+                loading.countDown();
+                release.await();
+                throw failure;
+            }));
+            loading.await();
+            AtomicReference<Thread> followerThread = new AtomicReference<>();
+            Future<Object> follower = executor.submit(() -> {
+                followerThread.set(Thread.currentThread());
+                return cache.get("key", () -> "unexpected");
+            });
+            // Parked on the running load
+            while (followerThread.get() == null || followerThread.get().getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<Object> caller : List.of(leader, follower)) {
+                assertThatThrownBy(() -> caller.get(10, TimeUnit.SECONDS))
+                        .cause()
+                        .isInstanceOf(Cache.ValueRetrievalException.class)
+                        .cause()
+                        .isSameAs(failure);
+            }
+        }
+
+        assertThat(cache.get("key")).isNull();
+        assertThat(cache.get("key", () -> "value")).isEqualTo("value");
+    }
+
+    @Test
+    void missOnRefreshAheadCacheIsLoadedByTheCacheableMethod() {
+        CacheConfig.ClusterCaffeineCache refreshAhead = new CacheConfig.ClusterCaffeineCache("refreshAhead",
+                Caffeine.newBuilder().build(key -> {
+                    throw new AssertionError("refresh loader called for a missing key");
+                }), true, mock(CacheInvalidationBus.class));
+
+        assertThat(refreshAhead.get("key")).isNull();
+        assertThat(refreshAhead.get("key", () -> "value")).isEqualTo("value");
+        assertThat(refreshAhead.get("key", String.class)).isEqualTo("value");
+    }
+}
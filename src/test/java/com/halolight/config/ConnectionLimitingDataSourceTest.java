@@ -0,0 +1,142 @@
+package com.halolight.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Every checkout must give its permit back exactly once, however the connection ends, or the limiter slowly
+ * shrinks the pool until every request times out.
+ */
+class ConnectionLimitingDataSourceTest {
+
+    private static final int POOL_SIZE = 3;
+
+    private HikariDataSource pool;
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPoolName("limiter-test");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setConnectionTimeout(250);
+        pool = new HikariDataSource(config);
+        dataSource = new ConnectionLimitingDataSource(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void concurrentCheckoutsStayWithinThePoolAndReleaseEveryPermit() throws Exception {
+        int callers = 200;
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(callers);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try (Connection connection = dataSource.getConnection()) {
+                        maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        connection.createStatement().execute("SELECT 1");
+                        inUse.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(maxInUse.get()).isLessThanOrEqualTo(POOL_SIZE);
+        assertThat(dataSource.getWaitingCount()).isZero();
+        assertFullPoolAvailable();
+    }
+
+    @Test
+    void closingTwiceReleasesOnePermit() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertFullPoolAvailable();
+    }
+
+    @Test
+    void failedCheckoutReleasesItsPermit() {
+        // Hikari does not support per-call credentials, so every such checkout fails after taking a permit
+        for (int i = 0; i <= POOL_SIZE; i++) {
+            assertThatThrownBy(() -> dataSource.getConnection("other", "secret")).isInstanceOf(SQLException.class);
+        }
+
+        assertFullPoolAvailable();
+    }
+
+    @Test
+    void waitingBeyondThePoolTimesOut() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            held.add(dataSource.getConnection());
+        }
+        try {
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        assertFullPoolAvailable();
+    }
+
+    /**
+     * Exactly the pool size can be checked out at once: no permit leaked and none released twice
+     */
+    private void assertFullPoolAvailable() {
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < POOL_SIZE; i++) {
+                held.add(dataSource.getConnection());
+            }
+            // Rejected by the limiter itself; with a surplus permit Hikari would time out instead
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessage("limiter-test - Connection is not available, request timed out after 250ms.");
+        } catch (SQLException e) {
+            throw new AssertionError("Pool lost a permit", e);
+        } finally {
+            for (Connection connection : held) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // Closing a pooled H2 connection does not fail
+                }
+            }
+        }
+    }
+}
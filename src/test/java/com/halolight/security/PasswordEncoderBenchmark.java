@@ -0,0 +1,82 @@
+package com.halolight.security;
+
+import com.halolight.config.PasswordProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one password hash and one verification, which is what a registration, a password change and a login
+ * each spend on a {@link PasswordHasher} thread. Argon2 and scrypt use the defaults of {@link PasswordProperties};
+ * bcrypt is measured at the default strength and the next two steps up.
+ * <p>
+ * Not a test; run it on an otherwise idle machine with
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main PasswordEncoderBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"bcrypt-10", "bcrypt-12", "bcrypt-14", "argon2", "scrypt"})
+    private String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = encoder(encoder, new PasswordProperties());
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+
+    /**
+     * Built the way {@code SecurityConfig} builds the encoder of the same id
+     */
+    private static PasswordEncoder encoder(String id, PasswordProperties properties) {
+        if (id.startsWith("bcrypt-")) {
+            return new BCryptPasswordEncoder(Integer.parseInt(id.substring("bcrypt-".length())));
+        }
+        PasswordProperties.Argon2 argon2 = properties.getArgon2();
+        PasswordProperties.Scrypt scrypt = properties.getScrypt();
+        return switch (id) {
+            case "argon2" -> new Argon2PasswordEncoder(argon2.getSaltLength(), argon2.getHashLength(),
+                    argon2.getParallelism(), argon2.getMemory(), argon2.getIterations());
+            case "scrypt" -> new SCryptPasswordEncoder(scrypt.getCpuCost(), scrypt.getMemoryCost(),
+                    scrypt.getParallelization(), scrypt.getKeyLength(), scrypt.getSaltLength());
+            default -> throw new IllegalArgumentException("Unknown encoder " + id);
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package com.halolight.service;
+
+import com.halolight.domain.repository.RefreshTokenRepository;
+import com.halolight.domain.repository.UserRepository;
+import com.halolight.domain.repository.UserRoleRepository;
+import com.halolight.dto.RegisterRequest;
+import com.halolight.exception.AuthenticationException;
+import com.halolight.security.JwtTokenProvider;
+import com.halolight.security.PasswordHasher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Registration does not check for duplicates before inserting; the unique constraints on users decide. Concurrent
+ * registrations of one username, email or phone must leave one account and give every other caller the same
+ * error a sequential duplicate gets.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AuthService.class, RoleService.class})
+class AuthServiceRegistrationTest {
+
+    private static final int CALLERS = 8;
+    private static final String REGISTERED = "registered";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @MockitoBean
+    private PasswordHasher passwordHasher;
+
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockitoBean
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordHasher.encode(anyString())).thenAnswer(invocation -> "{noop}" + invocation.getArgument(0));
+        when(jwtTokenProvider.generateAccessToken(any(), any())).thenReturn("access-token");
+        when(jwtTokenProvider.generateRefreshToken()).thenAnswer(invocation -> UUID.randomUUID().toString());
+        when(jwtTokenProvider.hashRefreshToken(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAllInBatch();
+        userRoleRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneUsernameLeaveOneUser() throws Exception {
+        List<String> outcomes = registerConcurrently(i -> request("taken", "taken" + i + "@example.com", null));
+
+        assertOneRegistered(outcomes, "Username is already taken");
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneEmailLeaveOneUser() throws Exception {
+        List<String> outcomes = registerConcurrently(i -> request("user" + i, "taken@example.com", null));
+
+        assertOneRegistered(outcomes, "Email is already in use");
+    }
+
+    @Test
+    void concurrentRegistrationsOfOnePhoneLeaveOneUser() throws Exception {
+        List<String> outcomes = registerConcurrently(i -> request("user" + i, "user" + i + "@example.com",
+                "+8613800000000"));
+
+        assertOneRegistered(outcomes, "Phone number is already in use");
+    }
+
+    private void assertOneRegistered(List<String> outcomes, String duplicateMessage) {
+        assertThat(outcomes).filteredOn(REGISTERED::equals).hasSize(1);
+        assertThat(outcomes).filteredOn(outcome -> !REGISTERED.equals(outcome))
+                .hasSize(CALLERS - 1)
+                .containsOnly(duplicateMessage);
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    /**
+     * Start every registration at once and collect, per caller, either {@link #REGISTERED} or the message of the
+     * authentication error; any other failure fails the test
+     */
+    private List<String> registerConcurrently(IntFunction<RegisterRequest> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>(CALLERS);
+        try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+            for (int i = 0; i < CALLERS; i++) {
+                RegisterRequest request = requests.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        authService.register(request);
+                        return REGISTERED;
+                    } catch (AuthenticationException e) {
+                        return e.getMessage();
+                    }
+                }));
+            }
+            start.countDown();
+            List<String> outcomes = new ArrayList<>(CALLERS);
+            for (Future<String> future : futures) {
+                outcomes.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        }
+    }
+
+    private static RegisterRequest request(String username, String email, String phone) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("secret1");
+        request.setName(username);
+        request.setPhone(phone);
+        return request;
+    }
+}
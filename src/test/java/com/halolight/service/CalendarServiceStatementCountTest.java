@@ -0,0 +1,138 @@
+package com.halolight.service;
+
+import com.halolight.domain.entity.User;
+import com.halolight.domain.repository.EventAttendeeRepository;
+import com.halolight.support.StatementCountTest;
+import com.halolight.web.dto.calendar.AttendeeRequest;
+import com.halolight.web.dto.calendar.CreateEventRequest;
+import com.halolight.web.dto.calendar.EventResponse;
+import com.halolight.web.dto.calendar.ReminderRequest;
+import com.halolight.web.dto.calendar.UpdateEventRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Event writes validate attendees with one query and insert attendees and reminders as JDBC batches, so the
+ * statement count does not grow with the number of attendees.
+ */
+@Import({CalendarService.class, RecurrenceExpander.class})
+class CalendarServiceStatementCountTest extends StatementCountTest {
+
+    private static final Instant START = Instant.parse("2026-11-02T09:00:00Z");
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private EventAttendeeRepository attendeeRepository;
+
+    @Test
+    void createEventIssuesAConstantNumberOfStatements() {
+        User organizer = given(this::persistUser);
+        List<String> few = given(() -> persistUsers(3));
+        List<String> many = given(() -> persistUsers(30));
+
+        long withFew = countStatements(() -> calendarService.createEvent(organizer.getId(), createRequest(few)));
+        entityManager.clear();
+        long withMany = countStatements(() -> calendarService.createEvent(organizer.getId(), createRequest(many)));
+
+        // Organizer and attendee lookups, then one insert each for the event, its attendees and its reminders
+        assertThat(withMany).isEqualTo(withFew).isEqualTo(5);
+    }
+
+    @Test
+    void createEventPersistsEveryAttendee() {
+        User organizer = given(this::persistUser);
+        List<String> attendees = given(() -> persistUsers(30));
+
+        EventResponse event = calendarService.createEvent(organizer.getId(), createRequest(attendees));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(attendeeRepository.findByIdEventId(event.getId())).hasSize(30);
+    }
+
+    @Test
+    void replacingAttendeesIssuesAConstantNumberOfStatements() {
+        User organizer = given(this::persistUser);
+        List<String> few = given(() -> persistUsers(3));
+        List<String> many = given(() -> persistUsers(30));
+        String first = given(() -> calendarService.createEvent(organizer.getId(), createRequest(few)).getId());
+        String second = given(() -> calendarService.createEvent(organizer.getId(), createRequest(few)).getId());
+
+        long withFew = countStatements(() -> calendarService.updateEvent(first, organizer.getId(), updateRequest(few)));
+        entityManager.clear();
+        long withMany = countStatements(() -> calendarService.updateEvent(second, organizer.getId(), updateRequest(many)));
+
+        assertThat(withMany).isEqualTo(withFew);
+    }
+
+    @Test
+    void addingAttendeesIssuesAConstantNumberOfStatements() {
+        User organizer = given(this::persistUser);
+        List<String> few = given(() -> persistUsers(3));
+        List<String> many = given(() -> persistUsers(30));
+        String first = given(() -> calendarService.createEvent(organizer.getId(), createRequest(List.of())).getId());
+        String second = given(() -> calendarService.createEvent(organizer.getId(), createRequest(List.of())).getId());
+
+        long withFew = countStatements(() -> calendarService.addAttendees(first, organizer.getId(), few));
+        entityManager.clear();
+        long withMany = countStatements(() -> calendarService.addAttendees(second, organizer.getId(), many));
+
+        assertThat(withMany).isEqualTo(withFew);
+    }
+
+    private CreateEventRequest createRequest(List<String> attendeeIds) {
+        return CreateEventRequest.builder()
+                .title("Planning")
+                .startTime(START)
+                .endTime(START.plus(1, ChronoUnit.HOURS))
+                .attendees(attendees(attendeeIds))
+                .reminders(List.of(
+                        ReminderRequest.builder().remindAt(START.minus(1, ChronoUnit.DAYS)).build(),
+                        ReminderRequest.builder().remindAt(START.minus(15, ChronoUnit.MINUTES)).build()))
+                .build();
+    }
+
+    private UpdateEventRequest updateRequest(List<String> attendeeIds) {
+        return UpdateEventRequest.builder()
+                .title("Planning, moved")
+                .attendees(attendees(attendeeIds))
+                .build();
+    }
+
+    private static List<AttendeeRequest> attendees(List<String> userIds) {
+        return userIds.stream()
+                .map(userId -> AttendeeRequest.builder().userId(userId).build())
+                .toList();
+    }
+
+    private List<String> persistUsers(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(persistUser().getId());
+        }
+        return ids;
+    }
+
+    private User persistUser() {
+        String name = UUID.randomUUID().toString().substring(0, 12);
+        User user = User.builder()
+                .email(name + "@example.com")
+                .username(name)
+                .password("{noop}secret")
+                .name(name)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
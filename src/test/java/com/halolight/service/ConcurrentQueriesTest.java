@@ -0,0 +1,77 @@
+package com.halolight.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrentQueriesTest {
+
+    private final ConcurrentQueries concurrentQueries = new ConcurrentQueries(transactionManager(), 1,
+            Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        concurrentQueries.shutdown();
+    }
+
+    @Test
+    void subtaskBeyondTheBudgetRunsInlineInsteadOfFailing() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        try (ConcurrentQueries.Scope scope = concurrentQueries.open()) {
+            Supplier<Boolean> parallel = scope.fork(() -> release.await(5, TimeUnit.SECONDS));
+            Supplier<Thread> inline = scope.fork(Thread::currentThread);
+            release.countDown();
+            scope.join();
+
+            assertThat(parallel.get()).isTrue();
+            assertThat(inline.get()).isSameAs(caller);
+        }
+    }
+
+    @Test
+    void permitsComeBackAfterFailuresAndCancellation() {
+        CountDownLatch never = new CountDownLatch(1);
+        try (ConcurrentQueries.Scope scope = concurrentQueries.open()) {
+            scope.fork(() -> never.await(5, TimeUnit.SECONDS));
+            scope.fork(() -> {
+                throw new IllegalArgumentException("boom");
+            });
+            assertThatThrownBy(scope::join).isInstanceOf(IllegalArgumentException.class).hasMessage("boom");
+        }
+
+        // The blocked subtask was interrupted; once it has unwound, its permit is free for the next request
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        boolean parallel = false;
+        while (!parallel && System.nanoTime() < deadline) {
+            parallel = runsInParallel();
+        }
+        assertThat(parallel).isTrue();
+    }
+
+    private boolean runsInParallel() {
+        try (ConcurrentQueries.Scope scope = concurrentQueries.open()) {
+            Supplier<Boolean> virtual = scope.fork(() -> Thread.currentThread().isVirtual());
+            scope.join();
+            return virtual.get();
+        }
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        return transactionManager;
+    }
+}
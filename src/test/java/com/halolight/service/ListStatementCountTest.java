@@ -0,0 +1,247 @@
+package com.halolight.service;
+
+import com.halolight.domain.entity.CalendarEvent;
+import com.halolight.domain.entity.Conversation;
+import com.halolight.domain.entity.ConversationParticipant;
+import com.halolight.domain.entity.EventAttendee;
+import com.halolight.domain.entity.EventReminder;
+import com.halolight.domain.entity.Message;
+import com.halolight.domain.entity.Permission;
+import com.halolight.domain.entity.Role;
+import com.halolight.domain.entity.RolePermission;
+import com.halolight.domain.entity.Team;
+import com.halolight.domain.entity.TeamMember;
+import com.halolight.domain.entity.User;
+import com.halolight.domain.entity.id.ConversationParticipantId;
+import com.halolight.domain.entity.id.EventAttendeeId;
+import com.halolight.domain.entity.id.RolePermissionId;
+import com.halolight.domain.entity.id.TeamMemberId;
+import com.halolight.support.StatementCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * List endpoints load each page through fetch plans and one query per association, so a page of one row and a
+ * full page cost the same number of statements. Unpaged lists cost the same whatever the number of rows.
+ */
+@Import({CalendarService.class, RecurrenceExpander.class, TeamService.class, MessageService.class,
+        RoleService.class})
+class ListStatementCountTest extends StatementCountTest {
+
+    /**
+     * More rows than a page holds, so both page sizes also run the count query
+     */
+    private static final int ROWS = 12;
+    private static final int PAGE_SIZE = 10;
+
+    /**
+     * More roles than hibernate.default_batch_fetch_size, so lazily loaded permissions would take extra batches
+     */
+    private static final int ROLES = 40;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @MockitoBean
+    private ConcurrentQueries concurrentQueries;
+
+    @MockitoBean
+    private DocumentAccessIndex documentAccessIndex;
+
+    @MockitoBean
+    private UnreadCounterService unreadCounterService;
+
+    @Test
+    void eventPagesCostTheSameWhateverTheirSize() {
+        User organizer = given(() -> {
+            User user = persistUser();
+            for (int i = 0; i < ROWS; i++) {
+                persistEvent(user, i);
+            }
+            return user;
+        });
+
+        long single = countStatements(() -> calendarService.getEventsByOrganizer(organizer.getId(), PageRequest.of(0, 1)));
+        entityManager.clear();
+        long full = countStatements(() -> calendarService.getEventsByOrganizer(organizer.getId(), PageRequest.of(0, PAGE_SIZE)));
+
+        assertThat(full).isEqualTo(single);
+    }
+
+    @Test
+    void teamPagesCostTheSameWhateverTheirSize() {
+        given(() -> {
+            for (int i = 0; i < ROWS; i++) {
+                persistTeam();
+            }
+            return null;
+        });
+
+        long single = countStatements(() -> teamService.getTeams(null, PageRequest.of(0, 1)));
+        entityManager.clear();
+        long full = countStatements(() -> teamService.getTeams(null, PageRequest.of(0, PAGE_SIZE)));
+
+        assertThat(full).isEqualTo(single);
+    }
+
+    @Test
+    void conversationPagesCostTheSameWhateverTheirSize() {
+        User user = given(() -> {
+            User owner = persistUser();
+            for (int i = 0; i < ROWS; i++) {
+                persistConversation(owner);
+            }
+            return owner;
+        });
+
+        long single = countStatements(() -> messageService.listConversations(user.getId(), PageRequest.of(0, 1)));
+        entityManager.clear();
+        long full = countStatements(() -> messageService.listConversations(user.getId(), PageRequest.of(0, PAGE_SIZE)));
+
+        assertThat(full).isEqualTo(single);
+    }
+
+    /**
+     * The test profile disables caching, so every call reaches the database
+     */
+    @Test
+    void roleListCostsTheSameWhateverItsSize() {
+        List<Permission> permissions = given(() -> List.of(persistPermission("read"), persistPermission("write")));
+        given(() -> persistRole(0, permissions));
+
+        long single = countStatements(() -> assertThat(roleService.getAllRoles()).hasSize(1));
+        entityManager.clear();
+        given(() -> {
+            for (int i = 1; i < ROLES; i++) {
+                persistRole(i, permissions);
+            }
+            return null;
+        });
+        long full = countStatements(() -> assertThat(roleService.getAllRoles()).hasSize(ROLES));
+
+        assertThat(full).isEqualTo(single);
+    }
+
+    private void persistEvent(User organizer, int index) {
+        Instant start = Instant.parse("2026-11-02T09:00:00Z").plus(index, ChronoUnit.DAYS);
+        CalendarEvent event = CalendarEvent.builder()
+                .title("Event " + index)
+                .startTime(start)
+                .endTime(start.plus(1, ChronoUnit.HOURS))
+                .allDay(false)
+                .organizerId(organizer.getId())
+                .organizer(organizer)
+                .build();
+        entityManager.persist(event);
+        for (int i = 0; i < 2; i++) {
+            User attendee = persistUser();
+            entityManager.persist(EventAttendee.builder()
+                    .id(new EventAttendeeId(event.getId(), attendee.getId()))
+                    .event(event)
+                    .user(attendee)
+                    .build());
+        }
+        entityManager.persist(EventReminder.builder()
+                .eventId(event.getId())
+                .remindAt(start.minus(15, ChronoUnit.MINUTES))
+                .type("email")
+                .sent(false)
+                .build());
+    }
+
+    private void persistTeam() {
+        User owner = persistUser();
+        Team team = Team.builder()
+                .name("Team " + owner.getUsername())
+                .ownerId(owner.getId())
+                .owner(owner)
+                .build();
+        entityManager.persist(team);
+        for (int i = 0; i < 2; i++) {
+            User member = persistUser();
+            entityManager.persist(TeamMember.builder()
+                    .id(new TeamMemberId(team.getId(), member.getId()))
+                    .team(team)
+                    .user(member)
+                    .joinedAt(Instant.now())
+                    .build());
+        }
+    }
+
+    private void persistConversation(User owner) {
+        User other = persistUser();
+        Conversation conversation = Conversation.builder().isGroup(false).build();
+        entityManager.persist(conversation);
+        for (User user : new User[]{owner, other}) {
+            entityManager.persist(ConversationParticipant.builder()
+                    .id(new ConversationParticipantId(conversation.getId(), user.getId()))
+                    .conversation(conversation)
+                    .user(user)
+                    .joinedAt(Instant.now())
+                    .build());
+        }
+        entityManager.persist(Message.builder()
+                .conversationId(conversation.getId())
+                .senderId(other.getId())
+                .content("Hello")
+                .build());
+    }
+
+    private Permission persistPermission(String action) {
+        Permission permission = Permission.builder()
+                .action(action)
+                .resource("documents")
+                .description(action + " documents")
+                .build();
+        entityManager.persist(permission);
+        return permission;
+    }
+
+    private Role persistRole(int index, List<Permission> permissions) {
+        Role role = Role.builder()
+                .name("ROLE_" + index)
+                .label("Role " + index)
+                .build();
+        entityManager.persist(role);
+        for (Permission permission : permissions) {
+            Permission managed = entityManager.find(Permission.class, permission.getId());
+            entityManager.persist(RolePermission.builder()
+                    .id(new RolePermissionId(role.getId(), managed.getId()))
+                    .role(role)
+                    .permission(managed)
+                    .build());
+        }
+        return role;
+    }
+
+    private User persistUser() {
+        String name = UUID.randomUUID().toString().substring(0, 12);
+        User user = User.builder()
+                .email(name + "@example.com")
+                .username(name)
+                .password("{noop}secret")
+                .name(name)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
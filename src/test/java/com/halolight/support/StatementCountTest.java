@@ -0,0 +1,58 @@
+package com.halolight.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.Supplier;
+
+/**
+ * Base for repository and service tests that assert how many SQL statements an operation issues, counted from
+ * Hibernate's statistics. Each test runs in a transaction that is rolled back afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+public abstract class StatementCountTest {
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    /**
+     * Persist test data and detach it, so the measured operation starts from an empty persistence context
+     */
+    protected <T> T given(Supplier<T> setup) {
+        T result = setup.get();
+        entityManager.flush();
+        entityManager.clear();
+        return result;
+    }
+
+    /**
+     * Run the action and flush its pending writes, returning the number of JDBC statements prepared. A JDBC batch
+     * counts once, however many rows it carries.
+     */
+    protected long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}